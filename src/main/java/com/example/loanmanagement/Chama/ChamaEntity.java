@@ -2,6 +2,7 @@ package com.example.loanmanagement.Chama;
 
 import com.example.loanmanagement.User.UserEntity;
 import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Search.SearchIndexListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "chamas")
 public class ChamaEntity {
 
@@ -0,0 +1,27 @@
+package com.example.loanmanagement.Chama;
+
+import com.example.loanmanagement.Money.Money;
+
+public class ChamaLiquidityDTO {
+    public Long chamaId;
+    public Money contributionsIn = Money.ZERO;
+    public Money repaymentsIn = Money.ZERO;
+    public Money disbursedOut = Money.ZERO;
+    public Money balance = Money.ZERO;
+    public Money reserve = Money.ZERO;
+    public Money lendable = Money.ZERO; // balance less the reserve; what new loans may draw on
+
+    public ChamaLiquidityDTO(Long chamaId) {
+        this.chamaId = chamaId;
+    }
+
+    public ChamaLiquidityDTO(ChamaLiquidityEntity liquidity, Money reserve, Money lendable) {
+        this.chamaId = liquidity.getChamaId();
+        this.contributionsIn = liquidity.getContributionsIn();
+        this.repaymentsIn = liquidity.getRepaymentsIn();
+        this.disbursedOut = liquidity.getDisbursedOut();
+        this.balance = liquidity.getBalance();
+        this.reserve = reserve;
+        this.lendable = lendable;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.loanmanagement.Chama;
+
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Running cash position of a chama, moved in the same transaction as every contribution, repayment and loan approval
+@Entity
+@Table(name = "chama_liquidity",
+        uniqueConstraints = @UniqueConstraint(name = "uk_liquidity_chama", columnNames = "chama_id"))
+public class ChamaLiquidityEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chama_id", nullable = false)
+    private Long chamaId;
+
+    @Column(name = "contributions_in_cents", nullable = false)
+    private Money contributionsIn;
+
+    // Everything repaid on loans, late fees included
+    @Column(name = "repayments_in_cents", nullable = false)
+    private Money repaymentsIn;
+
+    // Principal of every approved loan
+    @Column(name = "disbursed_out_cents", nullable = false)
+    private Money disbursedOut;
+
+    private LocalDateTime updatedAt;
+
+    public Long getId() { return id; }
+
+    public Long getChamaId() { return chamaId; }
+
+    public Money getContributionsIn() { return contributionsIn; }
+
+    public Money getRepaymentsIn() { return repaymentsIn; }
+
+    public Money getDisbursedOut() { return disbursedOut; }
+    public void setDisbursedOut(Money disbursedOut) { this.disbursedOut = disbursedOut; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Money getBalance() {
+        return contributionsIn.plus(repaymentsIn).minus(disbursedOut);
+    }
+}
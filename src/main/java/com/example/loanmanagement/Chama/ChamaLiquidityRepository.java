@@ -0,0 +1,53 @@
+package com.example.loanmanagement.Chama;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ChamaLiquidityRepository extends JpaRepository<ChamaLiquidityEntity, Long> {
+
+    Optional<ChamaLiquidityEntity> findByChamaId(Long chamaId);
+
+    // Row lock held until commit: approvals in the same chama queue behind each other, other chamas are unaffected
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM ChamaLiquidityEntity l WHERE l.chamaId = :chamaId")
+    Optional<ChamaLiquidityEntity> findByChamaIdForUpdate(@Param("chamaId") Long chamaId);
+
+    // Atomic increment (MySQL upsert), so concurrent contributions and repayments cannot lose an update
+    @Modifying
+    @Query(value = "INSERT INTO chama_liquidity " +
+            "(chama_id, contributions_in_cents, repayments_in_cents, disbursed_out_cents, updated_at) " +
+            "VALUES (:chamaId, :contributions, :repayments, :disbursed, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "contributions_in_cents = contributions_in_cents + :contributions, " +
+            "repayments_in_cents = repayments_in_cents + :repayments, " +
+            "disbursed_out_cents = disbursed_out_cents + :disbursed, " +
+            "updated_at = NOW()",
+            nativeQuery = true)
+    void addDeltas(@Param("chamaId") Long chamaId,
+                   @Param("contributions") long contributionsCents,
+                   @Param("repayments") long repaymentsCents,
+                   @Param("disbursed") long disbursedCents);
+
+    // One-off seed from the ledgers for every chama
+    @Modifying
+    @Query(value = "INSERT INTO chama_liquidity " +
+            "(chama_id, contributions_in_cents, repayments_in_cents, disbursed_out_cents, updated_at) " +
+            "SELECT c.id, " +
+            "COALESCE((SELECT SUM(ct.amount_cents) FROM contributions ct WHERE ct.chama_id = c.id), 0), " +
+            "COALESCE((SELECT SUM(p.amount_paid_cents) FROM loan_payments p " +
+            "          JOIN loan_applications l ON l.id = p.loan_id WHERE l.chama_id = c.id), 0), " +
+            "COALESCE((SELECT SUM(l.amount_cents) FROM loan_applications l " +
+            "          WHERE l.chama_id = c.id AND l.status IN (:lentStatuses)), 0), " +
+            "NOW() " +
+            "FROM chamas c " +
+            "WHERE NOT EXISTS (SELECT 1 FROM chama_liquidity x WHERE x.chama_id = c.id)",
+            nativeQuery = true)
+    int seedFromLedgers(@Param("lentStatuses") Collection<String> lentStatuses);
+}
@@ -0,0 +1,101 @@
+package com.example.loanmanagement.Chama;
+
+import com.example.loanmanagement.Enum.LoanStatus;
+import com.example.loanmanagement.Money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+@Service
+public class ChamaLiquidityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChamaLiquidityService.class);
+
+    private final ChamaLiquidityRepository liquidityRepo;
+
+    // Share of contributions that must stay in the chama and cannot be lent out
+    private final BigDecimal reserveRatio;
+
+    public ChamaLiquidityService(ChamaLiquidityRepository liquidityRepo,
+                                 @Value("${loans.liquidity.reserve-ratio:0}") BigDecimal reserveRatio) {
+        if (reserveRatio.signum() < 0 || reserveRatio.compareTo(BigDecimal.ONE) > 0) {
+            throw new RuntimeException("loans.liquidity.reserve-ratio must be between 0 and 1");
+        }
+        this.liquidityRepo = liquidityRepo;
+        this.reserveRatio = reserveRatio;
+    }
+
+    // ===== Ledger movements (called inside the transaction that records them) =====
+
+    public void recordContribution(Long chamaId, Money amount) {
+        liquidityRepo.addDeltas(chamaId, amount.cents(), 0, 0);
+    }
+
+    public void recordRepayment(Long chamaId, Money amount) {
+        liquidityRepo.addDeltas(chamaId, 0, amount.cents(), 0);
+    }
+
+    // ✅ Approval: lock the chama's row, check the loan fits what it can lend, and book the disbursement.
+    // Runs in the caller's transaction (not its own), so a refusal in a bulk decision fails only that loan.
+    public void reserveForLoan(Long chamaId, Money amount) {
+        ChamaLiquidityEntity liquidity = lockedRow(chamaId);
+        Money available = lendable(liquidity);
+        if (amount.isGreaterThan(available)) {
+            throw new RuntimeException("Chama can lend at most Ksh " + available.max(Money.ZERO) +
+                    " right now; this loan needs Ksh " + amount);
+        }
+        liquidity.setDisbursedOut(liquidity.getDisbursedOut().plus(amount));
+        liquidity.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // ✅ Application: a single-row read to turn away requests the chama could not fund today
+    public void checkCapacity(Long chamaId, Money amount) {
+        Money available = getLendingCapacity(chamaId).lendable;
+        if (amount.isGreaterThan(available)) {
+            throw new RuntimeException("Requested amount exceeds what the chama can currently lend (Ksh " +
+                    available.max(Money.ZERO) + ")");
+        }
+    }
+
+    public ChamaLiquidityDTO getLendingCapacity(Long chamaId) {
+        return liquidityRepo.findByChamaId(chamaId)
+                .map(l -> new ChamaLiquidityDTO(l, reserve(l), lendable(l)))
+                .orElseGet(() -> new ChamaLiquidityDTO(chamaId));
+    }
+
+    private ChamaLiquidityEntity lockedRow(Long chamaId) {
+        return liquidityRepo.findByChamaIdForUpdate(chamaId).orElseGet(() -> {
+            liquidityRepo.addDeltas(chamaId, 0, 0, 0);
+            return liquidityRepo.findByChamaIdForUpdate(chamaId)
+                    .orElseThrow(() -> new RuntimeException("Could not open liquidity ledger for chama " + chamaId));
+        });
+    }
+
+    private Money reserve(ChamaLiquidityEntity liquidity) {
+        return liquidity.getContributionsIn().times(reserveRatio);
+    }
+
+    private Money lendable(ChamaLiquidityEntity liquidity) {
+        return liquidity.getBalance().minus(reserve(liquidity));
+    }
+
+    // ✅ Open a ledger for every chama that has none, from its contributions, repayments and approved loans
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(5) // after chama ids are on loan rows
+    @Transactional
+    public void seedLedgers() {
+        int rows = liquidityRepo.seedFromLedgers(LoanStatus.LENT.stream().map(Enum::name).collect(Collectors.toList()));
+        if (rows > 0) {
+            logger.info("Seeded liquidity ledgers for {} chamas", rows);
+        }
+    }
+}
@@ -2,11 +2,25 @@ package com.example.loanmanagement.Chama;
 
 import com.example.loanmanagement.Chama.ChamaEntity;
 import com.example.loanmanagement.User.UserEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface ChamaRepository extends JpaRepository<ChamaEntity, Long> {
     Optional<ChamaEntity> findByJoinCode(String joinCode);
     boolean existsByName(String name);
     Optional<ChamaEntity> findById(Long id);
+
+    @Query("SELECT c.id FROM ChamaEntity c ORDER BY c.id")
+    List<Long> findAllIds();
+
+    // Row lock held until commit, for per-chama work that must not interleave (e.g. allocating payout positions)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ChamaEntity c WHERE c.id = :id")
+    Optional<ChamaEntity> findByIdForUpdate(@Param("id") Long id);
 }
@@ -1,5 +1,6 @@
 package com.example.loanmanagement.Chama;
 
+import com.example.loanmanagement.Contribution.PayoutRotationService;
 import com.example.loanmanagement.Member.MemberEntity;
 import com.example.loanmanagement.Member.MemberRepository;
 import com.example.loanmanagement.Enum.ChamaRole;
@@ -20,11 +21,14 @@ public class ChamaService {
     private final ChamaRepository chamaRepository;
     private final UserRepository userRepository;
     private final MemberRepository memberRepository;
+    private final PayoutRotationService payoutRotationService;
 
-    public ChamaService(ChamaRepository chamaRepository, UserRepository userRepository, MemberRepository memberRepository) {
+    public ChamaService(ChamaRepository chamaRepository, UserRepository userRepository, MemberRepository memberRepository,
+                        PayoutRotationService payoutRotationService) {
         this.chamaRepository = chamaRepository;
         this.userRepository = userRepository;
         this.memberRepository = memberRepository;
+        this.payoutRotationService = payoutRotationService;
     }
 
     @Transactional
@@ -51,6 +55,7 @@ public class ChamaService {
         member.setChama(chama);
         member.setChamaRole(ChamaRole.ADMIN);
         memberRepository.save(member);
+        payoutRotationService.addSlot(member);
 
         return chama;
     }
@@ -73,6 +78,7 @@ public class ChamaService {
         member.setChama(chama);
         member.setChamaRole(ChamaRole.MEMBER);
         memberRepository.save(member);
+        payoutRotationService.addSlot(member);
 
         return chama;
     }
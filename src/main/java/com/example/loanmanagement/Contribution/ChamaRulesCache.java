@@ -0,0 +1,101 @@
+package com.example.loanmanagement.Contribution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class ChamaRulesCache {
+
+    // Upper bound on cached chama rule histories; least recently used entries are evicted first
+    public static final int MAX_ENTRIES = 1000;
+
+    @Autowired
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @Autowired
+    private ChamaRulesVersionRepository chamaRulesVersionRepository;
+
+    private final Map<Long, ChamaRulesHistory> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ChamaRulesHistory> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Bumped on every invalidation so a load that raced with a rules write is not cached
+    private long generation;
+
+    // Rules in force for the current cycle
+    public CompiledChamaRules get(Long chamaId) {
+        return getHistory(chamaId).current();
+    }
+
+    // Rules that governed the given cycle
+    public CompiledChamaRules get(Long chamaId, String cycle) {
+        return getHistory(chamaId).resolve(cycle);
+    }
+
+    // Throws when the chama has no rules configured; misses are not cached
+    public ChamaRulesHistory getHistory(Long chamaId) {
+        long loadGeneration;
+        synchronized (cache) {
+            ChamaRulesHistory cached = cache.get(chamaId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        ChamaRulesHistory history = load(chamaId);
+
+        synchronized (cache) {
+            if (loadGeneration == generation) {
+                cache.putIfAbsent(chamaId, history);
+            }
+        }
+        return history;
+    }
+
+    // Evicts now and again after the surrounding transaction commits, so readers never re-cache the old rules
+    public void invalidate(Long chamaId) {
+        if (chamaId == null) return;
+        evict(chamaId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(chamaId);
+                }
+            });
+        }
+    }
+
+    private ChamaRulesHistory load(Long chamaId) {
+        List<ChamaRulesVersionEntity> versions = chamaRulesVersionRepository.findWithPenaltyTiersByChamaId(chamaId);
+        if (!versions.isEmpty()) {
+            return ChamaRulesHistory.of(versions);
+        }
+
+        ChamaRulesEntity rules = chamaRulesRepository.findWithPenaltyTiersByChamaId(chamaId)
+                .orElseThrow(() -> new RuntimeException("Chama rules not configured. Please set contribution rules first."));
+        return ChamaRulesHistory.single(CompiledChamaRules.compile(rules));
+    }
+
+    private void evict(Long chamaId) {
+        synchronized (cache) {
+            generation++;
+            if (cache.remove(chamaId) != null) {
+                log.info("Compiled rules cache invalidated for chama {}", chamaId);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +22,9 @@ public class ChamaRulesController {
     @Autowired
     private ChamaRulesService chamaRulesService;
 
+    @Autowired
+    private RulesSimulationService rulesSimulationService;
+
     @Autowired
     private EmailService emailService;
 
@@ -61,6 +65,29 @@ public class ChamaRulesController {
         }
     }
 
+    // ===== List rules across chamas (super admin) =====
+    @GetMapping
+    public ResponseEntity<?> getChamaRulesPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            String role = extractRole(request);
+
+            if (!role.equalsIgnoreCase("SUPER_ADMIN")) {
+                return ResponseEntity.status(403).body("Error: Only super admins can list rules across chamas");
+            }
+
+            log.info("User {} with role {} listing chama rules page {}", userId, role, page);
+
+            return ResponseEntity.ok(new PagedModel<>(chamaRulesService.getChamaRulesPage(page, size)));
+        } catch (RuntimeException e) {
+            log.error("Error listing chama rules: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/chama/{chamaId}")
     public ResponseEntity<?> getChamaRules(@PathVariable Long chamaId, HttpServletRequest request) {
         try {
@@ -77,6 +104,40 @@ public class ChamaRulesController {
         }
     }
 
+    @GetMapping("/chama/{chamaId}/versions")
+    public ResponseEntity<?> getChamaRulesVersions(@PathVariable Long chamaId, HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            String role = extractRole(request);
+
+            log.info("User {} with role {} fetching chama rules versions for chama {}", userId, role, chamaId);
+
+            return ResponseEntity.ok(chamaRulesService.getChamaRulesVersions(chamaId));
+        } catch (RuntimeException e) {
+            log.error("Error fetching chama rules versions: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // ===== What-if simulation (no writes) =====
+    @PostMapping("/chama/{chamaId}/simulate")
+    public ResponseEntity<?> simulateChamaRules(
+            @PathVariable Long chamaId,
+            @RequestBody ChamaRulesDTO proposal,
+            HttpServletRequest request) {
+        try {
+            Long userId = extractUserId(request);
+            String role = extractRole(request);
+
+            log.info("User {} with role {} simulating rules change for chama {}", userId, role, chamaId);
+
+            return ResponseEntity.ok(rulesSimulationService.simulate(chamaId, proposal));
+        } catch (RuntimeException e) {
+            log.error("Error simulating chama rules: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     // ===== Delete rules =====
     @DeleteMapping("/chama/{chamaId}")
     public ResponseEntity<?> deleteChamaRules(@PathVariable Long chamaId, HttpServletRequest request) {
@@ -113,7 +174,7 @@ public class ChamaRulesController {
     @PutMapping("/chama/{chamaId}/payout-order")
     public ResponseEntity<?> updatePayoutOrder(
             @PathVariable Long chamaId,
-            @RequestBody String payoutOrder,
+            @RequestBody List<Long> payoutOrder,
             HttpServletRequest request) {
         try {
             Long userId = extractUserId(request);
@@ -1,11 +1,14 @@
 package com.example.loanmanagement.Contribution;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -27,6 +30,17 @@ public class ChamaRulesDTO {
     @Digits(integer = 17, fraction = 2, message = "Penalty amount must be a valid monetary value")
     private BigDecimal penaltyForLate;
 
+    @DecimalMin(value = "0.00", message = "Daily penalty cannot be negative")
+    @Digits(integer = 17, fraction = 2, message = "Daily penalty must be a valid monetary value")
+    private BigDecimal penaltyPerDay;
+
+    @DecimalMin(value = "0.00", message = "Penalty cap cannot be negative")
+    @Digits(integer = 17, fraction = 2, message = "Penalty cap must be a valid monetary value")
+    private BigDecimal maxPenalty;
+
+    @Valid
+    private List<PenaltyTier> penaltyTiers;
+
     @NotNull(message = "Cycle type is required")
     private ChamaRulesEntity.CycleType cycleType;
 
@@ -40,10 +54,14 @@ public class ChamaRulesDTO {
     @Max(value = 30, message = "Grace period cannot exceed 30 days")
     private Integer gracePeriodDays;
 
-    private String payoutOrder;
+    private List<Long> payoutOrder; // Member IDs in payout order
 
     private Long currentPayoutMemberId;
 
+    private String currentPayoutCycle;
+
+    private String effectiveFromCycle; // First cycle the rules apply to; defaults to the current cycle on update
+
     // Additional fields for response
     private String chamaName;
 
@@ -52,15 +70,33 @@ public class ChamaRulesDTO {
         this.id = entity.getId();
         this.monthlyContributionAmount = entity.getMonthlyContributionAmount();
         this.penaltyForLate = entity.getPenaltyForLate();
+        this.penaltyPerDay = entity.getPenaltyPerDay();
+        this.maxPenalty = entity.getMaxPenalty();
+        this.penaltyTiers = new ArrayList<>(entity.getPenaltyTiers());
         this.cycleType = entity.getCycleType();
         this.dayOfCycle = entity.getDayOfCycle();
         this.gracePeriodDays = entity.getGracePeriodDays();
-        this.payoutOrder = entity.getPayoutOrder();
         this.currentPayoutMemberId = entity.getCurrentPayoutMemberId();
+        this.currentPayoutCycle = entity.getCurrentPayoutCycle();
 
         if (entity.getChama() != null) {
             this.chamaId = entity.getChama().getId();
             this.chamaName = entity.getChama().getName();
         }
     }
+
+    // Constructor for a historical rules version
+    public ChamaRulesDTO(ChamaRulesVersionEntity version) {
+        this.id = version.getId();
+        this.chamaId = version.getChama().getId();
+        this.monthlyContributionAmount = version.getMonthlyContributionAmount();
+        this.penaltyForLate = version.getPenaltyForLate();
+        this.penaltyPerDay = version.getPenaltyPerDay();
+        this.maxPenalty = version.getMaxPenalty();
+        this.penaltyTiers = new ArrayList<>(version.getPenaltyTiers());
+        this.cycleType = version.getCycleType();
+        this.dayOfCycle = version.getDayOfCycle();
+        this.gracePeriodDays = version.getGracePeriodDays();
+        this.effectiveFromCycle = version.getEffectiveFromCycle();
+    }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "chama_rules")
@@ -27,7 +29,18 @@ public class ChamaRulesEntity {
     private BigDecimal monthlyContributionAmount;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal penaltyForLate;
+    private BigDecimal penaltyForLate; // Flat penalty charged once a contribution is late
+
+    @Column(nullable = true, precision = 19, scale = 2)
+    private BigDecimal penaltyPerDay; // Extra penalty accrued for each day past the grace period
+
+    @Column(nullable = true, precision = 19, scale = 2)
+    private BigDecimal maxPenalty; // Cap on the total penalty for a single cycle
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "chama_penalty_tiers", joinColumns = @JoinColumn(name = "chama_rules_id"))
+    @OrderBy("fromDaysLate ASC")
+    private List<PenaltyTier> penaltyTiers = new ArrayList<>(); // Progressive per-day rates by days late
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -39,12 +52,15 @@ public class ChamaRulesEntity {
     @Column(nullable = false)
     private Integer gracePeriodDays; // Days after due date before penalty applies
 
-    @Column(nullable = true)
-    private String payoutOrder; // JSON string storing member order for merry-go-round
+    @Column(name = "payout_order", nullable = true)
+    private String legacyPayoutOrder; // Pre-slot JSON member order; moved into payout_slots on startup
 
     @Column(nullable = true)
     private Long currentPayoutMemberId; // Current member to receive payout
 
+    @Column(nullable = true, length = 50)
+    private String currentPayoutCycle; // Cycle in which the current payout member receives the pot
+
     public enum CycleType {
         WEEKLY,
         MONTHLY
@@ -0,0 +1,55 @@
+package com.example.loanmanagement.Contribution;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Immutable interval index over a chama's rule versions, keyed by the start date of each version's first cycle.
+// A version governs every cycle from its start until the next version begins, so lookups are a floor search.
+public final class ChamaRulesHistory {
+
+    private final NavigableMap<LocalDate, CompiledChamaRules> versions;
+
+    private ChamaRulesHistory(NavigableMap<LocalDate, CompiledChamaRules> versions) {
+        this.versions = versions;
+    }
+
+    // Versions without an effective date apply from the beginning of time
+    public static ChamaRulesHistory of(Iterable<ChamaRulesVersionEntity> versions) {
+        TreeMap<LocalDate, CompiledChamaRules> index = new TreeMap<>();
+        for (ChamaRulesVersionEntity version : versions) {
+            LocalDate from = version.getEffectiveFrom() != null ? version.getEffectiveFrom() : LocalDate.MIN;
+            index.put(from, CompiledChamaRules.compile(version));
+        }
+        if (index.isEmpty()) {
+            throw new IllegalArgumentException("A rules history needs at least one version");
+        }
+        return new ChamaRulesHistory(index);
+    }
+
+    // Chamas configured before versioning existed have a single open-ended version: their current rules
+    public static ChamaRulesHistory single(CompiledChamaRules rules) {
+        TreeMap<LocalDate, CompiledChamaRules> index = new TreeMap<>();
+        index.put(LocalDate.MIN, rules);
+        return new ChamaRulesHistory(index);
+    }
+
+    // Rules in force on the given date; dates before the first version fall back to it
+    public CompiledChamaRules resolve(LocalDate date) {
+        Map.Entry<LocalDate, CompiledChamaRules> entry = versions.floorEntry(date);
+        return entry != null ? entry.getValue() : versions.firstEntry().getValue();
+    }
+
+    public CompiledChamaRules resolve(String cycle) {
+        return resolve(ContributionUtils.parseCycleToDate(cycle));
+    }
+
+    public CompiledChamaRules current() {
+        return resolve(LocalDate.now());
+    }
+
+    public int size() {
+        return versions.size();
+    }
+}
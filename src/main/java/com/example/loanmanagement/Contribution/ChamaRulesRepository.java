@@ -1,10 +1,13 @@
 package com.example.loanmanagement.Contribution;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +26,20 @@ public interface ChamaRulesRepository extends JpaRepository<ChamaRulesEntity, Lo
     @Query("SELECT cr FROM ChamaRulesEntity cr WHERE cr.chama.id = :chamaId AND cr.cycleType = :cycleType")
     Optional<ChamaRulesEntity> findByChamaIdAndCycleType(@Param("chamaId") Long chamaId,
                                                          @Param("cycleType") ChamaRulesEntity.CycleType cycleType);
-}
\ No newline at end of file
+
+    // Rules for one chama with penalty tiers loaded (compiled rules cache)
+    @Query("SELECT cr FROM ChamaRulesEntity cr LEFT JOIN FETCH cr.penaltyTiers WHERE cr.chama.id = :chamaId")
+    Optional<ChamaRulesEntity> findWithPenaltyTiersByChamaId(@Param("chamaId") Long chamaId);
+
+    // All rules on a cycle type with their chama loaded (daily penalty accrual)
+    @Query("SELECT cr FROM ChamaRulesEntity cr JOIN FETCH cr.chama WHERE cr.cycleType = :cycleType")
+    List<ChamaRulesEntity> findWithChamaByCycleType(@Param("cycleType") ChamaRulesEntity.CycleType cycleType);
+
+    // One joined query per page: rules columns plus chama name, no entity hydration
+    @Query(value = "SELECT new com.example.loanmanagement.Contribution.ChamaRulesSummaryDTO(" +
+            "cr.id, c.id, c.name, cr.monthlyContributionAmount, cr.penaltyForLate, cr.cycleType, " +
+            "cr.dayOfCycle, cr.gracePeriodDays, cr.currentPayoutMemberId, cr.currentPayoutCycle) " +
+            "FROM ChamaRulesEntity cr JOIN cr.chama c",
+            countQuery = "SELECT COUNT(cr) FROM ChamaRulesEntity cr")
+    Page<ChamaRulesSummaryDTO> findSummaries(Pageable pageable);
+}
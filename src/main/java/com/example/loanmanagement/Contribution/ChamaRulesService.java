@@ -7,10 +7,16 @@ import com.example.loanmanagement.Member.MemberRepository;
 import com.example.loanmanagement.User.EmailService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -18,6 +24,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ChamaRulesService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // How far back the daily job looks for versions that have started; covers missed runs
+    private static final int PROMOTION_WINDOW_DAYS = 31;
+
     @Autowired
     private ChamaRulesRepository chamaRulesRepository;
 
@@ -30,6 +41,21 @@ public class ChamaRulesService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private PayoutRotationService payoutRotationService;
+
+    @Autowired
+    private ChamaRulesCache chamaRulesCache;
+
+    @Autowired
+    private ChamaRulesVersionRepository chamaRulesVersionRepository;
+
+    @Autowired
+    private CycleSnapshotRepository cycleSnapshotRepository;
+
+    @Autowired
+    private PayoutSlotRepository payoutSlotRepository;
+
     @Transactional
     public ChamaRulesDTO createOrUpdateChamaRules(ChamaRulesDTO dto) {
         log.info("Creating/updating chama rules for chama {}", dto.getChamaId());
@@ -41,10 +67,34 @@ public class ChamaRulesService {
         // Check if rules already exist
         Optional<ChamaRulesEntity> existingRules = chamaRulesRepository.findByChamaId(dto.getChamaId());
 
+        // Updates apply from the current cycle unless told otherwise; first-time rules apply from the start
+        String effectiveFromCycle = dto.getEffectiveFromCycle() != null && !dto.getEffectiveFromCycle().isBlank()
+                ? dto.getEffectiveFromCycle().trim()
+                : existingRules.isPresent() ? ContributionUtils.getCurrentCycle(dto.getCycleType()) : null;
+        if (effectiveFromCycle != null && !ContributionUtils.isValidCycle(effectiveFromCycle, dto.getCycleType())) {
+            throw new RuntimeException("Invalid effective cycle '" + effectiveFromCycle + "' for " + dto.getCycleType() +
+                    " rules; expected e.g. '" + ContributionUtils.getCurrentCycle(dto.getCycleType()) + "'");
+        }
+        if (effectiveFromCycle != null && cycleSnapshotRepository.existsByChamaIdAndCycle(dto.getChamaId(), effectiveFromCycle)) {
+            throw new RuntimeException("Cycle " + effectiveFromCycle + " is closed; rule changes must start from an open cycle");
+        }
+
+        // A change that starts in a later cycle is only recorded as a version; the live rules keep governing
+        // the current cycle until promoteDueVersions copies it over once it takes effect
+        if (existingRules.isPresent() && effectiveFromCycle != null
+                && ContributionUtils.parseCycleToDate(effectiveFromCycle).isAfter(LocalDate.now())) {
+            return scheduleVersion(chama, existingRules.get(), dto, effectiveFromCycle);
+        }
+
         ChamaRulesEntity rules;
         if (existingRules.isPresent()) {
             rules = existingRules.get();
             log.info("Updating existing rules for chama {}", dto.getChamaId());
+
+            // Rules configured before versioning keep governing the cycles they were used for
+            if (!chamaRulesVersionRepository.existsByChamaId(dto.getChamaId())) {
+                chamaRulesVersionRepository.save(ChamaRulesVersionEntity.of(rules, null));
+            }
         } else {
             rules = new ChamaRulesEntity();
             rules.setChama(chama);
@@ -52,23 +102,32 @@ public class ChamaRulesService {
         }
 
         // Set/update rule values
-        rules.setMonthlyContributionAmount(dto.getMonthlyContributionAmount());
-        rules.setPenaltyForLate(dto.getPenaltyForLate());
-        rules.setCycleType(dto.getCycleType());
-        rules.setDayOfCycle(dto.getDayOfCycle());
-        rules.setGracePeriodDays(dto.getGracePeriodDays());
-
-        if (dto.getPayoutOrder() != null) {
-            rules.setPayoutOrder(dto.getPayoutOrder());
-        }
+        applyTerms(rules, dto);
 
         if (dto.getCurrentPayoutMemberId() != null) {
             rules.setCurrentPayoutMemberId(dto.getCurrentPayoutMemberId());
         }
+        PayoutRotationService.startRotationIfNeeded(rules);
 
         ChamaRulesEntity saved = chamaRulesRepository.save(rules);
         log.info("Chama rules saved with ID: {}", saved.getId());
 
+        // Record the new terms as a version; re-saving for the same cycle replaces that version
+        chamaRulesVersionRepository.findByChamaIdAndEffectiveFromCycle(dto.getChamaId(), effectiveFromCycle)
+                .ifPresent(chamaRulesVersionRepository::delete);
+        chamaRulesVersionRepository.save(ChamaRulesVersionEntity.of(saved, effectiveFromCycle));
+        log.info("Chama rules version recorded for chama {} effective from {}", dto.getChamaId(),
+                effectiveFromCycle != null ? effectiveFromCycle : "the start");
+
+        chamaRulesCache.invalidate(dto.getChamaId());
+
+        // Payout order lives in payout_slots; seed it on first save so every member has a turn
+        if (dto.getPayoutOrder() != null || !payoutSlotRepository.existsByChamaId(dto.getChamaId())) {
+            payoutRotationService.reorder(dto.getChamaId(), dto.getPayoutOrder());
+        } else {
+            payoutRotationService.refreshScheduledCycles(dto.getChamaId());
+        }
+
         // ✅ Notify all members of this chama
         notifyAllMembers(
                 dto.getChamaId(),
@@ -76,7 +135,106 @@ public class ChamaRulesService {
                 "The rules for your chama '" + chama.getName() + "' have been created/updated. Please log in to review."
         );
 
-        return new ChamaRulesDTO(saved);
+        return toDTO(saved);
+    }
+
+    // Records a future version without touching the live rules
+    private ChamaRulesDTO scheduleVersion(ChamaEntity chama, ChamaRulesEntity live, ChamaRulesDTO dto, String effectiveFromCycle) {
+        if (!chamaRulesVersionRepository.existsByChamaId(dto.getChamaId())) {
+            chamaRulesVersionRepository.save(ChamaRulesVersionEntity.of(live, null));
+        }
+
+        ChamaRulesEntity terms = new ChamaRulesEntity();
+        terms.setChama(chama);
+        applyTerms(terms, dto);
+
+        chamaRulesVersionRepository.findByChamaIdAndEffectiveFromCycle(dto.getChamaId(), effectiveFromCycle)
+                .ifPresent(chamaRulesVersionRepository::delete);
+        ChamaRulesVersionEntity version = chamaRulesVersionRepository.save(ChamaRulesVersionEntity.of(terms, effectiveFromCycle));
+        chamaRulesCache.invalidate(dto.getChamaId());
+        // Upcoming payouts from that cycle on are priced with the new terms
+        payoutRotationService.invalidate(dto.getChamaId());
+        log.info("Chama rules version scheduled for chama {} from {}", dto.getChamaId(), effectiveFromCycle);
+
+        notifyAllMembers(
+                dto.getChamaId(),
+                "Chama Rules Change Scheduled",
+                "New rules for your chama '" + chama.getName() + "' take effect from " + effectiveFromCycle +
+                        ". Please log in to review."
+        );
+
+        return new ChamaRulesDTO(version);
+    }
+
+    private void applyTerms(ChamaRulesEntity rules, ChamaRulesDTO dto) {
+        rules.setMonthlyContributionAmount(dto.getMonthlyContributionAmount());
+        rules.setPenaltyForLate(dto.getPenaltyForLate());
+        rules.setPenaltyPerDay(dto.getPenaltyPerDay());
+        rules.setMaxPenalty(dto.getMaxPenalty());
+        rules.getPenaltyTiers().clear();
+        if (dto.getPenaltyTiers() != null) {
+            rules.getPenaltyTiers().addAll(dto.getPenaltyTiers());
+        }
+        rules.setCycleType(dto.getCycleType());
+        rules.setDayOfCycle(dto.getDayOfCycle());
+        rules.setGracePeriodDays(dto.getGracePeriodDays());
+    }
+
+    // ✅ Copy versions that have taken effect into the live rules (which payouts, cycle close and the rules page read)
+    @Scheduled(cron = "0 10 0 * * ?") // Every day at 00:10, before cycle close
+    @Transactional
+    public void promoteDueVersions() {
+        LocalDate today = LocalDate.now();
+        List<Long> chamaIds = chamaRulesVersionRepository
+                .findByEffectiveFromBetween(today.minusDays(PROMOTION_WINDOW_DAYS), today).stream()
+                .map(v -> v.getChama().getId())
+                .distinct()
+                .collect(Collectors.toList());
+
+        int promoted = 0;
+        for (Long chamaId : chamaIds) {
+            ChamaRulesEntity rules = chamaRulesRepository.findWithPenaltyTiersByChamaId(chamaId).orElse(null);
+            if (rules == null) continue;
+
+            // Latest version in force today (versions come oldest first)
+            ChamaRulesVersionEntity inForce = null;
+            for (ChamaRulesVersionEntity version : chamaRulesVersionRepository.findWithPenaltyTiersByChamaId(chamaId)) {
+                if (version.getEffectiveFrom() == null || !version.getEffectiveFrom().isAfter(today)) {
+                    inForce = version;
+                }
+            }
+            if (inForce == null || sameTerms(rules, inForce)) continue;
+
+            rules.setMonthlyContributionAmount(inForce.getMonthlyContributionAmount());
+            rules.setPenaltyForLate(inForce.getPenaltyForLate());
+            rules.setPenaltyPerDay(inForce.getPenaltyPerDay());
+            rules.setMaxPenalty(inForce.getMaxPenalty());
+            rules.getPenaltyTiers().clear();
+            rules.getPenaltyTiers().addAll(inForce.getPenaltyTiers());
+            rules.setCycleType(inForce.getCycleType());
+            rules.setDayOfCycle(inForce.getDayOfCycle());
+            rules.setGracePeriodDays(inForce.getGracePeriodDays());
+            PayoutRotationService.startRotationIfNeeded(rules);
+
+            chamaRulesCache.invalidate(chamaId);
+            payoutRotationService.refreshScheduledCycles(chamaId);
+            promoted++;
+            log.info("Chama rules effective from {} applied for chama {}", inForce.getEffectiveFromCycle(), chamaId);
+        }
+        if (promoted > 0) {
+            log.info("Applied scheduled rules for {} chamas", promoted);
+        }
+    }
+
+    private boolean sameTerms(ChamaRulesEntity rules, ChamaRulesVersionEntity version) {
+        return Objects.equals(rules.getMonthlyContributionAmount(), version.getMonthlyContributionAmount())
+                && Objects.equals(rules.getPenaltyForLate(), version.getPenaltyForLate())
+                && Objects.equals(rules.getPenaltyPerDay(), version.getPenaltyPerDay())
+                && Objects.equals(rules.getMaxPenalty(), version.getMaxPenalty())
+                && Objects.equals(rules.getPenaltyTiers(), version.getPenaltyTiers())
+                && rules.getCycleType() == version.getCycleType()
+                && Objects.equals(rules.getDayOfCycle(), version.getDayOfCycle())
+                && Objects.equals(rules.getGracePeriodDays(), version.getGracePeriodDays());
     }
 
     public ChamaRulesDTO getChamaRules(Long chamaId) {
@@ -85,15 +243,16 @@ public class ChamaRulesService {
         ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
                 .orElseThrow(() -> new RuntimeException("Chama rules not found for chama ID: " + chamaId));
 
-        return new ChamaRulesDTO(rules);
+        return toDTO(rules);
     }
 
-    public List<ChamaRulesDTO> getAllChamaRules() {
-        log.info("Fetching all chama rules");
+    // Paged listing for super-admin views; sorted by chama so pages are stable
+    public Page<ChamaRulesSummaryDTO> getChamaRulesPage(int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        log.info("Fetching chama rules page {} (size {})", page, pageSize);
 
-        return chamaRulesRepository.findAll().stream()
-                .map(ChamaRulesDTO::new)
-                .collect(Collectors.toList());
+        return chamaRulesRepository.findSummaries(
+                PageRequest.of(Math.max(page, 0), pageSize, Sort.by("chama.id")));
     }
 
     @Transactional
@@ -104,8 +263,12 @@ public class ChamaRulesService {
             throw new RuntimeException("No rules found for chama ID: " + chamaId);
         }
 
+        chamaRulesVersionRepository.deleteByChamaId(chamaId);
+        payoutSlotRepository.deleteByChamaId(chamaId);
         chamaRulesRepository.deleteByChamaId(chamaId);
         log.info("Chama rules deleted for chama {}", chamaId);
+        chamaRulesCache.invalidate(chamaId);
+        payoutRotationService.invalidate(chamaId);
 
         // ✅ Notify members
         notifyAllMembers(
@@ -115,19 +278,26 @@ public class ChamaRulesService {
         );
     }
 
+    public List<ChamaRulesDTO> getChamaRulesVersions(Long chamaId) {
+        log.info("Fetching chama rules versions for chama {}", chamaId);
+
+        return chamaRulesVersionRepository.findWithPenaltyTiersByChamaId(chamaId).stream()
+                .map(ChamaRulesDTO::new)
+                .collect(Collectors.toList());
+    }
+
     public boolean chamaRulesExist(Long chamaId) {
         return chamaRulesRepository.existsByChamaId(chamaId);
     }
 
     @Transactional
-    public ChamaRulesDTO updatePayoutOrder(Long chamaId, String payoutOrder) {
+    public ChamaRulesDTO updatePayoutOrder(Long chamaId, List<Long> payoutOrder) {
         log.info("Updating payout order for chama {}", chamaId);
 
         ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
                 .orElseThrow(() -> new RuntimeException("Chama rules not found"));
 
-        rules.setPayoutOrder(payoutOrder);
-        ChamaRulesEntity saved = chamaRulesRepository.save(rules);
+        List<Long> order = payoutRotationService.reorder(chamaId, payoutOrder);
 
         // ✅ Notify all members
         notifyAllMembers(
@@ -136,7 +306,9 @@ public class ChamaRulesService {
                 "The payout order for your chama '" + rules.getChama().getName() + "' has been updated. Please log in for details."
         );
 
-        return new ChamaRulesDTO(saved);
+        ChamaRulesDTO dto = new ChamaRulesDTO(rules);
+        dto.setPayoutOrder(order);
+        return dto;
     }
 
     @Transactional
@@ -153,6 +325,7 @@ public class ChamaRulesService {
 
         rules.setCurrentPayoutMemberId(memberId);
         ChamaRulesEntity saved = chamaRulesRepository.save(rules);
+        payoutRotationService.refreshScheduledCycles(chamaId);
 
         // ✅ Notify the payout member only
         if (memberId != null) {
@@ -170,7 +343,13 @@ public class ChamaRulesService {
             );
         }
 
-        return new ChamaRulesDTO(saved);
+        return toDTO(saved);
+    }
+
+    private ChamaRulesDTO toDTO(ChamaRulesEntity rules) {
+        ChamaRulesDTO dto = new ChamaRulesDTO(rules);
+        dto.setPayoutOrder(payoutRotationService.getPayoutOrder(rules.getChama().getId()));
+        return dto;
     }
 
     // ==============================
@@ -0,0 +1,24 @@
+package com.example.loanmanagement.Contribution;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Flat row for rules listings across many chamas, filled straight from a JPQL constructor expression
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChamaRulesSummaryDTO {
+    private Long id;
+    private Long chamaId;
+    private String chamaName;
+    private BigDecimal monthlyContributionAmount;
+    private BigDecimal penaltyForLate;
+    private ChamaRulesEntity.CycleType cycleType;
+    private Integer dayOfCycle;
+    private Integer gracePeriodDays;
+    private Long currentPayoutMemberId;
+    private String currentPayoutCycle;
+}
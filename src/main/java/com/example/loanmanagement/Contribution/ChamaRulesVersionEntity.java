@@ -0,0 +1,85 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Contribution rules as they applied from a given cycle onwards; the latest version at or before a cycle governs it
+@Entity
+@Table(name = "chama_rules_versions",
+        indexes = @Index(name = "idx_rules_versions_chama_effective", columnList = "chama_id, effective_from"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChamaRulesVersionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chama_id", nullable = false)
+    private ChamaEntity chama;
+
+    @Column(nullable = true, length = 50)
+    private String effectiveFromCycle; // null = rules in force since the chama started
+
+    @Column(name = "effective_from", nullable = true)
+    private LocalDate effectiveFrom; // Start date of effectiveFromCycle, used for ordering
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal monthlyContributionAmount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal penaltyForLate;
+
+    @Column(nullable = true, precision = 19, scale = 2)
+    private BigDecimal penaltyPerDay;
+
+    @Column(nullable = true, precision = 19, scale = 2)
+    private BigDecimal maxPenalty;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "chama_rules_version_tiers", joinColumns = @JoinColumn(name = "rules_version_id"))
+    @OrderBy("fromDaysLate ASC")
+    private List<PenaltyTier> penaltyTiers = new ArrayList<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChamaRulesEntity.CycleType cycleType;
+
+    @Column(nullable = false)
+    private Integer dayOfCycle;
+
+    @Column(nullable = false)
+    private Integer gracePeriodDays;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Copies the contribution terms of the given rules into a new version
+    public static ChamaRulesVersionEntity of(ChamaRulesEntity rules, String effectiveFromCycle) {
+        ChamaRulesVersionEntity version = new ChamaRulesVersionEntity();
+        version.setChama(rules.getChama());
+        version.setEffectiveFromCycle(effectiveFromCycle);
+        version.setEffectiveFrom(effectiveFromCycle != null ? ContributionUtils.parseCycleToDate(effectiveFromCycle) : null);
+        version.setMonthlyContributionAmount(rules.getMonthlyContributionAmount());
+        version.setPenaltyForLate(rules.getPenaltyForLate());
+        version.setPenaltyPerDay(rules.getPenaltyPerDay());
+        version.setMaxPenalty(rules.getMaxPenalty());
+        version.setPenaltyTiers(new ArrayList<>(rules.getPenaltyTiers()));
+        version.setCycleType(rules.getCycleType());
+        version.setDayOfCycle(rules.getDayOfCycle());
+        version.setGracePeriodDays(rules.getGracePeriodDays());
+        version.setCreatedAt(LocalDateTime.now());
+        return version;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.loanmanagement.Contribution;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChamaRulesVersionRepository extends JpaRepository<ChamaRulesVersionEntity, Long> {
+
+    // All versions of a chama's rules with penalty tiers loaded, oldest first
+    @Query("SELECT DISTINCT v FROM ChamaRulesVersionEntity v LEFT JOIN FETCH v.penaltyTiers " +
+            "WHERE v.chama.id = :chamaId ORDER BY v.effectiveFrom")
+    List<ChamaRulesVersionEntity> findWithPenaltyTiersByChamaId(@Param("chamaId") Long chamaId);
+
+    boolean existsByChamaId(Long chamaId);
+
+    // Versions that took effect in a date range (see ChamaRulesService.promoteDueVersions)
+    List<ChamaRulesVersionEntity> findByEffectiveFromBetween(LocalDate from, LocalDate to);
+
+    Optional<ChamaRulesVersionEntity> findByChamaIdAndEffectiveFromCycle(Long chamaId, String effectiveFromCycle);
+
+    void deleteByChamaId(Long chamaId);
+}
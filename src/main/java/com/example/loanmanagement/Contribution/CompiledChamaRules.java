@@ -0,0 +1,135 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Immutable, pre-interpreted view of a chama's rules for the hot contribution paths.
+// Cycle format, penalty policy and due dates are resolved once instead of on every call.
+public final class CompiledChamaRules {
+
+    private static final DateTimeFormatter MONTHLY_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy");
+    private static final DateTimeFormatter WEEKLY_FORMATTER = DateTimeFormatter.ofPattern("'Week' w yyyy");
+
+    // A few years of cycles; anything past this is computed without being kept
+    private static final int MAX_MEMOIZED_CYCLES = 256;
+
+    private final Long chamaId;
+    private final ChamaRulesEntity.CycleType cycleType;
+    private final Money contributionAmount;
+    private final int dayOfCycle;
+    private final int gracePeriodDays;
+    private final PenaltyPolicy penaltyPolicy;
+    private final DateTimeFormatter cycleFormatter;
+
+    // Due dates are a pure function of the cycle name, so they are memoized per well-formed cycle (bounded, see dueDate)
+    private final Map<String, LocalDate> dueDates = new ConcurrentHashMap<>();
+
+    private CompiledChamaRules(Long chamaId, ChamaRulesEntity.CycleType cycleType, BigDecimal contributionAmount,
+                               int dayOfCycle, int gracePeriodDays, PenaltyPolicy penaltyPolicy) {
+        this.chamaId = chamaId;
+        this.cycleType = cycleType;
+        this.contributionAmount = contributionAmount != null ? Money.of(contributionAmount) : Money.ZERO;
+        this.dayOfCycle = dayOfCycle;
+        this.gracePeriodDays = gracePeriodDays;
+        this.penaltyPolicy = penaltyPolicy;
+        this.cycleFormatter = cycleType == ChamaRulesEntity.CycleType.MONTHLY ? MONTHLY_FORMATTER : WEEKLY_FORMATTER;
+    }
+
+    public static CompiledChamaRules compile(ChamaRulesEntity rules) {
+        return new CompiledChamaRules(rules.getChama().getId(), rules.getCycleType(), rules.getMonthlyContributionAmount(),
+                rules.getDayOfCycle(), rules.getGracePeriodDays(), PenaltyPolicy.from(rules));
+    }
+
+    public static CompiledChamaRules compile(ChamaRulesVersionEntity version) {
+        return new CompiledChamaRules(version.getChama().getId(), version.getCycleType(), version.getMonthlyContributionAmount(),
+                version.getDayOfCycle(), version.getGracePeriodDays(), PenaltyPolicy.from(version));
+    }
+
+    public Long getChamaId() {
+        return chamaId;
+    }
+
+    public ChamaRulesEntity.CycleType getCycleType() {
+        return cycleType;
+    }
+
+    public Money getContributionAmount() {
+        return contributionAmount;
+    }
+
+    // Same amount in cents, for ledger loops that add up Money as plain longs
+    public long getContributionAmountCents() {
+        return contributionAmount.cents();
+    }
+
+    public int getGracePeriodDays() {
+        return gracePeriodDays;
+    }
+
+    public PenaltyPolicy getPenaltyPolicy() {
+        return penaltyPolicy;
+    }
+
+    // ===== Cycle Calculator =====
+    public String cycleOf(LocalDate date) {
+        return date.format(cycleFormatter);
+    }
+
+    public String currentCycle() {
+        return cycleOf(LocalDate.now());
+    }
+
+    public LocalDate dueDate(String cycle) {
+        LocalDate cached = dueDates.get(cycle);
+        if (cached != null) {
+            return cached;
+        }
+        LocalDate dueDate = computeDueDate(cycle);
+        // Only names this rule set generates are kept: a malformed cycle parses as today, which must not stick,
+        // and caller-supplied strings must not grow the memo without limit
+        if (ContributionUtils.isValidCycle(cycle, cycleType) && dueDates.size() < MAX_MEMOIZED_CYCLES) {
+            dueDates.putIfAbsent(cycle, dueDate);
+        }
+        return dueDate;
+    }
+
+    public LocalDate gracePeriodEnd(String cycle) {
+        return dueDate(cycle).plusDays(gracePeriodDays);
+    }
+
+    public boolean isOverdue(String cycle, LocalDate asOf) {
+        return asOf.isAfter(gracePeriodEnd(cycle));
+    }
+
+    // ===== Status & Penalty =====
+    public ContributionEntity.ContributionStatus statusFor(LocalDate datePaid, String cycle) {
+        return isOverdue(cycle, datePaid)
+                ? ContributionEntity.ContributionStatus.LATE
+                : ContributionEntity.ContributionStatus.ON_TIME;
+    }
+
+    public Money penaltyFor(LocalDate datePaid, String cycle) {
+        LocalDate gracePeriodEnd = gracePeriodEnd(cycle);
+        if (!datePaid.isAfter(gracePeriodEnd)) {
+            return Money.ZERO;
+        }
+        return penaltyPolicy.penaltyFor(ChronoUnit.DAYS.between(gracePeriodEnd, datePaid));
+    }
+
+    // ===== Helper Methods =====
+    private LocalDate computeDueDate(String cycle) {
+        LocalDate baseDate = ContributionUtils.parseCycleToDate(cycle);
+
+        if (cycleType == ChamaRulesEntity.CycleType.MONTHLY) {
+            return baseDate.withDayOfMonth(Math.min(dayOfCycle, baseDate.lengthOfMonth()));
+        }
+        int daysToAdd = (dayOfCycle - baseDate.getDayOfWeek().getValue() + 7) % 7;
+        return baseDate.plusDays(daysToAdd);
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.loanmanagement.Contribution;
 
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/contributions")
@@ -19,6 +26,12 @@ public class ContributionController {
     @Autowired
     private ContributionService contributionService;
 
+    @Autowired
+    private CycleCloseService cycleCloseService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
     // ===== Add a new contribution =====
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -102,7 +115,7 @@ public class ContributionController {
     public ResponseEntity<?> getTotalContributions(@PathVariable Long chamaId,
                                                    @RequestParam(required = false) String cycle) {
         try {
-            BigDecimal total = contributionService.calculateTotalContributions(chamaId, cycle);
+            Money total = contributionService.calculateTotalContributions(chamaId, cycle);
             return ResponseEntity.ok(total);
         } catch (RuntimeException e) {
             log.error("Error calculating total contributions: {}", e.getMessage());
@@ -121,6 +134,39 @@ public class ContributionController {
         }
     }
 
+    @GetMapping("/chama/{chamaId}/payout-schedule")
+    public ResponseEntity<?> getPayoutSchedule(@PathVariable Long chamaId,
+                                               @RequestParam(defaultValue = "12") int count) {
+        try {
+            List<MemberPayoutDTO> schedule = contributionService.getPayoutSchedule(chamaId, count);
+            return ResponseEntity.ok(schedule);
+        } catch (RuntimeException e) {
+            log.error("Error fetching payout schedule: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/chama/{chamaId}/payout-turn")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getPayoutTurn(
+            @PathVariable Long chamaId,
+            @RequestParam(required = false) Long memberId,
+            HttpServletRequest request) {
+        try {
+            Long userId = (Long) request.getAttribute("userId");
+            if (userId == null) throw new RuntimeException("Unauthorized: userId missing");
+
+            boolean isAdmin = request.isUserInRole("ADMIN");
+            if (!isAdmin) memberId = userId;
+            else if (memberId == null) return ResponseEntity.badRequest().body("Admin must provide memberId");
+
+            return ResponseEntity.ok(contributionService.getPayoutTurn(memberId, chamaId));
+        } catch (RuntimeException e) {
+            log.error("Error fetching payout turn: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/chama/{chamaId}/distribute-dividends")
     public ResponseEntity<?> distributeDividends(@PathVariable Long chamaId) {
         try {
@@ -142,4 +188,50 @@ public class ContributionController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
+
+    // ===== Cycle close & history =====
+    @PostMapping("/chama/{chamaId}/cycles/close")
+    public ResponseEntity<?> closeCycle(@PathVariable Long chamaId, @RequestParam String cycle, Principal principal) {
+        if (principal == null || !memberRepository.isChamaAdmin(principal.getName(), chamaId)) {
+            return ResponseEntity.status(403).body("Error: Only admins of this chama can close its cycles");
+        }
+
+        try {
+            CycleSnapshotDTO snapshot = cycleCloseService.closeCycle(chamaId, cycle);
+            return ResponseEntity.ok().eTag(snapshot.getEtag()).body(snapshot);
+        } catch (RuntimeException e) {
+            log.error("Error closing cycle: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/chama/{chamaId}/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> recomputeHistory(@PathVariable Long chamaId) {
+        try {
+            int updated = contributionService.recomputeContributionHistory(chamaId);
+            return ResponseEntity.ok(Map.of("chamaId", chamaId, "contributionsUpdated", updated));
+        } catch (RuntimeException e) {
+            log.error("Error recomputing contribution history: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/chama/{chamaId}/cycles/snapshot")
+    public ResponseEntity<?> getCycleSnapshot(@PathVariable Long chamaId,
+                                              @RequestParam String cycle,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            CycleSnapshotDTO snapshot = cycleCloseService.getSnapshot(chamaId, cycle);
+            CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+
+            if (ifNoneMatch != null && ifNoneMatch.contains(snapshot.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(snapshot.getEtag()).cacheControl(cacheControl).body(snapshot);
+        } catch (RuntimeException e) {
+            log.error("Error fetching cycle snapshot: {}", e.getMessage());
+            return ResponseEntity.status(404).body("Error: " + e.getMessage());
+        }
+    }
 }
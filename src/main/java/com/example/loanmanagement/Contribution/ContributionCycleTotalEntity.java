@@ -0,0 +1,50 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Running total of a member's installments in one cycle, maintained on every contribution insert
+@Entity
+@Table(name = "contribution_cycle_totals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cycle_totals_member_cycle", columnNames = {"member_id", "cycle"}),
+        indexes = @Index(name = "idx_cycle_totals_chama_cycle", columnList = "chama_id, cycle"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContributionCycleTotalEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private MemberEntity member;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chama_id", nullable = false)
+    private ChamaEntity chama;
+
+    @Column(nullable = false, length = 50)
+    private String cycle;
+
+    // Cents (see MoneyConverter); nullable in the schema only so MoneyMigration can fill them for older rows
+    @Column(name = "amount_paid_cents")
+    private Money amountPaid;
+
+    @Column(name = "penalty_total_cents")
+    private Money penaltyTotal;
+
+    @Column(nullable = false)
+    private Integer installments;
+
+    @Column(nullable = false)
+    private LocalDate lastPaymentDate;
+}
@@ -0,0 +1,73 @@
+package com.example.loanmanagement.Contribution;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ContributionCycleTotalRepository extends JpaRepository<ContributionCycleTotalEntity, Long> {
+
+    Optional<ContributionCycleTotalEntity> findByMemberIdAndCycle(Long memberId, String cycle);
+
+    // Row lock held until commit: installments of one member in one cycle are recorded one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ContributionCycleTotalEntity t WHERE t.member.id = :memberId AND t.cycle = :cycle")
+    Optional<ContributionCycleTotalEntity> findByMemberIdAndCycleForUpdate(@Param("memberId") Long memberId,
+                                                                           @Param("cycle") String cycle);
+
+    // Empty running total for a member's first installment in a cycle, so there is always a row to lock
+    @Modifying
+    @Query(value = "INSERT INTO contribution_cycle_totals " +
+            "(member_id, chama_id, cycle, amount_paid_cents, penalty_total_cents, installments, last_payment_date) " +
+            "VALUES (:memberId, :chamaId, :cycle, 0, 0, 0, :datePaid) " +
+            "ON DUPLICATE KEY UPDATE installments = installments",
+            nativeQuery = true)
+    void ensureExists(@Param("memberId") Long memberId,
+                      @Param("chamaId") Long chamaId,
+                      @Param("cycle") String cycle,
+                      @Param("datePaid") LocalDate datePaid);
+
+    // Atomic upsert of the running total (MySQL); concurrent installments cannot lose an update
+    @Modifying
+    @Query(value = "INSERT INTO contribution_cycle_totals " +
+            "(member_id, chama_id, cycle, amount_paid_cents, penalty_total_cents, installments, last_payment_date) " +
+            "VALUES (:memberId, :chamaId, :cycle, :amountCents, :penaltyCents, 1, :datePaid) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "amount_paid_cents = amount_paid_cents + VALUES(amount_paid_cents), " +
+            "penalty_total_cents = penalty_total_cents + VALUES(penalty_total_cents), " +
+            "installments = installments + 1, " +
+            "last_payment_date = GREATEST(last_payment_date, VALUES(last_payment_date))",
+            nativeQuery = true)
+    void addInstallment(@Param("memberId") Long memberId,
+                        @Param("chamaId") Long chamaId,
+                        @Param("cycle") String cycle,
+                        @Param("amountCents") long amountCents,
+                        @Param("penaltyCents") long penaltyCents,
+                        @Param("datePaid") LocalDate datePaid);
+
+    // One-off backfill from the contribution ledger for rows recorded before running totals existed
+    @Modifying
+    @Query(value = "INSERT INTO contribution_cycle_totals " +
+            "(member_id, chama_id, cycle, amount_paid_cents, penalty_total_cents, installments, last_payment_date) " +
+            "SELECT c.member_id, c.chama_id, c.cycle, SUM(c.amount_cents), SUM(COALESCE(c.penalty_amount_cents, 0)), COUNT(*), MAX(c.date_paid) " +
+            "FROM contributions c GROUP BY c.member_id, c.chama_id, c.cycle",
+            nativeQuery = true)
+    int backfillFromContributions();
+
+    // Re-derive penalty totals from the ledger after a chama's contributions were recomputed
+    @Modifying
+    @Query(value = "UPDATE contribution_cycle_totals t JOIN (" +
+            "SELECT c.member_id, c.cycle, SUM(COALESCE(c.penalty_amount_cents, 0)) AS penalty " +
+            "FROM contributions c WHERE c.chama_id = :chamaId GROUP BY c.member_id, c.cycle) p " +
+            "ON p.member_id = t.member_id AND p.cycle = t.cycle " +
+            "SET t.penalty_total_cents = p.penalty",
+            nativeQuery = true)
+    int refreshPenaltyTotals(@Param("chamaId") Long chamaId);
+}
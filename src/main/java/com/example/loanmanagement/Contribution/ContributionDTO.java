@@ -49,11 +49,11 @@ public class ContributionDTO {
     // Constructor for creating DTO from entity
     public ContributionDTO(ContributionEntity entity) {
         this.id = entity.getId();
-        this.amount = entity.getAmount();
+        this.amount = entity.getAmount().toBigDecimal();
         this.datePaid = entity.getDatePaid();
         this.cycle = entity.getCycle();
         this.status = entity.getStatus();
-        this.penaltyAmount = entity.getPenaltyAmount();
+        this.penaltyAmount = entity.getPenaltyAmount() != null ? entity.getPenaltyAmount().toBigDecimal() : null;
         this.notes = entity.getNotes();
 
         if (entity.getMember() != null) {
@@ -2,12 +2,12 @@ package com.example.loanmanagement.Contribution;
 
 import com.example.loanmanagement.Member.MemberEntity;
 import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Money.Money;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
@@ -21,8 +21,9 @@ public class ContributionEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    // Cents (see MoneyConverter); nullable in the schema only so MoneyMigration can fill it for older rows
+    @Column(name = "amount_cents")
+    private Money amount;
 
     @Column(nullable = false)
     private LocalDate datePaid;
@@ -42,8 +43,8 @@ public class ContributionEntity {
     @JoinColumn(name = "chama_id", nullable = false)
     private ChamaEntity chama;
 
-    @Column(nullable = true, precision = 19, scale = 2)
-    private BigDecimal penaltyAmount; // Late penalty applied
+    @Column(name = "penalty_amount_cents")
+    private Money penaltyAmount; // Late penalty applied
 
     @Column(nullable = true)
     private String notes; // Optional notes for the contribution
@@ -0,0 +1,21 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Detached, read-only slice of a contribution used to replay history off the persistence context
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContributionReplayRow {
+    private Long memberId;
+    private String cycle;
+    private Money amount;
+    private LocalDate datePaid;
+    private ContributionEntity.ContributionStatus status;
+    private Money penaltyAmount;
+}
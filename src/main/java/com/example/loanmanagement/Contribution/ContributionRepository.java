@@ -1,14 +1,16 @@
 package com.example.loanmanagement.Contribution;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContributionRepository extends JpaRepository<ContributionEntity, Long> {
@@ -16,6 +18,16 @@ public interface ContributionRepository extends JpaRepository<ContributionEntity
     // ===== By Chama =====
     List<ContributionEntity> findByChamaId(Long chamaId);
 
+    // Streams a chama's ledger as detached rows, cycle by cycle in payment order (MySQL row streaming)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("SELECT new com.example.loanmanagement.Contribution.ContributionReplayRow(" +
+            "c.member.id, c.cycle, c.amount, c.datePaid, c.status, c.penaltyAmount) " +
+            "FROM ContributionEntity c WHERE c.chama.id = :chamaId ORDER BY c.cycle, c.datePaid, c.id")
+    Stream<ContributionReplayRow> streamReplayRows(@Param("chamaId") Long chamaId);
+
+    // Whole contribution ledger of a chama in payment order (historical recomputation)
+    List<ContributionEntity> findByChamaIdOrderByDatePaidAscIdAsc(Long chamaId);
+
     List<ContributionEntity> findByChamaIdAndCycle(Long chamaId, String cycle);
 
     List<ContributionEntity> findByChamaIdAndStatus(Long chamaId, ContributionEntity.ContributionStatus status);
@@ -41,6 +53,8 @@ public interface ContributionRepository extends JpaRepository<ContributionEntity
 
     Long countByMemberIdAndChamaId(Long memberId, Long chamaId);
 
+    boolean existsByMemberIdAndCycleAndStatus(Long memberId, String cycle, ContributionEntity.ContributionStatus status);
+
     // ===== Date Range Queries =====
     @Query("SELECT c FROM ContributionEntity c WHERE c.chama.id = :chamaId AND c.datePaid BETWEEN :startDate AND :endDate")
     List<ContributionEntity> findByChamaIdAndDatePaidBetween(
@@ -50,14 +64,17 @@ public interface ContributionRepository extends JpaRepository<ContributionEntity
     );
 
     // ===== Total Contributions =====
-    @Query("SELECT COALESCE(SUM(c.amount), 0) FROM ContributionEntity c WHERE c.member.id = :memberId AND c.chama.id = :chamaId")
-    BigDecimal getTotalContributionsByMemberAndChama(
+    // Summed in cents by the database; callers wrap the result with Money.ofCents
+    @Query(value = "SELECT COALESCE(SUM(amount_cents), 0) FROM contributions WHERE member_id = :memberId AND chama_id = :chamaId",
+            nativeQuery = true)
+    long getTotalContributionCentsByMemberAndChama(
             @Param("memberId") Long memberId,
             @Param("chamaId") Long chamaId
     );
 
-    @Query("SELECT COALESCE(SUM(c.amount), 0) FROM ContributionEntity c WHERE c.chama.id = :chamaId AND (:cycle IS NULL OR c.cycle = :cycle)")
-    BigDecimal getTotalContributionsByChamaAndCycle(
+    @Query(value = "SELECT COALESCE(SUM(amount_cents), 0) FROM contributions WHERE chama_id = :chamaId AND (:cycle IS NULL OR cycle = :cycle)",
+            nativeQuery = true)
+    long getTotalContributionCentsByChamaAndCycle(
             @Param("chamaId") Long chamaId,
             @Param("cycle") String cycle
     );
@@ -1,21 +1,29 @@
 package com.example.loanmanagement.Contribution;
 
+import com.example.loanmanagement.Creditscore.CreditScoringService;
 import com.example.loanmanagement.Member.MemberEntity;
 import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
 import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Chama.ChamaLiquidityService;
 import com.example.loanmanagement.Chama.ChamaRepository;
 import com.example.loanmanagement.User.EmailService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,9 +33,6 @@ public class ContributionService {
     @Autowired
     private ContributionRepository contributionRepository;
 
-    @Autowired
-    private ChamaRulesRepository chamaRulesRepository;
-
     @Autowired
     private MemberRepository memberRepository;
 
@@ -37,6 +42,30 @@ public class ContributionService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ContributionCycleTotalRepository cycleTotalRepository;
+
+    @Autowired
+    private ChamaRulesCache chamaRulesCache;
+
+    @Autowired
+    private CycleSnapshotRepository cycleSnapshotRepository;
+
+    @Autowired
+    private PayoutRotationService payoutRotationService;
+
+    @Autowired
+    private PenaltyAccrualService penaltyAccrualService;
+
+    @Autowired
+    private CycleCloseService cycleCloseService;
+
+    @Autowired
+    private CreditScoringService creditScoringService;
+
+    @Autowired
+    private ChamaLiquidityService chamaLiquidityService;
+
     // ===== Add Contribution =====
     @Transactional
     public ContributionDTO addContribution(ContributionDTO dto, Long userId) {
@@ -49,24 +78,45 @@ public class ContributionService {
         ChamaEntity chama = chamaRepository.findById(dto.getChamaId())
                 .orElseThrow(() -> new RuntimeException("Chama not found"));
 
-        ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(dto.getChamaId())
-                .orElseThrow(() -> new RuntimeException("Chama rules not configured. Please set contribution rules first."));
+        CompiledChamaRules rules = chamaRulesCache.get(dto.getChamaId(), dto.getCycle());
+        if (!ContributionUtils.isValidCycle(dto.getCycle(), rules.getCycleType())) {
+            throw new RuntimeException("Invalid cycle '" + dto.getCycle() + "'; expected e.g. '" + rules.currentCycle() + "'");
+        }
 
-        // Use Optional properly to check existing contribution
-        Optional<ContributionEntity> existingContribution = contributionRepository
-                .findFirstByMemberIdAndChamaIdAndCycleOrderByDatePaidDesc(member.getId(), dto.getChamaId(), dto.getCycle());
+        // Closed cycles are frozen
+        if (cycleCloseService.isCycleClosed(dto.getChamaId(), dto.getCycle())) {
+            throw new RuntimeException("Cycle " + dto.getCycle() + " is closed and can no longer be modified");
+        }
 
-        if (existingContribution.isPresent()) {
-            throw new RuntimeException("Contribution already exists for this member in the specified cycle");
+        // A cycle may be paid in several installments; the running total tells us what is already in.
+        // It is read under a row lock so two concurrent late installments cannot both be charged the penalty.
+        cycleTotalRepository.ensureExists(member.getId(), chama.getId(), dto.getCycle(), dto.getDatePaid());
+        ContributionCycleTotalEntity cycleTotal = cycleTotalRepository.findByMemberIdAndCycleForUpdate(member.getId(), dto.getCycle())
+                .orElseThrow(() -> new RuntimeException("Running total not found for cycle " + dto.getCycle()));
+        Money paidSoFar = cycleTotal.getAmountPaid();
+        boolean penaltyCharged = cycleTotal.getPenaltyTotal().isPositive();
+
+        ContributionEntity.ContributionStatus status = rules.statusFor(dto.getDatePaid(), dto.getCycle());
+
+        // Credit features count cycles, not installments: how the cycle stood before this one (null if it is the first)
+        ContributionEntity.ContributionStatus cycleStatusBefore = null;
+        if (cycleTotal.getInstallments() > 0) {
+            cycleStatusBefore = contributionRepository.existsByMemberIdAndCycleAndStatus(member.getId(), dto.getCycle(),
+                    ContributionEntity.ContributionStatus.LATE)
+                    ? ContributionEntity.ContributionStatus.LATE
+                    : ContributionEntity.ContributionStatus.ON_TIME;
         }
 
-        ContributionEntity.ContributionStatus status = determineContributionStatus(dto.getDatePaid(), dto.getCycle(), rules);
-        BigDecimal penaltyAmount = status == ContributionEntity.ContributionStatus.LATE
-                ? rules.getPenaltyForLate()
-                : BigDecimal.ZERO;
+        Money amount = Money.of(dto.getAmount());
+
+        // Late penalty is charged once per cycle, on the first late installment of an unsettled cycle
+        Money penaltyAmount = Money.ZERO;
+        if (!penaltyCharged && paidSoFar.isLessThan(rules.getContributionAmount())) {
+            penaltyAmount = rules.penaltyFor(dto.getDatePaid(), dto.getCycle());
+        }
 
         ContributionEntity contribution = new ContributionEntity();
-        contribution.setAmount(dto.getAmount());
+        contribution.setAmount(amount);
         contribution.setDatePaid(dto.getDatePaid());
         contribution.setCycle(dto.getCycle());
         contribution.setStatus(status);
@@ -78,14 +128,21 @@ public class ContributionService {
         ContributionEntity saved = contributionRepository.save(contribution);
         log.info("Contribution saved with ID: {}", saved.getId());
 
+        cycleTotalRepository.addInstallment(member.getId(), chama.getId(), dto.getCycle(),
+                amount.cents(), penaltyAmount.cents(), dto.getDatePaid());
+        creditScoringService.recordContribution(member.getId(), chama.getId(), status, cycleStatusBefore, amount);
+        chamaLiquidityService.recordContribution(chama.getId(), amount);
+        Money remaining = rules.getContributionAmount().minus(paidSoFar.plus(amount)).max(Money.ZERO);
+
         // ===== Send Email Notification =====
         try {
             String subject = "Contribution Recorded - " + chama.getName();
             String message = "Dear " + member.getUser().getFullName() + ",\n\n" +
-                    "We have successfully recorded your contribution of " + dto.getAmount() +
+                    "We have successfully recorded your contribution of " + amount +
                     " for cycle: " + dto.getCycle() + " in chama: " + chama.getName() + ".\n\n" +
                     "Status: " + status +
-                    (penaltyAmount.compareTo(BigDecimal.ZERO) > 0 ? ("\nPenalty Applied: " + penaltyAmount) : "") +
+                    (remaining.isPositive() ? ("\nRemaining for this cycle: " + remaining) : "") +
+                    (penaltyAmount.isPositive() ? ("\nPenalty Applied: " + penaltyAmount) : "") +
                     "\n\nThank you for your contribution.\n\n" +
                     "Chama Management System";
 
@@ -131,33 +188,37 @@ public class ContributionService {
                 .findByUser_IdAndChama_Id(userId, chamaId)
                 .orElseThrow(() -> new RuntimeException("Member not found for this user in the specified chama"));
 
-        ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
-                .orElseThrow(() -> new RuntimeException("Chama rules not found"));
+        CompiledChamaRules rules = chamaRulesCache.get(chamaId);
+        String currentCycle = rules.currentCycle();
 
-        String currentCycle = getCurrentCycle(rules.getCycleType());
-
-        Optional<ContributionEntity> currentContribution = contributionRepository
-                .findFirstByMemberIdAndChamaIdAndCycleOrderByDatePaidDesc(member.getId(), chamaId, currentCycle);
+        // Single-row read of the running total instead of scanning the cycle's contributions
+        Optional<ContributionCycleTotalEntity> cycleTotal = cycleTotalRepository.findByMemberIdAndCycle(member.getId(), currentCycle);
+        Money paid = cycleTotal.map(ContributionCycleTotalEntity::getAmountPaid).orElse(Money.ZERO);
 
         ContributionOwedDTO result = new ContributionOwedDTO();
         result.setMemberId(member.getUser().getId());
         result.setChamaId(chamaId);
         result.setCurrentCycle(currentCycle);
-        result.setExpectedAmount(rules.getMonthlyContributionAmount());
+        result.setExpectedAmount(rules.getContributionAmount().toBigDecimal());
+        cycleTotal.ifPresent(t -> result.setLastPaymentDate(t.getLastPaymentDate()));
 
-        if (currentContribution.isPresent()) {
+        if (!paid.isLessThan(rules.getContributionAmount())) {
             result.setAmountOwed(BigDecimal.ZERO);
             result.setStatus("PAID");
-            result.setLastPaymentDate(currentContribution.get().getDatePaid());
         } else {
-            result.setAmountOwed(rules.getMonthlyContributionAmount());
-            result.setStatus("PENDING");
+            Money owed = rules.getContributionAmount().minus(paid);
+            result.setAmountOwed(owed.toBigDecimal());
+            result.setStatus(paid.isPositive() ? "PARTIAL" : "PENDING");
+
+            LocalDate dueDate = rules.dueDate(currentCycle);
+            if (rules.isOverdue(currentCycle, LocalDate.now())) {
+                // Penalties are accrued by the daily batch job; only compute here before its first run for this cycle
+                Money penalty = penaltyAccrualService.getAccruedPenalty(member.getId(), currentCycle)
+                        .orElseGet(() -> rules.penaltyFor(LocalDate.now(), currentCycle));
 
-            LocalDate dueDate = calculateDueDate(currentCycle, rules);
-            if (LocalDate.now().isAfter(dueDate.plusDays(rules.getGracePeriodDays()))) {
                 result.setStatus("OVERDUE");
-                result.setAmountOwed(result.getAmountOwed().add(rules.getPenaltyForLate()));
-                result.setPenaltyAmount(rules.getPenaltyForLate());
+                result.setAmountOwed(owed.plus(penalty).toBigDecimal());
+                result.setPenaltyAmount(penalty.toBigDecimal());
 
                 // Send overdue email
                 try {
@@ -167,7 +228,7 @@ public class ContributionService {
                             chamaRepository.findById(chamaId).get().getName() +
                             " is OVERDUE.\n\n" +
                             "Amount Due: " + result.getAmountOwed() +
-                            "\nPenalty Applied: " + rules.getPenaltyForLate() +
+                            "\nPenalty Applied: " + penalty +
                             "\nPlease make your payment as soon as possible.\n\n" +
                             "Chama Management System";
 
@@ -184,39 +245,79 @@ public class ContributionService {
     }
 
     // ===== Total Contributions =====
-    public BigDecimal calculateTotalContributions(Long chamaId, String cycle) {
-        if (cycle != null && !cycle.trim().isEmpty()) {
-            return contributionRepository.getTotalContributionsByChamaAndCycle(chamaId, cycle);
-        } else {
-            return contributionRepository.findByChamaId(chamaId)
-                    .stream()
-                    .map(ContributionEntity::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-        }
+    public Money calculateTotalContributions(Long chamaId, String cycle) {
+        String filter = cycle != null && !cycle.trim().isEmpty() ? cycle : null;
+        return Money.ofCents(contributionRepository.getTotalContributionCentsByChamaAndCycle(chamaId, filter));
     }
 
     // ===== Next Payout =====
     public MemberPayoutDTO calculateNextPayout(Long chamaId) {
-        ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
-                .orElseThrow(() -> new RuntimeException("Chama rules not found"));
+        return payoutRotationService.getNextPayout(chamaId);
+    }
 
-        String currentCycle = getCurrentCycle(rules.getCycleType());
-        BigDecimal totalCollected = calculateTotalContributions(chamaId, currentCycle);
+    // ===== My Payout Turn =====
+    public MemberPayoutDTO getPayoutTurn(Long userId, Long chamaId) {
+        MemberEntity member = memberRepository
+                .findByUser_IdAndChama_Id(userId, chamaId)
+                .orElseThrow(() -> new RuntimeException("Member not found for this user in the specified chama"));
+        return payoutRotationService.getMemberTurn(chamaId, member.getId());
+    }
 
-        Long nextPayoutMemberId = rules.getCurrentPayoutMemberId();
-        if (nextPayoutMemberId == null) {
-            List<MemberEntity> members = memberRepository.findByChama_Id(chamaId);
-            if (!members.isEmpty()) {
-                nextPayoutMemberId = members.get(0).getUser().getId();
+    // ===== Upcoming Payouts =====
+    public List<MemberPayoutDTO> getPayoutSchedule(Long chamaId, int count) {
+        List<MemberPayoutDTO> schedule = payoutRotationService.getSchedule(chamaId);
+        return schedule.subList(0, Math.min(Math.max(count, 0), schedule.size()));
+    }
+
+    // ===== Historical Recomputation =====
+    // Re-applies the rules version that governed each cycle to the whole ledger of a chama.
+    // Closed cycles are frozen and left untouched.
+    @Transactional
+    public int recomputeContributionHistory(Long chamaId) {
+        log.info("Recomputing contribution history for chama {}", chamaId);
+
+        ChamaRulesHistory history = chamaRulesCache.getHistory(chamaId);
+        Set<String> closedCycles = new HashSet<>(cycleSnapshotRepository.findClosedCyclesByChamaId(chamaId));
+
+        Map<String, CompiledChamaRules> rulesByCycle = new HashMap<>();
+        // Cents paid so far per member and cycle; the one-slot array is updated in place instead of re-boxed
+        Map<String, long[]> paidByMemberCycle = new HashMap<>();
+        Set<String> penalizedMemberCycles = new HashSet<>();
+        List<ContributionEntity> changed = new ArrayList<>();
+
+        for (ContributionEntity contribution : contributionRepository.findByChamaIdOrderByDatePaidAscIdAsc(chamaId)) {
+            String cycle = contribution.getCycle();
+            if (closedCycles.contains(cycle)) continue;
+
+            CompiledChamaRules rules = rulesByCycle.computeIfAbsent(cycle, history::resolve);
+            String key = contribution.getMember().getId() + ":" + cycle;
+            long[] paidSoFar = paidByMemberCycle.computeIfAbsent(key, k -> new long[1]);
+
+            // Same installment rule as addContribution: one penalty per cycle, on the first late installment
+            ContributionEntity.ContributionStatus status = rules.statusFor(contribution.getDatePaid(), cycle);
+            Money penalty = Money.ZERO;
+            if (!penalizedMemberCycles.contains(key) && paidSoFar[0] < rules.getContributionAmountCents()) {
+                penalty = rules.penaltyFor(contribution.getDatePaid(), cycle);
+                if (penalty.isPositive()) penalizedMemberCycles.add(key);
+            }
+            paidSoFar[0] += contribution.getAmount().cents();
+
+            if (status != contribution.getStatus()
+                    || !penalty.equals(contribution.getPenaltyAmount())) {
+                contribution.setStatus(status);
+                contribution.setPenaltyAmount(penalty);
+                changed.add(contribution);
             }
         }
 
-        MemberPayoutDTO result = new MemberPayoutDTO();
-        result.setChamaId(chamaId);
-        result.setCycle(currentCycle);
-        result.setNextPayoutMemberId(nextPayoutMemberId);
-        result.setPayoutAmount(totalCollected);
-        return result;
+        contributionRepository.saveAll(changed);
+        if (!changed.isEmpty()) {
+            contributionRepository.flush();
+            cycleTotalRepository.refreshPenaltyTotals(chamaId);
+        }
+
+        log.info("Recomputed contribution history for chama {}: {} contributions updated", chamaId, changed.size());
+        return changed.size();
     }
 
     // ===== Dividend Distribution =====
@@ -224,55 +325,16 @@ public class ContributionService {
         throw new RuntimeException("Dividend distribution feature coming soon");
     }
 
-    // ===== Helper Methods =====
-    private ContributionEntity.ContributionStatus determineContributionStatus(LocalDate datePaid, String cycle, ChamaRulesEntity rules) {
-        LocalDate dueDate = calculateDueDate(cycle, rules);
-        LocalDate gracePeriodEnd = dueDate.plusDays(rules.getGracePeriodDays());
-        return datePaid.isAfter(gracePeriodEnd)
-                ? ContributionEntity.ContributionStatus.LATE
-                : ContributionEntity.ContributionStatus.ON_TIME;
-    }
-
-    private LocalDate calculateDueDate(String cycle, ChamaRulesEntity rules) {
-        if (rules.getCycleType() == ChamaRulesEntity.CycleType.MONTHLY) {
-            String[] parts = cycle.split(" ");
-            if (parts.length == 2) {
-                int year = Integer.parseInt(parts[1]);
-                int month = getMonthNumber(parts[0]);
-                return LocalDate.of(year, month, Math.min(rules.getDayOfCycle(), 28));
-            }
-        }
-        return LocalDate.now().with(TemporalAdjusters.firstDayOfMonth()).plusDays(rules.getDayOfCycle() - 1);
-    }
-
-    private String getCurrentCycle(ChamaRulesEntity.CycleType cycleType) {
-        LocalDate now = LocalDate.now();
-        if (cycleType == ChamaRulesEntity.CycleType.MONTHLY) {
-            return now.format(DateTimeFormatter.ofPattern("MMMM yyyy"));
-        } else {
-            int weekOfYear = now.getDayOfYear() / 7 + 1;
-            return "Week " + weekOfYear + " " + now.getYear();
+    // ✅ Seed running totals from contributions recorded before installments were tracked
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCycleTotals() {
+        if (cycleTotalRepository.count() == 0 && contributionRepository.count() > 0) {
+            int rows = cycleTotalRepository.backfillFromContributions();
+            log.info("Backfilled {} contribution cycle totals", rows);
         }
     }
 
-    private int getMonthNumber(String monthName) {
-        return switch (monthName.toLowerCase()) {
-            case "january" -> 1;
-            case "february" -> 2;
-            case "march" -> 3;
-            case "april" -> 4;
-            case "may" -> 5;
-            case "june" -> 6;
-            case "july" -> 7;
-            case "august" -> 8;
-            case "september" -> 9;
-            case "october" -> 10;
-            case "november" -> 11;
-            case "december" -> 12;
-            default -> 1;
-        };
-    }
-
     public List<String> getAvailableCycles(Long chamaId) {
         return contributionRepository.getDistinctCyclesByChamaId(chamaId);
     }
@@ -1,17 +1,23 @@
 package com.example.loanmanagement.Contribution;
 
+import com.example.loanmanagement.Money.Money;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.regex.Pattern;
 
 public class ContributionUtils {
 
     private static final DateTimeFormatter MONTHLY_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy");
     private static final DateTimeFormatter WEEKLY_FORMATTER = DateTimeFormatter.ofPattern("'Week' w yyyy");
+    private static final Pattern WEEKLY_CYCLE = Pattern.compile("Week ([1-9]|[1-4][0-9]|5[0-3]) [0-9]{4}");
 
     public static String generateCycle(ChamaRulesEntity.CycleType cycleType, LocalDate date) {
         if (cycleType == ChamaRulesEntity.CycleType.MONTHLY) {
@@ -40,6 +46,22 @@ public class ContributionUtils {
         }
     }
 
+    // True for cycle names in the form this cycle type generates ("March 2025", "Week 12 2025");
+    // check this before parseCycleToDate, which falls back to today for anything it cannot read
+    public static boolean isValidCycle(String cycle, ChamaRulesEntity.CycleType cycleType) {
+        if (cycle == null || cycleType == null) {
+            return false;
+        }
+        if (cycleType == ChamaRulesEntity.CycleType.WEEKLY) {
+            return WEEKLY_CYCLE.matcher(cycle).matches();
+        }
+        try {
+            return YearMonth.parse(cycle, MONTHLY_FORMATTER).format(MONTHLY_FORMATTER).equals(cycle);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     public static LocalDate parseCycleToDate(String cycle) {
         try {
             if (cycle.contains("Week")) {
@@ -71,16 +93,19 @@ public class ContributionUtils {
         }
     }
 
-    public static BigDecimal calculatePenalty(LocalDate contributionDate, LocalDate dueDate, int gracePeriodDays, BigDecimal penaltyAmount) {
+    public static Money calculatePenalty(LocalDate contributionDate, LocalDate dueDate, int gracePeriodDays, BigDecimal penaltyAmount) {
+        return calculatePenalty(contributionDate, dueDate, gracePeriodDays, PenaltyPolicy.flat(penaltyAmount));
+    }
+
+    public static Money calculatePenalty(LocalDate contributionDate, LocalDate dueDate, int gracePeriodDays, PenaltyPolicy policy) {
         LocalDate gracePeriodEnd = dueDate.plusDays(gracePeriodDays);
 
         if (contributionDate.isAfter(gracePeriodEnd)) {
             long daysLate = ChronoUnit.DAYS.between(gracePeriodEnd, contributionDate);
-            // Simple penalty calculation - could be enhanced with progressive penalties
-            return penaltyAmount;
+            return policy.penaltyFor(daysLate);
         }
 
-        return BigDecimal.ZERO;
+        return Money.ZERO;
     }
 
     public static BigDecimal calculateCollectionRate(BigDecimal totalCollected, BigDecimal expectedTotal) {
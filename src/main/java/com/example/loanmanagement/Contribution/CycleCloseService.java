@@ -0,0 +1,274 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class CycleCloseService {
+
+    @Autowired
+    private CycleSnapshotRepository cycleSnapshotRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PenaltyAccrualRepository penaltyAccrualRepository;
+
+    @Autowired
+    private PayoutRotationService payoutRotationService;
+
+    @Autowired
+    private ChamaRulesCache chamaRulesCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Upper bound on cached snapshots; least recently used entries are evicted first
+    public static final int MAX_ENTRIES = 1000;
+
+    // Closed cycles never change, so an evicted snapshot is simply reloaded on its next read
+    private final Map<String, CycleSnapshotDTO> snapshotCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CycleSnapshotDTO> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // ===== Close Cycle =====
+    @Transactional
+    public CycleSnapshotDTO closeCycle(Long chamaId, String cycle) {
+        log.info("Closing cycle {} for chama {}", cycle, chamaId);
+
+        ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
+                .orElseThrow(() -> new RuntimeException("Chama rules not found"));
+
+        // Only a well-formed cycle that has ended can be frozen; members may still be paying into later ones
+        if (!ContributionUtils.isValidCycle(cycle, rules.getCycleType())) {
+            throw new RuntimeException("Invalid cycle '" + cycle + "'; expected e.g. '" +
+                    ContributionUtils.getCurrentCycle(rules.getCycleType()) + "'");
+        }
+        if (!ContributionUtils.isCycleComplete(cycle, rules.getCycleType())) {
+            throw new RuntimeException("Cycle " + cycle + " has not ended yet and cannot be closed");
+        }
+        if (isCycleClosed(chamaId, cycle)) {
+            throw new RuntimeException("Cycle " + cycle + " is already closed for this chama");
+        }
+
+        List<MemberEntity> members = memberRepository.findByChamaIdWithUserOrderById(chamaId);
+        Map<Long, List<ContributionEntity>> contributionsByMember = contributionRepository.findByChamaIdAndCycle(chamaId, cycle)
+                .stream()
+                .collect(Collectors.groupingBy(c -> c.getMember().getId()));
+        Map<Long, Long> accruedPenaltyCents = penaltyAccrualRepository.findByChamaIdAndCycle(chamaId, cycle)
+                .stream()
+                .collect(Collectors.toMap(a -> a.getMember().getId(), a -> a.getAmount().cents()));
+
+        // The cycle is judged by the rules version that was in force for it
+        long expectedCents = chamaRulesCache.get(chamaId, cycle).getContributionAmountCents();
+
+        // The ledger is summed in cents; each member's figures become Money once, for the snapshot entry
+        List<CycleSnapshotEntry> entries = new ArrayList<>(members.size());
+        long totalCollected = 0;
+        long totalPenalties = 0;
+
+        for (MemberEntity member : members) {
+            List<ContributionEntity> paid = contributionsByMember.getOrDefault(member.getId(), List.of());
+            long accrued = accruedPenaltyCents.getOrDefault(member.getId(), 0L);
+
+            long amount = 0;
+            long penalty = 0;
+            String status;
+            if (paid.isEmpty()) {
+                penalty = accrued;
+                status = "MISSED";
+            } else {
+                boolean late = false;
+                for (ContributionEntity contribution : paid) {
+                    amount += contribution.getAmount().cents();
+                    if (contribution.getPenaltyAmount() != null) penalty += contribution.getPenaltyAmount().cents();
+                    late |= contribution.getStatus() == ContributionEntity.ContributionStatus.LATE;
+                }
+
+                if (amount < expectedCents) {
+                    // Installments never covered the cycle; the daily accrual kept running on the shortfall
+                    penalty = Math.max(penalty, accrued);
+                    status = "PARTIAL";
+                } else {
+                    status = late ? "LATE" : "ON_TIME";
+                }
+            }
+
+            entries.add(new CycleSnapshotEntry(member.getId(), member.getUser().getFullName(),
+                    Money.ofCents(amount), Money.ofCents(penalty), status));
+            totalCollected += amount;
+            totalPenalties += penalty;
+        }
+
+        // The current payout member receives this cycle's pot only if it is the rotation's open cycle
+        boolean rotationCycle = cycle.equals(rules.getCurrentPayoutCycle()) && !members.isEmpty();
+
+        CycleSnapshotEntity snapshot = new CycleSnapshotEntity();
+        snapshot.setChama(rules.getChama());
+        snapshot.setCycle(cycle);
+        snapshot.setClosedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        snapshot.setTotalCollected(Money.ofCents(totalCollected));
+        snapshot.setTotalPenalties(Money.ofCents(totalPenalties));
+        snapshot.setEntries(entries);
+
+        if (rotationCycle) {
+            MemberPayoutDTO payout = payoutRotationService.getNextPayout(chamaId);
+            snapshot.setPayoutMemberId(payout.getNextPayoutMemberId());
+            snapshot.setPayoutMemberName(payout.getNextPayoutMemberName());
+        }
+
+        snapshot.setContentHash(hash(chamaId, snapshot));
+        CycleSnapshotEntity saved = cycleSnapshotRepository.save(snapshot);
+
+        if (rotationCycle) {
+            payoutRotationService.advanceRotation(chamaId);
+        }
+
+        CycleSnapshotDTO dto = new CycleSnapshotDTO(saved);
+        cacheAfterCommit(cacheKey(chamaId, cycle), dto);
+        log.info("Cycle {} closed for chama {}: collected {}, penalties {}", cycle, chamaId, totalCollected, totalPenalties);
+        return dto;
+    }
+
+    // ✅ Close each chama's payout cycle once it has ended, each chama in its own transaction
+    // so one chama that fails to close does not roll back the others
+    @Scheduled(cron = "0 30 0 * * ?") // Every day at 00:30
+    public void closeCompletedCycles() {
+        log.info("Running daily cycle close...");
+        TransactionTemplate perChama = new TransactionTemplate(transactionManager);
+        perChama.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int closed = 0;
+        int failed = 0;
+        for (ChamaRulesEntity rules : chamaRulesRepository.findAll()) {
+            String payoutCycle = rules.getCurrentPayoutCycle();
+            if (payoutCycle == null || !ContributionUtils.isCycleComplete(payoutCycle, rules.getCycleType())) {
+                continue;
+            }
+
+            Long chamaId = rules.getChama().getId();
+            if (isCycleClosed(chamaId, payoutCycle)) {
+                continue;
+            }
+            try {
+                perChama.executeWithoutResult(status -> closeCycle(chamaId, payoutCycle));
+                closed++;
+            } catch (RuntimeException e) {
+                failed++;
+                log.error("Failed to close cycle {} for chama {}: {}", payoutCycle, chamaId, e.getMessage());
+            }
+        }
+        log.info("Daily cycle close done: {} closed, {} failed", closed, failed);
+    }
+
+    // ===== Snapshot Reads =====
+    public CycleSnapshotDTO getSnapshot(Long chamaId, String cycle) {
+        String key = cacheKey(chamaId, cycle);
+        synchronized (snapshotCache) {
+            CycleSnapshotDTO cached = snapshotCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CycleSnapshotEntity snapshot = cycleSnapshotRepository.findWithEntriesByChamaIdAndCycle(chamaId, cycle)
+                .orElseThrow(() -> new RuntimeException("Cycle " + cycle + " has not been closed for this chama"));
+
+        CycleSnapshotDTO dto = new CycleSnapshotDTO(snapshot);
+        cache(key, dto);
+        return dto;
+    }
+
+    public boolean isCycleClosed(Long chamaId, String cycle) {
+        synchronized (snapshotCache) {
+            if (snapshotCache.containsKey(cacheKey(chamaId, cycle))) {
+                return true;
+            }
+        }
+        return cycleSnapshotRepository.existsByChamaIdAndCycle(chamaId, cycle);
+    }
+
+    // ===== Helper Methods =====
+
+    // A closed cycle is cached only once its snapshot is committed; a rolled-back close must not look closed
+    private void cacheAfterCommit(String key, CycleSnapshotDTO dto) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache(key, dto);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache(key, dto);
+            }
+        });
+    }
+
+    private void cache(String key, CycleSnapshotDTO dto) {
+        synchronized (snapshotCache) {
+            snapshotCache.put(key, dto);
+        }
+    }
+
+    private String cacheKey(Long chamaId, String cycle) {
+        return chamaId + ":" + cycle;
+    }
+
+    // Amounts hash as two-decimal text, as they did when stored as DECIMAL, so ETags of older snapshots still match
+    private String hash(Long chamaId, CycleSnapshotEntity snapshot) {
+        StringBuilder content = new StringBuilder()
+                .append(chamaId).append('|')
+                .append(snapshot.getCycle()).append('|')
+                .append(snapshot.getClosedAt()).append('|')
+                .append(snapshot.getPayoutMemberId()).append('|')
+                .append(snapshot.getTotalCollected().toBigDecimal().toPlainString()).append('|')
+                .append(snapshot.getTotalPenalties().toBigDecimal().toPlainString());
+        for (CycleSnapshotEntry entry : snapshot.getEntries()) {
+            content.append('|').append(entry.getMemberId())
+                    .append(',').append(entry.getAmountContributed().toBigDecimal().toPlainString())
+                    .append(',').append(entry.getPenaltyAmount().toBigDecimal().toPlainString())
+                    .append(',').append(entry.getStatus());
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
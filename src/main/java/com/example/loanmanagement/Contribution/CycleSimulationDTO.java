@@ -0,0 +1,28 @@
+package com.example.loanmanagement.Contribution;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// What-if outcome for one cycle: recorded values vs. values under the proposed rules
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleSimulationDTO {
+    private String cycle;
+    private Integer contributions;
+    private Integer onTimeToLate;
+    private Integer lateToOnTime;
+    private BigDecimal currentPenalties;
+    private BigDecimal proposedPenalties;
+    private BigDecimal currentShortfall;  // Unpaid balance of members who contributed, under the rules of the time
+    private BigDecimal proposedShortfall; // Same balance under the proposed contribution amount
+
+    public boolean hasChanges() {
+        return onTimeToLate > 0 || lateToOnTime > 0
+                || currentPenalties.compareTo(proposedPenalties) != 0
+                || currentShortfall.compareTo(proposedShortfall) != 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.loanmanagement.Contribution;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// DTO for a closed (frozen) contribution cycle
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleSnapshotDTO {
+    private Long chamaId;
+    private String cycle;
+    private LocalDateTime closedAt;
+    private Long payoutMemberId;
+    private String payoutMemberName;
+    private BigDecimal totalCollected;
+    private BigDecimal totalPenalties;
+    private List<CycleSnapshotEntry> entries;
+
+    @JsonIgnore
+    private String etag;
+
+    public CycleSnapshotDTO(CycleSnapshotEntity entity) {
+        this.chamaId = entity.getChama().getId();
+        this.cycle = entity.getCycle();
+        this.closedAt = entity.getClosedAt();
+        this.payoutMemberId = entity.getPayoutMemberId();
+        this.payoutMemberName = entity.getPayoutMemberName();
+        this.totalCollected = entity.getTotalCollected().toBigDecimal();
+        this.totalPenalties = entity.getTotalPenalties().toBigDecimal();
+        this.entries = List.copyOf(entity.getEntries());
+        this.etag = "\"" + entity.getContentHash() + "\"";
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "cycle_snapshots",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"chama_id", "cycle"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chama_id", nullable = false, updatable = false)
+    private ChamaEntity chama;
+
+    @Column(nullable = false, length = 50, updatable = false)
+    private String cycle;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime closedAt;
+
+    @Column(updatable = false)
+    private Long payoutMemberId; // Member who received this cycle's pot (null for back-filled cycles)
+
+    @Column(updatable = false)
+    private String payoutMemberName;
+
+    // Cents (see MoneyConverter); nullable in the schema only so MoneyMigration can fill them for older rows
+    @Column(name = "total_collected_cents", updatable = false)
+    private Money totalCollected;
+
+    @Column(name = "total_penalties_cents", updatable = false)
+    private Money totalPenalties;
+
+    @Column(nullable = false, length = 64, updatable = false)
+    private String contentHash; // SHA-256 of the frozen content, served as the strong ETag
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "cycle_snapshot_entries", joinColumns = @JoinColumn(name = "snapshot_id"))
+    @OrderBy("memberId ASC")
+    private List<CycleSnapshotEntry> entries = new ArrayList<>();
+}
@@ -0,0 +1,31 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Frozen per-member line of a closed cycle
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleSnapshotEntry {
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    private String memberName;
+
+    // Cents (see MoneyConverter); nullable in the schema only so MoneyMigration can fill them for older rows
+    @Column(name = "amount_contributed_cents")
+    private Money amountContributed;
+
+    @Column(name = "penalty_amount_cents")
+    private Money penaltyAmount;
+
+    @Column(nullable = false, length = 20)
+    private String status; // ON_TIME, LATE, PARTIAL, MISSED
+}
@@ -0,0 +1,23 @@
+package com.example.loanmanagement.Contribution;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CycleSnapshotRepository extends JpaRepository<CycleSnapshotEntity, Long> {
+
+    boolean existsByChamaIdAndCycle(Long chamaId, String cycle);
+
+    @Query("SELECT s.cycle FROM CycleSnapshotEntity s WHERE s.chama.id = :chamaId")
+    List<String> findClosedCyclesByChamaId(@Param("chamaId") Long chamaId);
+
+    // Snapshot with its member entries loaded in one query
+    @Query("SELECT s FROM CycleSnapshotEntity s LEFT JOIN FETCH s.entries WHERE s.chama.id = :chamaId AND s.cycle = :cycle")
+    Optional<CycleSnapshotEntity> findWithEntriesByChamaIdAndCycle(@Param("chamaId") Long chamaId,
+                                                                   @Param("cycle") String cycle);
+}
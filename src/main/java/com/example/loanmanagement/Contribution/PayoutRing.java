@@ -0,0 +1,57 @@
+package com.example.loanmanagement.Contribution;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable merry-go-round order: member IDs in payout sequence, wrapping around at the end
+public final class PayoutRing {
+
+    private final List<Long> memberIds;
+    private final Map<Long, Integer> positions;
+
+    private PayoutRing(List<Long> memberIds) {
+        this.memberIds = List.copyOf(memberIds);
+        this.positions = new HashMap<>();
+        for (int i = 0; i < this.memberIds.size(); i++) {
+            this.positions.put(this.memberIds.get(i), i);
+        }
+    }
+
+    public static PayoutRing of(List<Long> memberIds) {
+        return new PayoutRing(memberIds);
+    }
+
+    public int size() {
+        return memberIds.size();
+    }
+
+    public boolean isEmpty() {
+        return memberIds.isEmpty();
+    }
+
+    public boolean contains(Long memberId) {
+        return positions.containsKey(memberId);
+    }
+
+    public List<Long> getMemberIds() {
+        return memberIds;
+    }
+
+    // Member at the given position, wrapping around the ring
+    public Long get(int position) {
+        return memberIds.get(Math.floorMod(position, memberIds.size()));
+    }
+
+    // Position of a member in the ring, or -1 if the member is not part of it
+    public int indexOf(Long memberId) {
+        return positions.getOrDefault(memberId, -1);
+    }
+
+    // Member who receives the payout after the given one; unknown members restart the ring
+    public Long next(Long memberId) {
+        if (isEmpty()) return null;
+        int index = indexOf(memberId);
+        return index < 0 ? memberIds.get(0) : get(index + 1);
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaRepository;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Member.MemberRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class PayoutRotationService {
+
+    // Number of upcoming payouts precomputed per chama
+    public static final int SCHEDULE_HORIZON = 12;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PayoutSlotRepository payoutSlotRepository;
+
+    @Autowired
+    private ChamaRulesCache chamaRulesCache;
+
+    @Autowired
+    private ChamaRepository chamaRepository;
+
+    // Upper bound on cached schedules; least recently used entries are evicted first
+    public static final int MAX_ENTRIES = 1000;
+
+    // Precomputed payout schedule per chama, dropped whenever rules or membership change
+    private final Map<Long, List<MemberPayoutDTO>> scheduleCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<MemberPayoutDTO>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Bumped on every invalidation so a schedule built from pre-change data is not cached
+    private long generation;
+
+    // ===== Schedule lookups =====
+    public MemberPayoutDTO getNextPayout(Long chamaId) {
+        List<MemberPayoutDTO> schedule = getSchedule(chamaId);
+        if (schedule.isEmpty()) {
+            throw new RuntimeException("No members available for payout in this chama");
+        }
+        return schedule.get(0);
+    }
+
+    // Built outside the lock, so a slow load for one chama does not hold up reads for the others
+    public List<MemberPayoutDTO> getSchedule(Long chamaId) {
+        long loadGeneration;
+        synchronized (scheduleCache) {
+            List<MemberPayoutDTO> cached = scheduleCache.get(chamaId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        List<MemberPayoutDTO> schedule = buildSchedule(chamaId);
+
+        synchronized (scheduleCache) {
+            if (loadGeneration == generation) {
+                scheduleCache.putIfAbsent(chamaId, schedule);
+            }
+        }
+        return schedule;
+    }
+
+    // "When is my turn?" - a single indexed slot lookup
+    public MemberPayoutDTO getMemberTurn(Long chamaId, Long memberId) {
+        PayoutSlotEntity slot = payoutSlotRepository.findByChamaIdAndMemberId(chamaId, memberId)
+                .orElseThrow(() -> new RuntimeException("Member has no place in this chama's payout order"));
+        if (slot.getScheduledCycle() == null) {
+            throw new RuntimeException("Payout schedule not available until chama rules are configured");
+        }
+
+        CompiledChamaRules rules = chamaRulesCache.get(chamaId, slot.getScheduledCycle());
+        int totalMembers = memberRepository.countMembersByChamaId(chamaId);
+
+        MemberPayoutDTO turn = new MemberPayoutDTO();
+        turn.setChamaId(chamaId);
+        turn.setCycle(slot.getScheduledCycle());
+        turn.setNextPayoutMemberId(memberId);
+        turn.setNextPayoutMemberName(slot.getMember().getUser().getFullName());
+        turn.setPayoutAmount(rules.getContributionAmount().times(totalMembers).toBigDecimal());
+        turn.setPayoutDate(rules.gracePeriodEnd(slot.getScheduledCycle()));
+        turn.setTotalMembers(totalMembers);
+        return turn;
+    }
+
+    public List<Long> getPayoutOrder(Long chamaId) {
+        return payoutSlotRepository.findByChamaIdOrderByPosition(chamaId).stream()
+                .map(slot -> slot.getMember().getId())
+                .toList();
+    }
+
+    // Evicts now and again after the surrounding transaction commits, so readers never re-cache the old schedule
+    public void invalidate(Long chamaId) {
+        if (chamaId == null) return;
+        evict(chamaId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(chamaId);
+                }
+            });
+        }
+    }
+
+    // ===== Rotation =====
+    // Hands the pot to the next member in the slot order and moves the rotation into the following cycle.
+    // Called when a cycle is closed (see CycleCloseService).
+    @Transactional
+    public ChamaRulesEntity advanceRotation(Long chamaId) {
+        ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
+                .orElseThrow(() -> new RuntimeException("Chama rules not found"));
+
+        String closedCycle = rules.getCurrentPayoutCycle() != null
+                ? rules.getCurrentPayoutCycle()
+                : ContributionUtils.getCurrentCycle(rules.getCycleType());
+
+        // Without a recorded current member the first slot has just been paid
+        Optional<PayoutSlotEntity> currentSlot = Optional.ofNullable(rules.getCurrentPayoutMemberId())
+                .flatMap(memberId -> payoutSlotRepository.findByChamaIdAndMemberId(chamaId, memberId))
+                .or(() -> payoutSlotRepository.findFirstByChamaIdOrderByPositionAsc(chamaId));
+
+        PayoutSlotEntity next = currentSlot
+                .flatMap(slot -> payoutSlotRepository.findFirstByChamaIdAndPositionGreaterThanOrderByPositionAsc(chamaId, slot.getPosition()))
+                .or(() -> payoutSlotRepository.findFirstByChamaIdOrderByPositionAsc(chamaId))
+                .orElseThrow(() -> new RuntimeException("No members available for payout in this chama"));
+
+        rules.setCurrentPayoutMemberId(next.getMember().getId());
+        rules.setCurrentPayoutCycle(ContributionUtils.getNextCycle(closedCycle, rules.getCycleType()));
+        ChamaRulesEntity saved = chamaRulesRepository.save(rules);
+
+        refreshScheduledCycles(chamaId);
+        log.info("Payout rotation for chama {} advanced to member {} for cycle {}",
+                chamaId, saved.getCurrentPayoutMemberId(), saved.getCurrentPayoutCycle());
+        return saved;
+    }
+
+    // ===== Payout order =====
+    // Renumbers the chama's slots: the given members first, then anyone left out, by ID. Existing slots keep their
+    // rows (and IDs); only the ones that move are updated, as batched UPDATEs
+    @Transactional
+    public List<Long> reorder(Long chamaId, List<Long> memberIds) {
+        List<Long> requested = memberIds != null ? memberIds : List.of();
+        if (requested.contains(null)) {
+            throw new RuntimeException("Invalid payout order: member IDs must not be null");
+        }
+        if (new LinkedHashSet<>(requested).size() != requested.size()) {
+            throw new RuntimeException("Invalid payout order: a member may only appear once");
+        }
+
+        List<MemberEntity> chamaMembers = memberRepository.findByChamaIdOrderById(chamaId);
+        Map<Long, MemberEntity> members = new HashMap<>();
+        for (MemberEntity member : chamaMembers) {
+            members.put(member.getId(), member);
+        }
+        for (Long memberId : requested) {
+            if (!members.containsKey(memberId)) {
+                throw new RuntimeException("Invalid payout order: member " + memberId + " does not belong to this chama");
+            }
+        }
+
+        Set<Long> order = new LinkedHashSet<>(requested);
+        chamaMembers.forEach(m -> order.add(m.getId()));
+
+        lockRotation(chamaId);
+        Map<Long, PayoutSlotEntity> slotsByMember = new HashMap<>();
+        List<PayoutSlotEntity> stale = new ArrayList<>();
+        for (PayoutSlotEntity slot : payoutSlotRepository.findByChamaIdOrderByPosition(chamaId)) {
+            if (order.contains(slot.getMember().getId())) {
+                slotsByMember.put(slot.getMember().getId(), slot);
+            } else {
+                stale.add(slot);
+            }
+        }
+
+        // Phase 1: slots that move step aside to -(target + 1), so no two rows ever share a (chama_id, position)
+        List<PayoutSlotEntity> moved = new ArrayList<>();
+        List<PayoutSlotEntity> added = new ArrayList<>();
+        int position = 0;
+        for (Long memberId : order) {
+            PayoutSlotEntity slot = slotsByMember.get(memberId);
+            if (slot == null) {
+                MemberEntity member = members.get(memberId);
+                added.add(new PayoutSlotEntity(null, member.getChama(), position, member, null));
+            } else if (slot.getPosition() != position) {
+                slot.setPosition(-(position + 1));
+                moved.add(slot);
+            }
+            position++;
+        }
+        payoutSlotRepository.deleteAll(stale);
+        payoutSlotRepository.flush();
+
+        // Phase 2: moved slots take their target; members without a slot yet fill the positions left free
+        for (PayoutSlotEntity slot : moved) {
+            slot.setPosition(-slot.getPosition() - 1);
+        }
+        payoutSlotRepository.saveAll(added);
+        payoutSlotRepository.flush();
+
+        refreshScheduledCycles(chamaId);
+        log.info("Payout order for chama {} renumbered: {} slots moved, {} added, {} removed",
+                chamaId, moved.size(), added.size(), stale.size());
+        return new ArrayList<>(order);
+    }
+
+    // New members join the end of the rotation
+    @Transactional
+    public void addSlot(MemberEntity member) {
+        Long chamaId = member.getChama().getId();
+        // Taken before reading the max position, so concurrent joins get consecutive positions
+        // instead of racing for the same one against the (chama_id, position) unique key
+        lockRotation(chamaId);
+        if (payoutSlotRepository.findByChamaIdAndMemberId(chamaId, member.getId()).isPresent()) {
+            return;
+        }
+
+        int position = payoutSlotRepository.findMaxPosition(chamaId) + 1;
+        payoutSlotRepository.save(new PayoutSlotEntity(null, member.getChama(), position, member, null));
+        refreshScheduledCycles(chamaId);
+    }
+
+    // The rotation's open cycle drives the daily cycle close, so it must always be set and in the rules' cycle format:
+    // new rules start it in the current cycle, and a cycle type change restarts it there
+    static void startRotationIfNeeded(ChamaRulesEntity rules) {
+        if (!ContributionUtils.isValidCycle(rules.getCurrentPayoutCycle(), rules.getCycleType())) {
+            rules.setCurrentPayoutCycle(ContributionUtils.getCurrentCycle(rules.getCycleType()));
+        }
+    }
+
+    // Slot changes in one chama run one at a time; other chamas are unaffected
+    private void lockRotation(Long chamaId) {
+        chamaRepository.findByIdForUpdate(chamaId)
+                .orElseThrow(() -> new RuntimeException("Chama not found"));
+    }
+
+    // Re-stamps every slot with its next payout cycle, counting from the current payout member
+    @Transactional
+    public void refreshScheduledCycles(Long chamaId) {
+        invalidate(chamaId);
+
+        Optional<ChamaRulesEntity> rulesOpt = chamaRulesRepository.findByChamaId(chamaId);
+        List<PayoutSlotEntity> slots = payoutSlotRepository.findByChamaIdOrderByPosition(chamaId);
+        if (rulesOpt.isEmpty() || slots.isEmpty()) {
+            return;
+        }
+
+        ChamaRulesEntity rules = rulesOpt.get();
+        int start = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i).getMember().getId().equals(rules.getCurrentPayoutMemberId())) {
+                start = i;
+                break;
+            }
+        }
+
+        String cycle = rules.getCurrentPayoutCycle() != null
+                ? rules.getCurrentPayoutCycle()
+                : ContributionUtils.getCurrentCycle(rules.getCycleType());
+        for (int i = 0; i < slots.size(); i++) {
+            slots.get((start + i) % slots.size()).setScheduledCycle(cycle);
+            cycle = ContributionUtils.getNextCycle(cycle, rules.getCycleType());
+        }
+        payoutSlotRepository.saveAll(slots);
+    }
+
+    // ✅ Move payout orders still stored as legacy JSON into payout slots, and start rotations saved without an open cycle
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void migrateLegacyPayoutOrders() {
+        for (ChamaRulesEntity rules : chamaRulesRepository.findAll()) {
+            Long chamaId = rules.getChama().getId();
+            if (!ContributionUtils.isValidCycle(rules.getCurrentPayoutCycle(), rules.getCycleType())) {
+                startRotationIfNeeded(rules);
+                log.info("Payout rotation for chama {} started in cycle {}", chamaId, rules.getCurrentPayoutCycle());
+            }
+            if (payoutSlotRepository.existsByChamaId(chamaId)) continue;
+
+            // Legacy orders were never validated: drop unknown, null and repeated IDs instead of failing
+            Set<Long> memberIds = new LinkedHashSet<>();
+            memberRepository.findByChamaIdOrderById(chamaId).forEach(m -> memberIds.add(m.getId()));
+            Set<Long> legacyOrder = new LinkedHashSet<>(parseLegacyPayoutOrder(rules.getLegacyPayoutOrder()));
+            legacyOrder.removeIf(id -> id == null || !memberIds.contains(id));
+
+            reorder(chamaId, new ArrayList<>(legacyOrder));
+            rules.setLegacyPayoutOrder(null);
+            log.info("Payout order for chama {} migrated to payout slots", chamaId);
+        }
+    }
+
+    // ===== Helper Methods =====
+    private List<MemberPayoutDTO> buildSchedule(Long chamaId) {
+        ChamaRulesEntity rules = chamaRulesRepository.findByChamaId(chamaId)
+                .orElseThrow(() -> new RuntimeException("Chama rules not found"));
+
+        List<MemberEntity> members = memberRepository.findByChamaIdWithUserOrderById(chamaId);
+        PayoutRing ring = buildRing(payoutSlotRepository.findByChamaIdOrderByPosition(chamaId), members);
+        if (ring.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, String> memberNames = new HashMap<>();
+        for (MemberEntity member : members) {
+            memberNames.put(member.getId(), member.getUser().getFullName());
+        }
+
+        int position = ring.contains(rules.getCurrentPayoutMemberId()) ? ring.indexOf(rules.getCurrentPayoutMemberId()) : 0;
+        String cycle = rules.getCurrentPayoutCycle() != null
+                ? rules.getCurrentPayoutCycle()
+                : ContributionUtils.getCurrentCycle(rules.getCycleType());
+
+        List<MemberPayoutDTO> schedule = new ArrayList<>(SCHEDULE_HORIZON);
+        for (int i = 0; i < SCHEDULE_HORIZON; i++) {
+            Long memberId = ring.get(position + i);
+            // Each payout is priced and dated by the rules version in force for its cycle, as in getMemberTurn
+            CompiledChamaRules compiled = chamaRulesCache.get(chamaId, cycle);
+
+            MemberPayoutDTO entry = new MemberPayoutDTO();
+            entry.setChamaId(chamaId);
+            entry.setCycle(cycle);
+            entry.setNextPayoutMemberId(memberId);
+            entry.setNextPayoutMemberName(memberNames.get(memberId));
+            entry.setPayoutAmount(compiled.getContributionAmount().times(members.size()).toBigDecimal());
+            entry.setPayoutDate(compiled.gracePeriodEnd(cycle));
+            entry.setTotalMembers(members.size());
+            schedule.add(entry);
+
+            cycle = ContributionUtils.getNextCycle(cycle, rules.getCycleType());
+        }
+
+        log.info("Payout schedule computed for chama {} ({} members)", chamaId, members.size());
+        return Collections.unmodifiableList(schedule);
+    }
+
+    private void evict(Long chamaId) {
+        synchronized (scheduleCache) {
+            generation++;
+            if (scheduleCache.remove(chamaId) != null) {
+                log.info("Payout schedule cache invalidated for chama {}", chamaId);
+            }
+        }
+    }
+
+    // Slot order first, then any members without a slot yet, by ID
+    private PayoutRing buildRing(List<PayoutSlotEntity> slots, List<MemberEntity> members) {
+        Set<Long> order = new LinkedHashSet<>();
+        for (PayoutSlotEntity slot : slots) {
+            order.add(slot.getMember().getId());
+        }
+        for (MemberEntity member : members) {
+            order.add(member.getId());
+        }
+        return PayoutRing.of(new ArrayList<>(order));
+    }
+
+    // Legacy order format: a JSON array of member IDs, e.g. "[12, 7, 31]"; unreadable orders are dropped
+    private List<Long> parseLegacyPayoutOrder(String payoutOrder) {
+        if (payoutOrder == null || payoutOrder.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return new ArrayList<>(OBJECT_MAPPER.readValue(payoutOrder, new TypeReference<List<Long>>() {}));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable legacy payout order: {}", payoutOrder);
+            return new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Member.MemberEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One member's place in a chama's merry-go-round payout order
+@Entity
+@Table(name = "payout_slots",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_payout_slots_chama_position", columnNames = {"chama_id", "position"}),
+                @UniqueConstraint(name = "uk_payout_slots_chama_member", columnNames = {"chama_id", "member_id"})
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayoutSlotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chama_id", nullable = false)
+    private ChamaEntity chama;
+
+    @Column(nullable = false)
+    private Integer position; // 0-based place in the rotation
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private MemberEntity member;
+
+    @Column(nullable = true, length = 50)
+    private String scheduledCycle; // Next cycle in which this member receives the pot
+}
@@ -0,0 +1,37 @@
+package com.example.loanmanagement.Contribution;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayoutSlotRepository extends JpaRepository<PayoutSlotEntity, Long> {
+
+    // Full payout order of a chama
+    @Query("SELECT s FROM PayoutSlotEntity s WHERE s.chama.id = :chamaId ORDER BY s.position")
+    List<PayoutSlotEntity> findByChamaIdOrderByPosition(@Param("chamaId") Long chamaId);
+
+    // "When is my turn?"
+    @Query("SELECT s FROM PayoutSlotEntity s JOIN FETCH s.member m JOIN FETCH m.user " +
+            "WHERE s.chama.id = :chamaId AND s.member.id = :memberId")
+    Optional<PayoutSlotEntity> findByChamaIdAndMemberId(@Param("chamaId") Long chamaId, @Param("memberId") Long memberId);
+
+    // "Who is next?" - the slot after a position, wrapping to the first slot when none follows
+    Optional<PayoutSlotEntity> findFirstByChamaIdAndPositionGreaterThanOrderByPositionAsc(Long chamaId, Integer position);
+
+    Optional<PayoutSlotEntity> findFirstByChamaIdOrderByPositionAsc(Long chamaId);
+
+    @Query("SELECT COALESCE(MAX(s.position), -1) FROM PayoutSlotEntity s WHERE s.chama.id = :chamaId")
+    int findMaxPosition(@Param("chamaId") Long chamaId);
+
+    boolean existsByChamaId(Long chamaId);
+
+    @Modifying
+    @Query("DELETE FROM PayoutSlotEntity s WHERE s.chama.id = :chamaId")
+    void deleteByChamaId(@Param("chamaId") Long chamaId);
+}
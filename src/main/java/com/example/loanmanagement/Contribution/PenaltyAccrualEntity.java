@@ -0,0 +1,46 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "penalty_accruals",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"member_id", "cycle"}),
+        indexes = @Index(name = "idx_penalty_accruals_chama_cycle", columnList = "chama_id, cycle"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PenaltyAccrualEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private MemberEntity member;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chama_id", nullable = false)
+    private ChamaEntity chama;
+
+    @Column(nullable = false, length = 50)
+    private String cycle; // Cycle the member has not yet contributed for
+
+    @Column(nullable = false)
+    private Integer daysLate; // Days past the grace period as of accruedOn
+
+    // Cents (see MoneyConverter); nullable in the schema only so MoneyMigration can fill it for older rows
+    @Column(name = "amount_cents")
+    private Money amount; // Total penalty accrued so far for this cycle
+
+    @Column(nullable = false)
+    private LocalDate accruedOn; // Date of the batch run that last updated this row
+}
@@ -0,0 +1,41 @@
+package com.example.loanmanagement.Contribution;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PenaltyAccrualRepository extends JpaRepository<PenaltyAccrualEntity, Long> {
+
+    // Accrued penalty for a member in a cycle (read path for owed amounts)
+    Optional<PenaltyAccrualEntity> findByMemberIdAndCycle(Long memberId, String cycle);
+
+    // All accruals of a chama for a cycle (used when freezing a cycle)
+    List<PenaltyAccrualEntity> findByChamaIdAndCycle(Long chamaId, String cycle);
+
+    // Daily accrual in one statement (MySQL): :overdueCycles is a JSON array of {chamaId, cycle, dueDate, expectedCents,
+    // daysLate, penaltyCents}, one per overdue cycle of a chama. Every member who had joined by the due date and whose
+    // running total is below the expected amount gets the cycle's penalty; cycles with a snapshot are frozen.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO penalty_accruals (member_id, chama_id, cycle, days_late, amount_cents, accrued_on) " +
+            "SELECT m.id, d.chama, d.cycle_name, d.late_days, d.penalty, :asOf " +
+            "FROM JSON_TABLE(:overdueCycles, '$[*]' COLUMNS (" +
+            "chama BIGINT PATH '$.chamaId', cycle_name VARCHAR(50) PATH '$.cycle', due_date DATE PATH '$.dueDate', " +
+            "expected_cents BIGINT PATH '$.expectedCents', late_days INT PATH '$.daysLate', " +
+            "penalty BIGINT PATH '$.penaltyCents')) d " +
+            "JOIN members m ON m.chama_id = d.chama AND (m.joined_date IS NULL OR m.joined_date <= d.due_date) " +
+            "LEFT JOIN contribution_cycle_totals t ON t.member_id = m.id AND t.cycle = d.cycle_name " +
+            "WHERE COALESCE(t.amount_paid_cents, 0) < d.expected_cents " +
+            "AND NOT EXISTS (SELECT 1 FROM cycle_snapshots s WHERE s.chama_id = d.chama AND s.cycle = d.cycle_name) " +
+            "ON DUPLICATE KEY UPDATE days_late = VALUES(days_late), amount_cents = VALUES(amount_cents), accrued_on = VALUES(accrued_on)",
+            nativeQuery = true)
+    int accrueOverdue(@Param("overdueCycles") String overdueCycles, @Param("asOf") LocalDate asOf);
+}
@@ -0,0 +1,109 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class PenaltyAccrualService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Open cycles older than this stop accruing; by then the cycle should have been closed
+    private static final int LOOKBACK_YEARS = 1;
+
+    @Autowired
+    private PenaltyAccrualRepository penaltyAccrualRepository;
+
+    @Autowired
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @Autowired
+    private ChamaRulesCache chamaRulesCache;
+
+    // ✅ Accrue late penalties for every chama once a day
+    @Scheduled(cron = "0 0 1 * * ?") // Every day at 1 AM
+    @Transactional
+    public void accrueDailyPenalties() {
+        log.info("Running daily penalty accrual...");
+        int rows = accruePenalties(LocalDate.now());
+        log.info("Penalty accrual complete: {} accrual rows written", rows);
+    }
+
+    // One statement per cycle type. Java works out, per chama, which cycles are past their grace period and what
+    // their penalty is today (tiers and caps do not fit in SQL); the statement then upserts an accrual for every
+    // member of those cycles whose running total is short, skipping closed cycles
+    @Transactional
+    public int accruePenalties(LocalDate asOf) {
+        int rows = 0;
+        for (ChamaRulesEntity.CycleType cycleType : ChamaRulesEntity.CycleType.values()) {
+            List<OverdueCycle> overdue = new ArrayList<>();
+            for (ChamaRulesEntity rules : chamaRulesRepository.findWithChamaByCycleType(cycleType)) {
+                overdue.addAll(overdueCycles(rules.getChama(), cycleType, asOf));
+            }
+            if (overdue.isEmpty()) continue;
+
+            rows += penaltyAccrualRepository.accrueOverdue(toJson(overdue), asOf);
+        }
+        return rows;
+    }
+
+    // Every cycle of the chama since it started (at most LOOKBACK_YEARS back) whose grace period ended before asOf,
+    // each judged by the rules version in force for it. The grace period may run past the end of the cycle.
+    List<OverdueCycle> overdueCycles(ChamaEntity chama, ChamaRulesEntity.CycleType cycleType, LocalDate asOf) {
+        LocalDate from = asOf.minusYears(LOOKBACK_YEARS);
+        if (chama.getCreatedDate() != null && chama.getCreatedDate().isAfter(from)) {
+            from = chama.getCreatedDate();
+        }
+        String firstCycle = ContributionUtils.generateCycle(cycleType, from);
+
+        List<OverdueCycle> overdue = new ArrayList<>();
+        LocalDate date = asOf;
+        while (true) {
+            String cycle = ContributionUtils.generateCycle(cycleType, date);
+            CompiledChamaRules rules = chamaRulesCache.get(chama.getId(), cycle);
+
+            LocalDate gracePeriodEnd = rules.gracePeriodEnd(cycle);
+            if (asOf.isAfter(gracePeriodEnd)) {
+                long daysLate = ChronoUnit.DAYS.between(gracePeriodEnd, asOf);
+                overdue.add(new OverdueCycle(chama.getId(), cycle, rules.dueDate(cycle).toString(),
+                        rules.getContributionAmount().cents(), daysLate, rules.getPenaltyPolicy().penaltyFor(daysLate).cents()));
+            }
+
+            if (cycle.equals(firstCycle) || !date.isAfter(from)) break;
+            date = cycleType == ChamaRulesEntity.CycleType.MONTHLY ? date.minusMonths(1) : date.minusWeeks(1);
+        }
+        return overdue;
+    }
+
+    // Penalty accrued by the last batch run for a member in a cycle
+    public Optional<Money> getAccruedPenalty(Long memberId, String cycle) {
+        return penaltyAccrualRepository.findByMemberIdAndCycle(memberId, cycle)
+                .map(PenaltyAccrualEntity::getAmount);
+    }
+
+    private String toJson(List<OverdueCycle> overdue) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(overdue);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize overdue cycles", e);
+        }
+    }
+
+    // One row of the accrual statement's JSON_TABLE input
+    record OverdueCycle(Long chamaId, String cycle, String dueDate, long expectedCents, long daysLate, long penaltyCents) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable late-penalty calculator: flat charge + per-day accrual (stepped by tiers), optionally capped.
+// The configured amounts are turned into Money once, so every penalty is worked out in exact cents.
+public final class PenaltyPolicy {
+
+    private final Money flatPenalty;
+    private final Money penaltyPerDay;
+    private final Money maxPenalty;
+    private final List<Step> steps;
+
+    private PenaltyPolicy(BigDecimal flatPenalty, BigDecimal penaltyPerDay, BigDecimal maxPenalty, List<PenaltyTier> tiers) {
+        this.flatPenalty = flatPenalty != null ? Money.of(flatPenalty) : Money.ZERO;
+        this.penaltyPerDay = penaltyPerDay != null ? Money.of(penaltyPerDay) : Money.ZERO;
+        this.maxPenalty = Money.ofNullable(maxPenalty);
+        this.steps = tiers.stream()
+                .map(t -> new Step(t.getFromDaysLate(), Money.of(t.getPerDayAmount())))
+                .sorted(Comparator.comparing(Step::fromDaysLate))
+                .toList();
+    }
+
+    public static PenaltyPolicy from(ChamaRulesEntity rules) {
+        return of(rules.getPenaltyForLate(), rules.getPenaltyPerDay(), rules.getMaxPenalty(), rules.getPenaltyTiers());
+    }
+
+    public static PenaltyPolicy from(ChamaRulesVersionEntity version) {
+        return of(version.getPenaltyForLate(), version.getPenaltyPerDay(), version.getMaxPenalty(), version.getPenaltyTiers());
+    }
+
+    public static PenaltyPolicy of(BigDecimal flatPenalty, BigDecimal penaltyPerDay, BigDecimal maxPenalty, List<PenaltyTier> tiers) {
+        return new PenaltyPolicy(flatPenalty, penaltyPerDay, maxPenalty, tiers != null ? tiers : List.of());
+    }
+
+    public static PenaltyPolicy flat(BigDecimal penaltyAmount) {
+        return new PenaltyPolicy(penaltyAmount, null, null, List.of());
+    }
+
+    // Total penalty owed after the given number of days past the grace period
+    public Money penaltyFor(long daysLate) {
+        if (daysLate <= 0) {
+            return Money.ZERO;
+        }
+
+        Money total = flatPenalty;
+        Money rate = penaltyPerDay;
+        long chargedDays = 0;
+
+        for (Step step : steps) {
+            long tierStart = step.fromDaysLate();
+            if (tierStart > daysLate) break;
+
+            long daysAtRate = tierStart - 1 - chargedDays;
+            if (daysAtRate > 0) {
+                total = total.plus(rate.times(daysAtRate));
+                chargedDays += daysAtRate;
+            }
+            rate = step.perDay();
+        }
+        total = total.plus(rate.times(daysLate - chargedDays));
+
+        return maxPenalty != null ? total.min(maxPenalty) : total;
+    }
+
+    // A PenaltyTier with its daily amount already in Money
+    private record Step(int fromDaysLate, Money perDay) {
+    }
+}
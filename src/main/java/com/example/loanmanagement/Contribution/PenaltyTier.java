@@ -0,0 +1,32 @@
+package com.example.loanmanagement.Contribution;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Progressive penalty step: from the given day late onwards, each extra day costs perDayAmount
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PenaltyTier {
+
+    @NotNull(message = "Tier start day is required")
+    @Min(value = 1, message = "Tier start day must be at least 1")
+    @Column(nullable = false)
+    private Integer fromDaysLate;
+
+    @NotNull(message = "Tier daily penalty is required")
+    @DecimalMin(value = "0.00", message = "Tier daily penalty cannot be negative")
+    @Digits(integer = 17, fraction = 2, message = "Tier daily penalty must be a valid monetary value")
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal perDayAmount;
+}
@@ -0,0 +1,26 @@
+package com.example.loanmanagement.Contribution;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of replaying a chama's history against proposed rules; nothing is written
+@Data
+@NoArgsConstructor
+public class RulesSimulationDTO {
+    private Long chamaId;
+    private ChamaRulesDTO proposedRules;
+    private Integer cyclesReplayed = 0;
+    private Integer contributionsReplayed = 0;
+    private Integer onTimeToLate = 0;
+    private Integer lateToOnTime = 0;
+    private BigDecimal currentPenaltyTotal = BigDecimal.ZERO;
+    private BigDecimal proposedPenaltyTotal = BigDecimal.ZERO;
+    private BigDecimal penaltyDelta = BigDecimal.ZERO;
+    private BigDecimal currentShortfall = BigDecimal.ZERO;
+    private BigDecimal proposedShortfall = BigDecimal.ZERO;
+    private List<CycleSimulationDTO> changedCycles = new ArrayList<>();
+}
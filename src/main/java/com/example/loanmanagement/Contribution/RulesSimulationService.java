@@ -0,0 +1,190 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Money.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class RulesSimulationService {
+
+    private static final int SIMULATION_THREADS = 4;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @Autowired
+    private ChamaRulesCache chamaRulesCache;
+
+    // Own pool, so simulations cannot starve the common pool that parallel streams and other async work share
+    private final ExecutorService simulationPool = Executors.newFixedThreadPool(SIMULATION_THREADS);
+
+    // ===== What-if Simulation =====
+    // Streams the ledger once; each cycle is handed to a worker as soon as its last row has been read.
+    // Fields left out of the proposal keep their current values. Read-only: nothing is persisted.
+    @Transactional(readOnly = true)
+    public RulesSimulationDTO simulate(Long chamaId, ChamaRulesDTO proposal) {
+        log.info("Simulating proposed rules for chama {}", chamaId);
+
+        ChamaRulesEntity proposedRules = mergeProposal(chamaId, proposal);
+        CompiledChamaRules proposed = CompiledChamaRules.compile(proposedRules);
+        ChamaRulesHistory history = chamaRulesCache.getHistory(chamaId);
+
+        List<CompletableFuture<CycleSimulationDTO>> cycles = new ArrayList<>();
+        try (Stream<ContributionReplayRow> rows = contributionRepository.streamReplayRows(chamaId)) {
+            Iterator<ContributionReplayRow> iterator = rows.iterator();
+            List<ContributionReplayRow> bucket = new ArrayList<>();
+
+            while (iterator.hasNext()) {
+                ContributionReplayRow row = iterator.next();
+                if (!bucket.isEmpty() && !bucket.get(0).getCycle().equals(row.getCycle())) {
+                    cycles.add(submit(bucket, history, proposed));
+                    bucket = new ArrayList<>();
+                }
+                bucket.add(row);
+            }
+            if (!bucket.isEmpty()) {
+                cycles.add(submit(bucket, history, proposed));
+            }
+        }
+
+        RulesSimulationDTO result = new RulesSimulationDTO();
+        result.setChamaId(chamaId);
+        result.setProposedRules(new ChamaRulesDTO(proposedRules));
+
+        for (CompletableFuture<CycleSimulationDTO> future : cycles) {
+            CycleSimulationDTO cycle = future.join();
+            result.setCyclesReplayed(result.getCyclesReplayed() + 1);
+            result.setContributionsReplayed(result.getContributionsReplayed() + cycle.getContributions());
+            result.setOnTimeToLate(result.getOnTimeToLate() + cycle.getOnTimeToLate());
+            result.setLateToOnTime(result.getLateToOnTime() + cycle.getLateToOnTime());
+            result.setCurrentPenaltyTotal(result.getCurrentPenaltyTotal().add(cycle.getCurrentPenalties()));
+            result.setProposedPenaltyTotal(result.getProposedPenaltyTotal().add(cycle.getProposedPenalties()));
+            result.setCurrentShortfall(result.getCurrentShortfall().add(cycle.getCurrentShortfall()));
+            result.setProposedShortfall(result.getProposedShortfall().add(cycle.getProposedShortfall()));
+            if (cycle.hasChanges()) {
+                result.getChangedCycles().add(cycle);
+            }
+        }
+        result.setPenaltyDelta(result.getProposedPenaltyTotal().subtract(result.getCurrentPenaltyTotal()));
+
+        log.info("Simulation for chama {} replayed {} contributions over {} cycles", chamaId,
+                result.getContributionsReplayed(), result.getCyclesReplayed());
+        return result;
+    }
+
+    // ===== Helper Methods =====
+    private CompletableFuture<CycleSimulationDTO> submit(List<ContributionReplayRow> rows,
+                                                         ChamaRulesHistory history,
+                                                         CompiledChamaRules proposed) {
+        String cycle = rows.get(0).getCycle();
+        CompiledChamaRules current = history.resolve(cycle);
+        return CompletableFuture.supplyAsync(() -> simulateCycle(cycle, rows, current, proposed), simulationPool);
+    }
+
+    // Recorded status/penalty vs. the proposed rules, with the same one-penalty-per-cycle installment rule
+    private CycleSimulationDTO simulateCycle(String cycle, List<ContributionReplayRow> rows,
+                                             CompiledChamaRules current, CompiledChamaRules proposed) {
+        int onTimeToLate = 0;
+        int lateToOnTime = 0;
+        long currentPenalties = 0;
+        long proposedPenalties = 0;
+        // Cents paid per member; the one-slot array is updated in place instead of re-boxed
+        Map<Long, long[]> paidByMember = new HashMap<>();
+        Set<Long> penalized = new HashSet<>();
+
+        for (ContributionReplayRow row : rows) {
+            ContributionEntity.ContributionStatus proposedStatus = proposed.statusFor(row.getDatePaid(), cycle);
+            if (row.getStatus() == ContributionEntity.ContributionStatus.ON_TIME
+                    && proposedStatus == ContributionEntity.ContributionStatus.LATE) {
+                onTimeToLate++;
+            } else if (row.getStatus() == ContributionEntity.ContributionStatus.LATE
+                    && proposedStatus == ContributionEntity.ContributionStatus.ON_TIME) {
+                lateToOnTime++;
+            }
+
+            if (row.getPenaltyAmount() != null) {
+                currentPenalties += row.getPenaltyAmount().cents();
+            }
+
+            long[] paidSoFar = paidByMember.computeIfAbsent(row.getMemberId(), k -> new long[1]);
+            if (!penalized.contains(row.getMemberId()) && paidSoFar[0] < proposed.getContributionAmountCents()) {
+                long penalty = proposed.penaltyFor(row.getDatePaid(), cycle).cents();
+                if (penalty > 0) {
+                    proposedPenalties += penalty;
+                    penalized.add(row.getMemberId());
+                }
+            }
+            paidSoFar[0] += row.getAmount().cents();
+        }
+
+        long currentShortfall = 0;
+        long proposedShortfall = 0;
+        for (long[] paid : paidByMember.values()) {
+            currentShortfall += Math.max(current.getContributionAmountCents() - paid[0], 0);
+            proposedShortfall += Math.max(proposed.getContributionAmountCents() - paid[0], 0);
+        }
+
+        return new CycleSimulationDTO(cycle, rows.size(), onTimeToLate, lateToOnTime,
+                Money.ofCents(currentPenalties).toBigDecimal(), Money.ofCents(proposedPenalties).toBigDecimal(),
+                Money.ofCents(currentShortfall).toBigDecimal(), Money.ofCents(proposedShortfall).toBigDecimal());
+    }
+
+    // Unsaved copy of the current rules with the proposed values applied
+    private ChamaRulesEntity mergeProposal(Long chamaId, ChamaRulesDTO proposal) {
+        ChamaRulesEntity current = chamaRulesRepository.findWithPenaltyTiersByChamaId(chamaId)
+                .orElseThrow(() -> new RuntimeException("Chama rules not found"));
+
+        ChamaRulesEntity merged = new ChamaRulesEntity();
+        merged.setChama(current.getChama());
+        merged.setMonthlyContributionAmount(proposal.getMonthlyContributionAmount() != null
+                ? proposal.getMonthlyContributionAmount() : current.getMonthlyContributionAmount());
+        merged.setPenaltyForLate(proposal.getPenaltyForLate() != null
+                ? proposal.getPenaltyForLate() : current.getPenaltyForLate());
+        merged.setPenaltyPerDay(proposal.getPenaltyPerDay() != null
+                ? proposal.getPenaltyPerDay() : current.getPenaltyPerDay());
+        merged.setMaxPenalty(proposal.getMaxPenalty() != null
+                ? proposal.getMaxPenalty() : current.getMaxPenalty());
+        merged.setPenaltyTiers(new ArrayList<>(proposal.getPenaltyTiers() != null
+                ? proposal.getPenaltyTiers() : current.getPenaltyTiers()));
+        merged.setCycleType(current.getCycleType());
+        merged.setDayOfCycle(proposal.getDayOfCycle() != null
+                ? proposal.getDayOfCycle() : current.getDayOfCycle());
+        merged.setGracePeriodDays(proposal.getGracePeriodDays() != null
+                ? proposal.getGracePeriodDays() : current.getGracePeriodDays());
+
+        if (merged.getMonthlyContributionAmount().signum() <= 0) {
+            throw new RuntimeException("Monthly contribution amount must be greater than 0");
+        }
+        if (merged.getDayOfCycle() < 1 || merged.getDayOfCycle() > 31) {
+            throw new RuntimeException("Day of cycle must be between 1 and 31");
+        }
+        if (merged.getGracePeriodDays() < 0 || merged.getGracePeriodDays() > 30) {
+            throw new RuntimeException("Grace period must be between 0 and 30 days");
+        }
+        return merged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        simulationPool.shutdown();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.loanmanagement.Creditscore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CreditAssessmentDTO {
+    public Long memberId;
+    public Long chamaId;
+    public int score;                  // 0..100
+    public boolean eligible;
+    public double requestedAmount;
+    public double maxLoanAmount;       // savings multiple less current exposure
+
+    // Inputs the score was computed from
+    public double onTimeContributionRatio;
+    public double repaymentPunctuality;
+    public double savingsBalance;
+    public double currentExposure;
+    public double guaranteedAmount;    // pledged by guarantors on top of maxLoanAmount
+
+    public List<String> reasons = new ArrayList<>();
+}
@@ -0,0 +1,172 @@
+package com.example.loanmanagement.Creditscore;
+
+import com.example.loanmanagement.Chama.ChamaRepository;
+import com.example.loanmanagement.Contribution.ContributionEntity.ContributionStatus;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+public class CreditScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CreditScoringService.class);
+
+    // Members may borrow up to this multiple of what they have saved, less what they already owe
+    public static final long SAVINGS_MULTIPLIER = 3;
+    public static final int MIN_SCORE = 50;
+    public static final int MIN_CONTRIBUTIONS = 3;
+
+    // Score weights; they add up to 100
+    private static final double CONTRIBUTION_WEIGHT = 50;
+    private static final double REPAYMENT_WEIGHT = 30;
+    private static final double HEADROOM_WEIGHT = 20;
+
+    // Members who have never repaid a loan are scored as neutral on punctuality
+    private static final double NO_REPAYMENT_HISTORY = 0.5;
+
+    private static final int RECOMPUTE_THREADS = 4;
+
+    private final MemberCreditFeaturesRepository featuresRepo;
+    private final ChamaRepository chamaRepo;
+
+    private final ExecutorService recomputePool = Executors.newFixedThreadPool(RECOMPUTE_THREADS);
+
+    public CreditScoringService(MemberCreditFeaturesRepository featuresRepo, ChamaRepository chamaRepo) {
+        this.featuresRepo = featuresRepo;
+        this.chamaRepo = chamaRepo;
+    }
+
+    // ✅ Score a loan request: one feature-row read plus arithmetic (amounts in Money, ratios and the score as doubles)
+    public CreditAssessmentDTO assess(MemberEntity member, Money requestedAmount) {
+        return assess(member, requestedAmount, Money.ZERO);
+    }
+
+    // Guaranteed amounts are pledged by other members and raise the limit by as much; they do not change the score
+    public CreditAssessmentDTO assess(MemberEntity member, Money requestedAmount, Money guaranteed) {
+        MemberCreditFeaturesEntity features = featuresRepo.findByMemberId(member.getId())
+                .orElseGet(MemberCreditFeaturesEntity::new);
+
+        CreditAssessmentDTO result = new CreditAssessmentDTO();
+        result.memberId = member.getId();
+        result.chamaId = member.getChama().getId();
+        result.requestedAmount = requestedAmount.toDouble();
+        result.savingsBalance = features.getSavingsBalance().toDouble();
+        result.currentExposure = features.getCurrentExposure().toDouble();
+        result.guaranteedAmount = guaranteed.toDouble();
+
+        int contributions = features.getContributionsOnTime() + features.getContributionsLate();
+        result.onTimeContributionRatio = contributions > 0 ? (double) features.getContributionsOnTime() / contributions : 0.0;
+
+        int installments = features.getInstallmentsOnTime() + features.getInstallmentsLate();
+        result.repaymentPunctuality = installments > 0
+                ? (double) features.getInstallmentsOnTime() / installments
+                : NO_REPAYMENT_HISTORY;
+
+        Money limit = features.getSavingsBalance().times(SAVINGS_MULTIPLIER);
+        Money maxLoan = limit.minus(features.getCurrentExposure()).max(Money.ZERO);
+        result.maxLoanAmount = maxLoan.toDouble();
+        double headroom = limit.isPositive() ? (double) maxLoan.cents() / limit.cents() : 0.0;
+
+        result.score = (int) Math.round(CONTRIBUTION_WEIGHT * result.onTimeContributionRatio
+                + REPAYMENT_WEIGHT * result.repaymentPunctuality
+                + HEADROOM_WEIGHT * headroom);
+
+        if (contributions < MIN_CONTRIBUTIONS) {
+            result.reasons.add("At least " + MIN_CONTRIBUTIONS + " contributions are required before borrowing");
+        }
+        if (result.score < MIN_SCORE) {
+            result.reasons.add("Credit score " + result.score + " is below the minimum of " + MIN_SCORE);
+        }
+        if (requestedAmount.isGreaterThan(maxLoan.plus(guaranteed))) {
+            result.reasons.add("Requested amount exceeds the current limit of " + maxLoan +
+                    (guaranteed.isPositive() ? " plus Ksh " + guaranteed + " guaranteed" : ""));
+        }
+        result.eligible = result.reasons.isEmpty();
+        return result;
+    }
+
+    // What a member has saved in their chama, from the feature row (what guarantors may pledge against)
+    public Money getSavings(Long memberId) {
+        return featuresRepo.findByMemberId(memberId)
+                .map(MemberCreditFeaturesEntity::getSavingsBalance)
+                .orElse(Money.ZERO);
+    }
+
+    // ===== Incremental updates =====
+
+    // Contributions count once per cycle, as in the recompute: the first installment adds the cycle with its status,
+    // and a late installment turns a cycle that was on time into a late one. cycleStatusBefore is null for the first.
+    public void recordContribution(Long memberId, Long chamaId, ContributionStatus status, ContributionStatus cycleStatusBefore,
+                                   Money amount) {
+        int onTime = 0;
+        int late = 0;
+        if (cycleStatusBefore == null) {
+            onTime = status == ContributionStatus.ON_TIME ? 1 : 0;
+            late = status == ContributionStatus.LATE ? 1 : 0;
+        } else if (cycleStatusBefore == ContributionStatus.ON_TIME && status == ContributionStatus.LATE) {
+            onTime = -1;
+            late = 1;
+        }
+        featuresRepo.addDeltas(memberId, chamaId, onTime, late, amount.cents(), 0, 0, 0);
+    }
+
+    public void recordLoanApproved(Long memberId, Long chamaId, Money outstanding) {
+        featuresRepo.addDeltas(memberId, chamaId, 0, 0, 0, 0, 0, outstanding.cents());
+    }
+
+    public void recordRepayment(Long memberId, Long chamaId, Money amount, int installmentsOnTime, int installmentsLate) {
+        featuresRepo.addDeltas(memberId, chamaId, 0, 0, 0, installmentsOnTime, installmentsLate, -amount.cents());
+    }
+
+    // ===== Full recompute =====
+
+    // ✅ Nightly rebuild from the ledgers, one chama per task, so drift from edits and reprocessing never lasts
+    @Scheduled(cron = "0 0 3 * * ?") // Every day at 3 AM
+    public void recomputeAll() {
+        List<Long> chamaIds = chamaRepo.findAllIds();
+        logger.info("Recomputing credit features for {} chamas...", chamaIds.size());
+
+        List<CompletableFuture<Integer>> futures = chamaIds.stream()
+                .map(chamaId -> CompletableFuture.supplyAsync(() -> recompute(chamaId), recomputePool))
+                .collect(Collectors.toList());
+        int members = futures.stream().mapToInt(CompletableFuture::join).sum();
+
+        logger.info("Credit features recomputed for {} member rows", members);
+    }
+
+    // ✅ Seed the feature table on first start
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3) // after loan running totals and schedules are backfilled
+    public void seedFeatures() {
+        if (featuresRepo.count() == 0) {
+            recomputeAll();
+        }
+    }
+
+    private int recompute(Long chamaId) {
+        try {
+            return featuresRepo.recomputeForChama(chamaId);
+        } catch (RuntimeException e) {
+            logger.error("Failed to recompute credit features for chama {}: {}", chamaId, e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recomputePool.shutdown();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.loanmanagement.Creditscore;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Scoring inputs for one member, kept up to date on every contribution, approval and repayment
+@Entity
+@Table(name = "member_credit_features",
+        uniqueConstraints = @UniqueConstraint(name = "uk_credit_features_member", columnNames = "member_id"),
+        indexes = @Index(name = "idx_credit_features_chama", columnList = "chama_id"))
+public class MemberCreditFeaturesEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id", nullable = false)
+    private MemberEntity member;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chama_id", nullable = false)
+    private ChamaEntity chama;
+
+    // Contribution cycles by status; a cycle is late if any of its installments was
+    @Column(nullable = false)
+    private int contributionsOnTime;
+
+    @Column(nullable = false)
+    private int contributionsLate;
+
+    // Total contributed. Cents (see MoneyConverter); nullable in the schema only so MoneyMigration can fill it for older rows
+    @Column(name = "savings_balance_cents")
+    private Money savingsBalance;
+
+    // Loan installments settled on or before / after their due date
+    @Column(nullable = false)
+    private int installmentsOnTime;
+
+    @Column(nullable = false)
+    private int installmentsLate;
+
+    // Outstanding balance across the member's approved loans
+    @Column(name = "current_exposure_cents")
+    private Money currentExposure;
+
+    private LocalDateTime updatedAt;
+
+    public MemberCreditFeaturesEntity() {
+        this.savingsBalance = Money.ZERO;
+        this.currentExposure = Money.ZERO;
+    }
+
+    public Long getId() { return id; }
+
+    public MemberEntity getMember() { return member; }
+    public void setMember(MemberEntity member) { this.member = member; }
+
+    public ChamaEntity getChama() { return chama; }
+    public void setChama(ChamaEntity chama) { this.chama = chama; }
+
+    public int getContributionsOnTime() { return contributionsOnTime; }
+    public void setContributionsOnTime(int contributionsOnTime) { this.contributionsOnTime = contributionsOnTime; }
+
+    public int getContributionsLate() { return contributionsLate; }
+    public void setContributionsLate(int contributionsLate) { this.contributionsLate = contributionsLate; }
+
+    public Money getSavingsBalance() { return savingsBalance; }
+    public void setSavingsBalance(Money savingsBalance) { this.savingsBalance = savingsBalance; }
+
+    public int getInstallmentsOnTime() { return installmentsOnTime; }
+    public void setInstallmentsOnTime(int installmentsOnTime) { this.installmentsOnTime = installmentsOnTime; }
+
+    public int getInstallmentsLate() { return installmentsLate; }
+    public void setInstallmentsLate(int installmentsLate) { this.installmentsLate = installmentsLate; }
+
+    public Money getCurrentExposure() { return currentExposure; }
+    public void setCurrentExposure(Money currentExposure) { this.currentExposure = currentExposure; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,74 @@
+package com.example.loanmanagement.Creditscore;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface MemberCreditFeaturesRepository extends JpaRepository<MemberCreditFeaturesEntity, Long> {
+
+    Optional<MemberCreditFeaturesEntity> findByMemberId(Long memberId);
+
+    // Atomic increment of a member's features (MySQL upsert); concurrent events cannot lose an update
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO member_credit_features " +
+            "(member_id, chama_id, contributions_on_time, contributions_late, savings_balance_cents, " +
+            "installments_on_time, installments_late, current_exposure_cents, updated_at) " +
+            "VALUES (:memberId, :chamaId, :contributionsOnTime, :contributionsLate, :savingsCents, " +
+            ":installmentsOnTime, :installmentsLate, GREATEST(:exposureCents, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "contributions_on_time = contributions_on_time + :contributionsOnTime, " +
+            "contributions_late = contributions_late + :contributionsLate, " +
+            "savings_balance_cents = savings_balance_cents + :savingsCents, " +
+            "installments_on_time = installments_on_time + :installmentsOnTime, " +
+            "installments_late = installments_late + :installmentsLate, " +
+            "current_exposure_cents = GREATEST(current_exposure_cents + :exposureCents, 0), " +
+            "updated_at = NOW()",
+            nativeQuery = true)
+    void addDeltas(@Param("memberId") Long memberId,
+                   @Param("chamaId") Long chamaId,
+                   @Param("contributionsOnTime") int contributionsOnTime,
+                   @Param("contributionsLate") int contributionsLate,
+                   @Param("savingsCents") long savingsCents,
+                   @Param("installmentsOnTime") int installmentsOnTime,
+                   @Param("installmentsLate") int installmentsLate,
+                   @Param("exposureCents") long exposureCents);
+
+    // Rebuilds every member of a chama from the cycle running totals, installment schedules and loan balances.
+    // Contributions count once per cycle: late if any installment of the cycle was late, on time otherwise
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO member_credit_features " +
+            "(member_id, chama_id, contributions_on_time, contributions_late, savings_balance_cents, " +
+            "installments_on_time, installments_late, current_exposure_cents, updated_at) " +
+            "SELECT m.id, m.chama_id, COALESCE(c.on_time, 0), COALESCE(c.late, 0), COALESCE(c.saved, 0), " +
+            "COALESCE(i.on_time, 0), COALESCE(i.late, 0), COALESCE(l.exposure, 0), NOW() " +
+            "FROM members m " +
+            "LEFT JOIN (SELECT t.member_id, SUM(lc.cycle IS NULL) AS on_time, SUM(lc.cycle IS NOT NULL) AS late, SUM(t.amount_paid_cents) AS saved " +
+            "           FROM contribution_cycle_totals t " +
+            "           LEFT JOIN (SELECT DISTINCT member_id, cycle FROM contributions WHERE chama_id = :chamaId AND status = 'LATE') lc " +
+            "           ON lc.member_id = t.member_id AND lc.cycle = t.cycle " +
+            "           WHERE t.chama_id = :chamaId GROUP BY t.member_id) c ON c.member_id = m.id " +
+            "LEFT JOIN (SELECT la.member_id, SUM(li.paid_date <= li.due_date) AS on_time, SUM(li.paid_date > li.due_date) AS late " +
+            "           FROM loan_installments li JOIN loan_applications la ON la.id = li.loan_id " +
+            "           JOIN members lm ON lm.id = la.member_id " +
+            "           WHERE lm.chama_id = :chamaId AND li.status = 'PAID' GROUP BY la.member_id) i ON i.member_id = m.id " +
+            "LEFT JOIN (SELECT la.member_id, SUM(GREATEST(la.outstanding_balance_cents, 0)) AS exposure " +
+            "           FROM loan_applications la JOIN members lm ON lm.id = la.member_id " +
+            "           WHERE lm.chama_id = :chamaId AND la.status IN ('APPROVED', 'DISBURSED', 'DEFAULTED') GROUP BY la.member_id) l ON l.member_id = m.id " +
+            "WHERE m.chama_id = :chamaId " +
+            "ON DUPLICATE KEY UPDATE " +
+            "contributions_on_time = VALUES(contributions_on_time), " +
+            "contributions_late = VALUES(contributions_late), " +
+            "savings_balance_cents = VALUES(savings_balance_cents), " +
+            "installments_on_time = VALUES(installments_on_time), " +
+            "installments_late = VALUES(installments_late), " +
+            "current_exposure_cents = VALUES(current_exposure_cents), " +
+            "updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int recomputeForChama(@Param("chamaId") Long chamaId);
+}
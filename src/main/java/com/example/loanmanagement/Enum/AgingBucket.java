@@ -0,0 +1,26 @@
+package com.example.loanmanagement.Enum;
+
+// Days since a loan's oldest unpaid installment fell due
+public enum AgingBucket {
+    CURRENT(0), DAYS_1_30(30), DAYS_31_60(60), DAYS_61_90(90), DAYS_90_PLUS(Integer.MAX_VALUE);
+
+    // Most days late a loan can be and still fall in this bucket (the snapshot statement uses the same bounds)
+    private final int maxDaysLate;
+
+    AgingBucket(int maxDaysLate) {
+        this.maxDaysLate = maxDaysLate;
+    }
+
+    public int getMaxDaysLate() {
+        return maxDaysLate;
+    }
+
+    // Null when the loan has no overdue installment
+    public static AgingBucket forDaysLate(Integer daysLate) {
+        if (daysLate == null) return CURRENT;
+        for (AgingBucket bucket : values()) {
+            if (daysLate <= bucket.maxDaysLate) return bucket;
+        }
+        return DAYS_90_PLUS;
+    }
+}
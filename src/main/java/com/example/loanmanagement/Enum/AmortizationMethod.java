@@ -0,0 +1,5 @@
+package com.example.loanmanagement.Enum;
+
+public enum AmortizationMethod {
+    FLAT, REDUCING_BALANCE
+}
@@ -0,0 +1,37 @@
+package com.example.loanmanagement.Enum;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum LoanStatus {
+    PENDING, APPROVED, DISBURSED, REPAID, REJECTED, DEFAULTED;
+
+    // Statuses that carry a balance and accept repayments
+    public static final Set<LoanStatus> ACTIVE = EnumSet.of(APPROVED, DISBURSED, DEFAULTED);
+
+    // Statuses of loans where money has gone out
+    public static final Set<LoanStatus> LENT = EnumSet.of(APPROVED, DISBURSED, REPAID, DEFAULTED);
+
+    public boolean canTransitionTo(LoanStatus next) {
+        return switch (this) {
+            case PENDING -> next == APPROVED || next == REJECTED;
+            case APPROVED -> next == DISBURSED || next == REPAID || next == DEFAULTED;
+            case DISBURSED -> next == REPAID || next == DEFAULTED;
+            case DEFAULTED -> next == REPAID;
+            case REPAID, REJECTED -> false;
+        };
+    }
+
+    public boolean isActive() {
+        return ACTIVE.contains(this);
+    }
+
+    // Accepts any case, as admins have always sent it
+    public static LoanStatus parse(String value) {
+        try {
+            return LoanStatus.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Unknown loan status: " + value);
+        }
+    }
+}
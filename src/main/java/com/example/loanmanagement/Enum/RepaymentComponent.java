@@ -0,0 +1,6 @@
+package com.example.loanmanagement.Enum;
+
+// Parts of what an installment owes, which a repayment settles in a configured order
+public enum RepaymentComponent {
+    PENALTY, INTEREST, PRINCIPAL
+}
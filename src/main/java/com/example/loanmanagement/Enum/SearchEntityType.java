@@ -0,0 +1,5 @@
+package com.example.loanmanagement.Enum;
+
+public enum SearchEntityType {
+    USER, MEMBER, CHAMA, LOAN_APPLICANT
+}
@@ -1,11 +1,15 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Chama.ChamaLiquidityDTO;
+import com.example.loanmanagement.Chama.ChamaLiquidityService;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,9 +19,16 @@ public class AdminLoanApplicationController {
     private static final Logger logger = LoggerFactory.getLogger(AdminLoanApplicationController.class);
 
     private final LoanApplicationService loanService;
+    private final LoanAgingService agingService;
+    private final ChamaLiquidityService liquidityService;
+    private final LoanRatePolicyService rateService;
 
-    public AdminLoanApplicationController(LoanApplicationService loanService) {
+    public AdminLoanApplicationController(LoanApplicationService loanService, LoanAgingService agingService,
+                                          ChamaLiquidityService liquidityService, LoanRatePolicyService rateService) {
         this.loanService = loanService;
+        this.agingService = agingService;
+        this.liquidityService = liquidityService;
+        this.rateService = rateService;
     }
 
     // ✅ Admin can fetch all loan applications for a specific chama
@@ -35,6 +46,27 @@ public class AdminLoanApplicationController {
         }
     }
 
+    // ✅ Admin review queue: ?status=PENDING, ?overdue=true, loanType and date filters, keyset pages via ?cursor=
+    @GetMapping("/queue")
+    public ResponseEntity<?> getLoanQueue(
+            @RequestParam Long chamaId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean overdue,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            LoanQueuePageDTO page = loanService.getLoanQueue(chamaId, status, loanType, from, to, overdue, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching loan queue: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
     // ✅ Admin can update loan status (now supporting 4 arguments)
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateStatus(
@@ -55,6 +87,25 @@ public class AdminLoanApplicationController {
         }
     }
 
+    // ✅ Admin approves/rejects many loans in one request (e.g. at a monthly meeting)
+    @PutMapping("/status/bulk")
+    public ResponseEntity<?> bulkUpdateStatus(
+            @RequestBody BulkLoanDecisionRequest request,
+            @RequestParam String adminUsername,
+            @RequestParam Long chamaId
+    ) {
+        logger.info("🔍 Admin {} setting {} loans to {} in chama {}", adminUsername,
+                request.loanIds != null ? request.loanIds.size() : 0, request.status, chamaId);
+
+        try {
+            BulkLoanDecisionResultDTO result = loanService.bulkUpdateLoanStatus(request.loanIds, request.status, adminUsername, chamaId);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("❌ Error updating loan statuses: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
     // ✅ Admin can check status of a specific loan
     @GetMapping("/loan-status/{loanId}")
     public ResponseEntity<?> getAdminLoanStatus(@PathVariable Long loanId) {
@@ -66,4 +117,123 @@ public class AdminLoanApplicationController {
             return ResponseEntity.status(400).body("Error: " + e.getMessage());
         }
     }
+
+    // ✅ Admin dashboard fetches the status of several loans: ?ids=1,2,3
+    @GetMapping("/loan-status")
+    public ResponseEntity<?> getAdminLoanStatuses(@RequestParam List<Long> ids) {
+        try {
+            List<LoanStatusDTO> statuses = loanService.getLoanStatuses(ids);
+            return ResponseEntity.ok(statuses);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching loan statuses: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin views the installment schedule of a loan
+    @GetMapping("/{loanId}/schedule")
+    public ResponseEntity<?> getRepaymentSchedule(@PathVariable Long loanId) {
+        try {
+            List<LoanInstallmentDTO> schedule = loanService.getRepaymentSchedule(loanId);
+            return ResponseEntity.ok(schedule);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching repayment schedule: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin views who guarantees a loan and what each still has pledged
+    @GetMapping("/{loanId}/guarantors")
+    public ResponseEntity<?> getGuarantors(@PathVariable Long loanId) {
+        try {
+            List<LoanGuarantorDTO> guarantors = loanService.getGuarantors(loanId);
+            return ResponseEntity.ok(guarantors);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching loan guarantors: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin views lending exposure and portfolio-at-risk for a chama
+    @GetMapping("/portfolio")
+    public ResponseEntity<?> getPortfolio(@RequestParam Long chamaId) {
+        try {
+            LoanPortfolioDTO portfolio = loanService.getPortfolio(chamaId);
+            return ResponseEntity.ok(portfolio);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching loan portfolio: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin views active loans by aging bucket, from the nightly snapshot
+    @GetMapping("/aging")
+    public ResponseEntity<?> getAging(@RequestParam Long chamaId) {
+        try {
+            LoanAgingDTO aging = agingService.getAging(chamaId);
+            return ResponseEntity.ok(aging);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching loan aging: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin views the chama's cash position and how much more it can lend
+    @GetMapping("/capacity")
+    public ResponseEntity<?> getLendingCapacity(@RequestParam Long chamaId) {
+        try {
+            ChamaLiquidityDTO capacity = liquidityService.getLendingCapacity(chamaId);
+            return ResponseEntity.ok(capacity);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching lending capacity: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin views the chama's interest-rate bands (empty: platform default rates apply)
+    @GetMapping("/rate-policies")
+    public ResponseEntity<?> getRatePolicies(@RequestParam Long chamaId) {
+        try {
+            List<LoanRatePolicyDTO> policies = rateService.getPolicies(chamaId);
+            return ResponseEntity.ok(policies);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching rate policies: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Admin replaces the chama's interest-rate bands by loan type, duration and amount
+    @PutMapping("/rate-policies")
+    public ResponseEntity<?> replaceRatePolicies(
+            @RequestBody List<LoanRatePolicyDTO> policies,
+            @RequestParam String adminUsername,
+            @RequestParam Long chamaId
+    ) {
+        logger.info("🔍 Admin {} updating rate policies for chama {}", adminUsername, chamaId);
+
+        try {
+            List<LoanRatePolicyDTO> saved = rateService.replacePolicies(chamaId, policies, adminUsername);
+            return ResponseEntity.ok(saved);
+        } catch (Exception e) {
+            logger.error("❌ Error updating rate policies: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Super admin views the portfolio across all chamas
+    @GetMapping("/portfolio/platform")
+    public ResponseEntity<?> getPlatformPortfolio(HttpServletRequest request) {
+        Object role = request.getAttribute("role");
+        if (role == null || !role.toString().equalsIgnoreCase("SUPER_ADMIN")) {
+            return ResponseEntity.status(403).body("Error: Only super admins can view the platform portfolio");
+        }
+
+        try {
+            LoanPortfolioDTO portfolio = loanService.getPlatformPortfolio();
+            return ResponseEntity.ok(portfolio);
+        } catch (Exception e) {
+            logger.error("❌ Error fetching platform loan portfolio: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
 }
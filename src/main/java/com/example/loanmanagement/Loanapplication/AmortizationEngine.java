@@ -0,0 +1,102 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AmortizationMethod;
+import com.example.loanmanagement.Money.Money;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Pure schedule maths: rates are annual percentages, durations are months, money is rounded to cents
+public final class AmortizationEngine {
+
+    private static final MathContext MC = MathContext.DECIMAL64;
+    private static final BigDecimal TWELVE_HUNDRED = BigDecimal.valueOf(1200);
+
+    private AmortizationEngine() {
+    }
+
+    public static Money totalRepayment(Money amount, double annualRate, int months, AmortizationMethod method) {
+        long totalCents = 0;
+        for (LoanInstallmentEntity installment : schedule(amount, annualRate, months, method, LocalDate.now())) {
+            totalCents += installment.getAmountDue().cents();
+        }
+        return Money.ofCents(totalCents);
+    }
+
+    // Monthly installments due one month apart, the first a month after the start date
+    public static List<LoanInstallmentEntity> schedule(Money amount, double annualRate, int months,
+                                                       AmortizationMethod method, LocalDate startDate) {
+        if (months < 1) {
+            throw new RuntimeException("Loan duration must be at least one month");
+        }
+        if (amount == null || !amount.isPositive()) {
+            throw new RuntimeException("Loan amount must be greater than zero");
+        }
+
+        BigDecimal principal = amount.toBigDecimal();
+        BigDecimal monthlyRate = BigDecimal.valueOf(annualRate).divide(TWELVE_HUNDRED, MC);
+
+        return method == AmortizationMethod.REDUCING_BALANCE
+                ? reducingBalance(principal, monthlyRate, months, startDate)
+                : flat(principal, monthlyRate, months, startDate);
+    }
+
+    // Interest on the original principal for the whole term, spread evenly; the last installment takes the rounding
+    private static List<LoanInstallmentEntity> flat(BigDecimal principal, BigDecimal monthlyRate, int months, LocalDate startDate) {
+        BigDecimal totalInterest = cents(principal.multiply(monthlyRate, MC).multiply(BigDecimal.valueOf(months), MC));
+        BigDecimal principalPart = principal.divide(BigDecimal.valueOf(months), 2, RoundingMode.DOWN);
+        BigDecimal interestPart = totalInterest.divide(BigDecimal.valueOf(months), 2, RoundingMode.DOWN);
+
+        List<LoanInstallmentEntity> installments = new ArrayList<>(months);
+        BigDecimal principalLeft = principal;
+        BigDecimal interestLeft = totalInterest;
+        for (int n = 1; n <= months; n++) {
+            BigDecimal p = n == months ? principalLeft : principalPart;
+            BigDecimal i = n == months ? interestLeft : interestPart;
+            installments.add(installment(n, startDate.plusMonths(n), p, i));
+            principalLeft = principalLeft.subtract(p);
+            interestLeft = interestLeft.subtract(i);
+        }
+        return installments;
+    }
+
+    // Equal installments (annuity); interest is charged each month on the balance still owed
+    private static List<LoanInstallmentEntity> reducingBalance(BigDecimal principal, BigDecimal monthlyRate, int months, LocalDate startDate) {
+        BigDecimal payment;
+        if (monthlyRate.signum() == 0) {
+            payment = principal.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+        } else {
+            BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(months, MC);
+            payment = cents(principal.multiply(monthlyRate, MC).multiply(growth, MC)
+                    .divide(growth.subtract(BigDecimal.ONE), MC));
+        }
+
+        List<LoanInstallmentEntity> installments = new ArrayList<>(months);
+        BigDecimal balance = principal;
+        for (int n = 1; n <= months; n++) {
+            BigDecimal interest = cents(balance.multiply(monthlyRate, MC));
+            BigDecimal p = n == months ? balance : payment.subtract(interest).min(balance);
+            installments.add(installment(n, startDate.plusMonths(n), p, interest));
+            balance = balance.subtract(p);
+        }
+        return installments;
+    }
+
+    private static LoanInstallmentEntity installment(int number, LocalDate dueDate, BigDecimal principal, BigDecimal interest) {
+        LoanInstallmentEntity installment = new LoanInstallmentEntity();
+        installment.setInstallmentNumber(number);
+        installment.setDueDate(dueDate);
+        installment.setPrincipalDue(Money.of(principal));
+        installment.setInterestDue(Money.of(interest));
+        installment.setAmountDue(Money.of(principal.add(interest)));
+        return installment;
+    }
+
+    private static BigDecimal cents(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+}
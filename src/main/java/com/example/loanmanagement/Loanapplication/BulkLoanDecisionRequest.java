@@ -0,0 +1,8 @@
+package com.example.loanmanagement.Loanapplication;
+
+import java.util.List;
+
+public class BulkLoanDecisionRequest {
+    public List<Long> loanIds;
+    public String status;
+}
@@ -0,0 +1,18 @@
+package com.example.loanmanagement.Loanapplication;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BulkLoanDecisionResultDTO {
+    public String status;
+    public List<Long> updated = new ArrayList<>();
+
+    // Loans left unchanged, with the reason (not in the chama, transition not allowed, ...)
+    public Map<Long, String> failed = new LinkedHashMap<>();
+
+    public BulkLoanDecisionResultDTO(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Immutable lookup built from a chama's rate policy rows. Bands are kept as primitive arrays per loan type, so
+// resolving a rate is a case-insensitive map lookup plus an array scan, with nothing allocated.
+public final class CompiledRatePolicy {
+
+    // Used when neither the chama nor the platform default has a band for the loan
+    public static final double FALLBACK_RATE = 10;
+
+    // Platform rates for chamas that have not configured their own (the rates applications always used)
+    public static final CompiledRatePolicy DEFAULT = compile(List.of(
+            new LoanRatePolicyEntity(null, "personal", null, 12, null, null, 10.0),
+            new LoanRatePolicyEntity(null, "personal", 13, null, null, null, 12.0),
+            new LoanRatePolicyEntity(null, "business", null, 24, null, null, 13.0),
+            new LoanRatePolicyEntity(null, "business", 25, null, null, null, 15.0),
+            new LoanRatePolicyEntity(null, "mortgage", null, null, null, null, 6.0),
+            new LoanRatePolicyEntity(null, "auto", null, 24, null, null, 7.0),
+            new LoanRatePolicyEntity(null, "auto", 25, null, null, null, 9.0),
+            new LoanRatePolicyEntity(null, LoanRatePolicyEntity.ANY_TYPE, null, null, null, null, FALLBACK_RATE)
+    ), null);
+
+    private final Map<String, Bands> byType;
+    private final Bands anyType;
+    private final CompiledRatePolicy fallback;
+
+    private CompiledRatePolicy(Map<String, Bands> byType, Bands anyType, CompiledRatePolicy fallback) {
+        this.byType = byType;
+        this.anyType = anyType;
+        this.fallback = fallback;
+    }
+
+    // A chama's bands for a type come first, then its "*" bands, then the fallback policy
+    public static CompiledRatePolicy compile(List<LoanRatePolicyEntity> policies, CompiledRatePolicy fallback) {
+        Map<String, List<LoanRatePolicyEntity>> grouped = policies.stream()
+                .collect(Collectors.groupingBy(p -> normalizeType(p.getLoanType())));
+
+        Map<String, Bands> byType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Bands anyType = null;
+        for (Map.Entry<String, List<LoanRatePolicyEntity>> entry : grouped.entrySet()) {
+            Bands bands = new Bands(entry.getValue());
+            if (entry.getKey().equals(LoanRatePolicyEntity.ANY_TYPE)) {
+                anyType = bands;
+            } else {
+                byType.put(entry.getKey(), bands);
+            }
+        }
+        return new CompiledRatePolicy(byType, anyType, fallback);
+    }
+
+    static String normalizeType(String loanType) {
+        return loanType == null ? LoanRatePolicyEntity.ANY_TYPE : loanType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public double rateFor(String loanType, int duration, long amountCents) {
+        if (loanType != null) {
+            // trim() returns the same string when there is nothing to strip, so the usual lookup stays allocation-free
+            Bands bands = byType.get(loanType.trim());
+            if (bands != null) {
+                int match = bands.find(duration, amountCents);
+                if (match >= 0) return bands.rates[match];
+            }
+        }
+        if (anyType != null) {
+            int match = anyType.find(duration, amountCents);
+            if (match >= 0) return anyType.rates[match];
+        }
+        return fallback != null ? fallback.rateFor(loanType, duration, amountCents) : FALLBACK_RATE;
+    }
+
+    // Bands of one loan type, narrowest first (duration range, then amount range) so the most specific overlapping band wins
+    private static final class Bands {
+        private final int[] minDurations;
+        private final int[] maxDurations;
+        private final long[] minAmounts;
+        private final long[] maxAmounts;
+        private final double[] rates;
+
+        Bands(List<LoanRatePolicyEntity> policies) {
+            List<LoanRatePolicyEntity> ordered = new ArrayList<>(policies);
+            ordered.sort(Comparator.comparingLong(Bands::durationWidth)
+                    .thenComparing(Bands::amountWidth, Long::compareUnsigned));
+
+            int n = ordered.size();
+            minDurations = new int[n];
+            maxDurations = new int[n];
+            minAmounts = new long[n];
+            maxAmounts = new long[n];
+            rates = new double[n];
+            for (int i = 0; i < n; i++) {
+                LoanRatePolicyEntity p = ordered.get(i);
+                minDurations[i] = orMin(p.getMinDuration());
+                maxDurations[i] = orMax(p.getMaxDuration());
+                minAmounts[i] = orMin(p.getMinAmount());
+                maxAmounts[i] = orMax(p.getMaxAmount());
+                rates[i] = p.getInterestRate();
+            }
+        }
+
+        int find(int duration, long amountCents) {
+            for (int i = 0; i < rates.length; i++) {
+                if (duration >= minDurations[i] && duration <= maxDurations[i]
+                        && amountCents >= minAmounts[i] && amountCents <= maxAmounts[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static long durationWidth(LoanRatePolicyEntity p) {
+            return (long) orMax(p.getMaxDuration()) - orMin(p.getMinDuration());
+        }
+
+        // max - min of an unbounded band overflows a signed long but is still exact as an unsigned one
+        private static long amountWidth(LoanRatePolicyEntity p) {
+            return orMax(p.getMaxAmount()) - orMin(p.getMinAmount());
+        }
+
+        private static int orMax(Integer value) {
+            return value != null ? value : Integer.MAX_VALUE;
+        }
+
+        private static long orMax(Money value) {
+            return value != null ? value.cents() : Long.MAX_VALUE;
+        }
+
+        private static int orMin(Integer value) {
+            return value != null ? value : Integer.MIN_VALUE;
+        }
+
+        private static long orMin(Money value) {
+            return value != null ? value.cents() : Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.util.List;
+
+public class GuarantorExposureDTO {
+    public Long memberId;
+    public Long chamaId;
+    public Money savings = Money.ZERO;
+    public Money guaranteed = Money.ZERO;  // still pledged on other members' loans
+    public Money available = Money.ZERO;   // what they can still pledge
+    public List<LoanGuarantorDTO> pledges;
+}
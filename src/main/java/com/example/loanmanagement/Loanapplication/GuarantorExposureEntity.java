@@ -0,0 +1,39 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Running total of what a member still has pledged as guarantor, moved in the same transaction as every
+// pledge and release, so the check when a new loan names them is a single-row read
+@Entity
+@Table(name = "guarantor_exposure",
+        uniqueConstraints = @UniqueConstraint(name = "uk_guarantor_exposure_member", columnNames = "member_id"))
+public class GuarantorExposureEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "chama_id", nullable = false)
+    private Long chamaId;
+
+    @Column(name = "exposure_cents", nullable = false)
+    private Money exposure;
+
+    private LocalDateTime updatedAt;
+
+    public Long getId() { return id; }
+
+    public Long getMemberId() { return memberId; }
+
+    public Long getChamaId() { return chamaId; }
+
+    public Money getExposure() { return exposure; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
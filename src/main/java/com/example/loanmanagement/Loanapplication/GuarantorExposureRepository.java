@@ -0,0 +1,29 @@
+package com.example.loanmanagement.Loanapplication;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface GuarantorExposureRepository extends JpaRepository<GuarantorExposureEntity, Long> {
+
+    Optional<GuarantorExposureEntity> findByMemberId(Long memberId);
+
+    // Atomic increment (MySQL upsert); releases pass a negative delta and never take the total below zero
+    @Modifying
+    @Query(value = "INSERT INTO guarantor_exposure (member_id, chama_id, exposure_cents, updated_at) " +
+            "VALUES (:memberId, :chamaId, GREATEST(:delta, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE exposure_cents = GREATEST(exposure_cents + :delta, 0), updated_at = NOW()",
+            nativeQuery = true)
+    void addDelta(@Param("memberId") Long memberId, @Param("chamaId") Long chamaId, @Param("delta") long deltaCents);
+
+    // Adds a pledge only if the total stays within the limit; 0 rows means a concurrent pledge got there first.
+    // The row must exist (addDelta with 0 opens it).
+    @Modifying
+    @Query(value = "UPDATE guarantor_exposure SET exposure_cents = exposure_cents + :amount, updated_at = NOW() " +
+            "WHERE member_id = :memberId AND exposure_cents + :amount <= :limit",
+            nativeQuery = true)
+    int addWithinLimit(@Param("memberId") Long memberId, @Param("amount") long amountCents, @Param("limit") long limitCents);
+}
@@ -0,0 +1,166 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Creditscore.CreditScoringService;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class GuarantorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuarantorService.class);
+
+    public static final int MAX_GUARANTORS = 10;
+
+    private final LoanGuarantorRepository guarantorRepo;
+    private final GuarantorExposureRepository exposureRepo;
+    private final MemberRepository memberRepo;
+    private final CreditScoringService creditScoringService;
+
+    public GuarantorService(LoanGuarantorRepository guarantorRepo, GuarantorExposureRepository exposureRepo,
+                            MemberRepository memberRepo, CreditScoringService creditScoringService) {
+        this.guarantorRepo = guarantorRepo;
+        this.exposureRepo = exposureRepo;
+        this.memberRepo = memberRepo;
+        this.creditScoringService = creditScoringService;
+    }
+
+    // ===== Application =====
+
+    // ✅ Checks the pledges asked for and returns the guarantors by member id, before anything is written
+    public Map<MemberEntity, Money> validatePledges(List<LoanGuarantorDTO> pledges, MemberEntity borrower, Money loanAmount) {
+        Map<MemberEntity, Money> result = new LinkedHashMap<>();
+        if (pledges == null || pledges.isEmpty()) {
+            return result;
+        }
+        if (pledges.size() > MAX_GUARANTORS) {
+            throw new RuntimeException("At most " + MAX_GUARANTORS + " guarantors can back one loan");
+        }
+
+        Map<Long, Money> byMember = new LinkedHashMap<>();
+        for (LoanGuarantorDTO pledge : pledges) {
+            if (pledge.memberId == null || pledge.amount == null || !pledge.amount.isPositive()) {
+                throw new RuntimeException("Each guarantor needs a member id and a pledge greater than zero");
+            }
+            if (pledge.memberId.equals(borrower.getId())) {
+                throw new RuntimeException("You cannot guarantee your own loan");
+            }
+            if (byMember.put(pledge.memberId, pledge.amount) != null) {
+                throw new RuntimeException("Member " + pledge.memberId + " is listed as guarantor more than once");
+            }
+        }
+
+        Money total = byMember.values().stream().reduce(Money.ZERO, Money::plus);
+        if (total.isGreaterThan(loanAmount)) {
+            throw new RuntimeException("Guarantors cannot pledge more than the loan amount of Ksh " + loanAmount);
+        }
+
+        Map<Long, MemberEntity> members = memberRepo.findAllById(byMember.keySet()).stream()
+                .collect(Collectors.toMap(MemberEntity::getId, m -> m));
+        Long chamaId = borrower.getChama().getId();
+        for (Map.Entry<Long, Money> entry : byMember.entrySet()) {
+            MemberEntity guarantor = members.get(entry.getKey());
+            if (guarantor == null || !guarantor.getChama().getId().equals(chamaId)) {
+                throw new RuntimeException("Guarantor " + entry.getKey() + " is not a member of this chama");
+            }
+            Money available = available(guarantor.getId());
+            if (entry.getValue().isGreaterThan(available)) {
+                throw new RuntimeException("Guarantor " + entry.getKey() + " can pledge at most Ksh " + available);
+            }
+            result.put(guarantor, entry.getValue());
+        }
+        return result;
+    }
+
+    // ✅ Records the pledges on a saved loan and adds them to each guarantor's exposure.
+    // Runs in the application's transaction; the conditional update keeps two loans from both using the same savings.
+    public void pledge(LoanApplicationEntity loan, Map<MemberEntity, Money> pledges) {
+        for (Map.Entry<MemberEntity, Money> entry : pledges.entrySet()) {
+            MemberEntity guarantor = entry.getKey();
+            Money amount = entry.getValue();
+
+            exposureRepo.addDelta(guarantor.getId(), guarantor.getChama().getId(), 0);
+            Money limit = creditScoringService.getSavings(guarantor.getId());
+            if (exposureRepo.addWithinLimit(guarantor.getId(), amount.cents(), limit.cents()) == 0) {
+                throw new RuntimeException("Guarantor " + guarantor.getId() + " no longer has Ksh " + amount + " free to pledge");
+            }
+            guarantorRepo.save(new LoanGuarantorEntity(loan, guarantor, amount));
+        }
+        if (!pledges.isEmpty()) {
+            logger.info("Loan {} backed by {} guarantors", loan.getId(), pledges.size());
+        }
+    }
+
+    // Savings less what is already pledged: the feature row and the exposure row, one read each
+    public Money available(Long memberId) {
+        return creditScoringService.getSavings(memberId).minus(exposure(memberId)).max(Money.ZERO);
+    }
+
+    private Money exposure(Long memberId) {
+        return exposureRepo.findByMemberId(memberId)
+                .map(GuarantorExposureEntity::getExposure)
+                .orElse(Money.ZERO);
+    }
+
+    // ===== Release =====
+
+    // ✅ After a repayment: each pledge is released in step with the share of the loan repaid, all of it once REPAID
+    public void releaseForRepayment(LoanApplicationEntity loan) {
+        long totalCents = Money.orZero(loan.getTotalRepayment()).cents();
+        long paidCents = Money.orZero(loan.getAmountPaid()).cents();
+        for (LoanGuarantorEntity guarantor : guarantorRepo.findByLoanId(loan.getId())) {
+            long pledged = guarantor.getPledged().cents();
+            long target = totalCents <= 0 || paidCents >= totalCents
+                    ? pledged
+                    : BigInteger.valueOf(pledged).multiply(BigInteger.valueOf(paidCents))
+                            .divide(BigInteger.valueOf(totalCents)).longValueExact();
+            release(guarantor, Money.ofCents(target));
+        }
+    }
+
+    // ✅ A rejected loan hands every pledge back
+    public void releaseAll(LoanApplicationEntity loan) {
+        for (LoanGuarantorEntity guarantor : guarantorRepo.findByLoanId(loan.getId())) {
+            release(guarantor, guarantor.getPledged());
+        }
+    }
+
+    private void release(LoanGuarantorEntity guarantor, Money releasedTarget) {
+        Money delta = releasedTarget.minus(guarantor.getReleased());
+        if (!delta.isPositive()) {
+            return;
+        }
+        guarantor.setReleased(releasedTarget);
+        exposureRepo.addDelta(guarantor.getGuarantor().getId(), guarantor.getChamaId(), -delta.cents());
+    }
+
+    // ===== Reads =====
+
+    public List<LoanGuarantorDTO> getGuarantors(Long loanId) {
+        return guarantorRepo.findWithMembersByLoanId(loanId).stream()
+                .map(LoanGuarantorDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    public GuarantorExposureDTO getExposure(MemberEntity member) {
+        GuarantorExposureDTO dto = new GuarantorExposureDTO();
+        dto.memberId = member.getId();
+        dto.chamaId = member.getChama().getId();
+        dto.savings = creditScoringService.getSavings(member.getId());
+        dto.guaranteed = exposure(member.getId());
+        dto.available = dto.savings.minus(dto.guaranteed).max(Money.ZERO);
+        dto.pledges = guarantorRepo.findByGuarantorId(member.getId()).stream()
+                .map(LoanGuarantorDTO::new)
+                .collect(Collectors.toList());
+        return dto;
+    }
+}
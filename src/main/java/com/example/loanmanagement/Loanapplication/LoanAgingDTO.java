@@ -0,0 +1,55 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AgingBucket;
+import com.example.loanmanagement.Money.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// A chama's active loans by aging bucket, as of the last nightly snapshot
+public class LoanAgingDTO {
+    public Long chamaId;
+    public LocalDate asOf; // null before the first snapshot
+    public List<Bucket> buckets = new ArrayList<>();
+    public long loanCount;
+    public Money outstanding = Money.ZERO;
+    public Money overdue = Money.ZERO;
+    public Money lateFees = Money.ZERO;
+
+    public static class Bucket {
+        public AgingBucket bucket;
+        public long loanCount;
+        public Money outstanding = Money.ZERO;
+        public Money overdue = Money.ZERO;
+        public Money lateFees = Money.ZERO;
+    }
+
+    // Every bucket is listed, empty ones with zeros
+    public LoanAgingDTO(Long chamaId, LocalDate asOf, List<LoanAgingSnapshotEntity> rows) {
+        this.chamaId = chamaId;
+        this.asOf = asOf;
+
+        Map<AgingBucket, Bucket> byBucket = new EnumMap<>(AgingBucket.class);
+        for (AgingBucket bucket : AgingBucket.values()) {
+            Bucket b = new Bucket();
+            b.bucket = bucket;
+            byBucket.put(bucket, b);
+        }
+        for (LoanAgingSnapshotEntity row : rows) {
+            Bucket b = byBucket.get(row.getBucket());
+            b.loanCount = row.getLoanCount();
+            b.outstanding = row.getOutstanding();
+            b.overdue = row.getOverdue();
+            b.lateFees = row.getLateFees();
+
+            loanCount += row.getLoanCount();
+            outstanding = outstanding.plus(row.getOutstanding());
+            overdue = overdue.plus(row.getOverdue());
+            lateFees = lateFees.plus(row.getLateFees());
+        }
+        buckets.addAll(byBucket.values());
+    }
+}
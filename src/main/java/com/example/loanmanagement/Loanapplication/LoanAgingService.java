@@ -0,0 +1,89 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AgingBucket;
+import com.example.loanmanagement.Enum.LoanStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanAgingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanAgingService.class);
+
+    // Loans that carry a balance, as stored in loan_applications.status
+    private static final List<String> ACTIVE_STATUSES = LoanStatus.ACTIVE.stream()
+            .map(Enum::name)
+            .collect(Collectors.toList());
+
+    private final LoanInstallmentRepository installmentRepo;
+    private final LoanAgingSnapshotRepository snapshotRepo;
+
+    // Late fee: dailyRate of the installment's unpaid amount per day past the grace period, up to maxRate of it
+    private final int graceDays;
+    private final double dailyRate;
+    private final double maxRate;
+
+    public LoanAgingService(LoanInstallmentRepository installmentRepo,
+                            LoanAgingSnapshotRepository snapshotRepo,
+                            @Value("${loans.late-fee.grace-days:7}") int graceDays,
+                            @Value("${loans.late-fee.daily-rate:0.001}") double dailyRate,
+                            @Value("${loans.late-fee.max-rate:0.10}") double maxRate) {
+        if (graceDays < 0 || dailyRate < 0 || maxRate < 0) {
+            throw new RuntimeException("Late fee settings must not be negative");
+        }
+        this.installmentRepo = installmentRepo;
+        this.snapshotRepo = snapshotRepo;
+        this.graceDays = graceDays;
+        this.dailyRate = dailyRate;
+        this.maxRate = maxRate;
+    }
+
+    // ✅ Nightly: charge late fees, then snapshot aging with those fees included
+    @Scheduled(cron = "0 45 0 * * ?") // Every day at 12:45 AM
+    @Transactional
+    public void runNightly() {
+        logger.info("Running loan late-fee accrual and aging snapshot...");
+        LocalDate today = LocalDate.now();
+        int charged = accrueLateFees(today);
+        int rows = snapshot(today);
+        logger.info("Late fees updated on {} installments; {} aging rows written for {}", charged, rows, today);
+    }
+
+    @Transactional
+    public int accrueLateFees(LocalDate today) {
+        return installmentRepo.accrueLateFees(today, today.minusDays(graceDays), graceDays, dailyRate, maxRate, ACTIVE_STATUSES);
+    }
+
+    @Transactional
+    public int snapshot(LocalDate today) {
+        snapshotRepo.deleteByAsOf(today);
+        return snapshotRepo.writeSnapshot(today, ACTIVE_STATUSES, AgingBucket.DAYS_1_30.getMaxDaysLate(),
+                AgingBucket.DAYS_31_60.getMaxDaysLate(), AgingBucket.DAYS_61_90.getMaxDaysLate());
+    }
+
+    // Late fee accrued on an installment: what the accrueLateFees statement writes, kept here as its reference form.
+    // Nothing before the grace period ends, then dailyRate of the unpaid amount per day, capped at maxRate of it.
+    public long lateFeeCents(long unpaidCents, long daysLate) {
+        if (unpaidCents <= 0 || daysLate <= graceDays) {
+            return 0;
+        }
+        return Math.round(unpaidCents * Math.min(dailyRate * (daysLate - graceDays), maxRate));
+    }
+
+    // ✅ Dashboard read: the chama's latest snapshot rows
+    public LoanAgingDTO getAging(Long chamaId) {
+        LocalDate asOf = snapshotRepo.findLatestAsOf(chamaId);
+        if (asOf == null) {
+            return new LoanAgingDTO(chamaId, null, List.of());
+        }
+        return new LoanAgingDTO(chamaId, asOf, snapshotRepo.findByChamaIdAndAsOf(chamaId, asOf));
+    }
+}
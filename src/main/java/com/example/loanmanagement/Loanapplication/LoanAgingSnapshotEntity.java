@@ -0,0 +1,52 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AgingBucket;
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Active loans of a chama in one aging bucket on one day; written by the nightly LoanAgingService job
+@Entity
+@Table(name = "loan_aging_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_aging_chama_date_bucket", columnNames = {"chama_id", "as_of", "bucket"}))
+public class LoanAgingSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chama_id", nullable = false)
+    private Long chamaId;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AgingBucket bucket;
+
+    @Column(name = "loan_count", nullable = false)
+    private long loanCount;
+
+    // Schedule balance still owed on these loans
+    @Column(name = "outstanding_cents", nullable = false)
+    private Money outstanding;
+
+    // Part of it already past due
+    @Column(name = "overdue_cents", nullable = false)
+    private Money overdue;
+
+    // Late fees charged and not yet paid
+    @Column(name = "late_fees_cents", nullable = false)
+    private Money lateFees;
+
+    public Long getId() { return id; }
+    public Long getChamaId() { return chamaId; }
+    public LocalDate getAsOf() { return asOf; }
+    public AgingBucket getBucket() { return bucket; }
+    public long getLoanCount() { return loanCount; }
+    public Money getOutstanding() { return outstanding; }
+    public Money getOverdue() { return overdue; }
+    public Money getLateFees() { return lateFees; }
+}
@@ -0,0 +1,54 @@
+package com.example.loanmanagement.Loanapplication;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface LoanAgingSnapshotRepository extends JpaRepository<LoanAgingSnapshotEntity, Long> {
+
+    // ✅ Classify every active loan and write one row per chama and bucket, in one statement.
+    // Bucket bounds are passed in from AgingBucket, so they match AgingBucket.forDaysLate.
+    // Days late come from each loan's oldest unpaid installment (range scan on the installments' due_date, status index).
+    @Modifying
+    @Query(value = "INSERT INTO loan_aging_snapshots " +
+            "(chama_id, as_of, bucket, loan_count, outstanding_cents, overdue_cents, late_fees_cents) " +
+            "SELECT l.chama_id, :today, " +
+            "CASE WHEN o.oldest_due IS NULL THEN 'CURRENT' " +
+            "     WHEN DATEDIFF(:today, o.oldest_due) <= :max1to30 THEN 'DAYS_1_30' " +
+            "     WHEN DATEDIFF(:today, o.oldest_due) <= :max31to60 THEN 'DAYS_31_60' " +
+            "     WHEN DATEDIFF(:today, o.oldest_due) <= :max61to90 THEN 'DAYS_61_90' " +
+            "     ELSE 'DAYS_90_PLUS' END AS aging_bucket, " +
+            "COUNT(*), " +
+            "COALESCE(SUM(l.outstanding_balance_cents), 0), " +
+            "COALESCE(SUM(o.overdue), 0), " +
+            "COALESCE(SUM(o.late_fees), 0) " +
+            "FROM loan_applications l " +
+            "LEFT JOIN (SELECT loan_id, MIN(due_date) AS oldest_due, " +
+            "                  SUM(amount_due_cents - amount_paid_cents) AS overdue, " +
+            "                  SUM(COALESCE(penalty_due_cents, 0) - COALESCE(penalty_paid_cents, 0)) AS late_fees " +
+            "           FROM loan_installments WHERE due_date < :today AND status <> 'PAID' GROUP BY loan_id) o " +
+            "ON o.loan_id = l.id " +
+            "WHERE l.status IN (:statuses) AND l.chama_id IS NOT NULL " +
+            "GROUP BY l.chama_id, aging_bucket",
+            nativeQuery = true)
+    int writeSnapshot(@Param("today") LocalDate today,
+                      @Param("statuses") Collection<String> statuses,
+                      @Param("max1to30") int max1to30,
+                      @Param("max31to60") int max31to60,
+                      @Param("max61to90") int max61to90);
+
+    // A rerun on the same day replaces that day's rows; buckets that emptied since the first run go away
+    @Modifying
+    @Query("DELETE FROM LoanAgingSnapshotEntity s WHERE s.asOf = :asOf")
+    int deleteByAsOf(@Param("asOf") LocalDate asOf);
+
+    @Query("SELECT MAX(s.asOf) FROM LoanAgingSnapshotEntity s WHERE s.chamaId = :chamaId")
+    LocalDate findLatestAsOf(@Param("chamaId") Long chamaId);
+
+    List<LoanAgingSnapshotEntity> findByChamaIdAndAsOf(Long chamaId, LocalDate asOf);
+}
@@ -1,6 +1,10 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Enum.AmortizationMethod;
+import com.example.loanmanagement.Money.Money;
+
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class LoanApplicationDTO {
     public Long id;
@@ -9,19 +13,22 @@ public class LoanApplicationDTO {
     public String fullName;
     public String email;
     public String phone;
-    public Double amount;
+    public Money amount;
     public Integer duration;
     public String purpose;
     public String loanType;
-    public Double salary;
+    public Money salary;
     public String personalLoanInfo;
-    public Double mortgagePropertyValue;
+    public Money mortgagePropertyValue;
     public Double interestRate;
-    public Double totalRepayment;
+    public Money totalRepayment;
+    public AmortizationMethod amortizationMethod; // FLAT when not given
+    public Integer creditScore;
+    public List<LoanGuarantorDTO> guarantors; // members pledging savings against this loan; optional
     public String status;
     public LocalDateTime createdAt;
 
     public String username;
-    public Double remainingBalance;
+    public Money remainingBalance;
 }
 
@@ -1,13 +1,25 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Enum.AmortizationMethod;
+import com.example.loanmanagement.Enum.LoanStatus;
 import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import com.example.loanmanagement.Search.SearchIndexListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "loan_applications")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "loan_applications",
+        indexes = {
+                @Index(name = "idx_loans_status_due", columnList = "status, due_date"),
+                // Admin queue: newest first within a chama, optionally narrowed by status or loan type
+                @Index(name = "idx_loans_chama_date", columnList = "chama_id, application_date, id"),
+                @Index(name = "idx_loans_chama_status_date", columnList = "chama_id, status, application_date, id"),
+                @Index(name = "idx_loans_chama_type_date", columnList = "chama_id, loan_type, application_date, id")
+        })
 public class LoanApplicationEntity {
 
     @Id
@@ -18,19 +30,45 @@ public class LoanApplicationEntity {
     private String email;
     private String phone;
 
-    private Double amount;
+    // Money columns hold cents (see MoneyConverter); the old DOUBLE columns are copied over by MoneyMigration
+    @Column(name = "amount_cents")
+    private Money amount;
     private int duration;
     private String purpose;
     private String loanType;
 
-    private Double salary;
+    @Column(name = "salary_cents")
+    private Money salary;
     private String personalLoanInfo;
-    private Double mortgagePropertyValue;
+    @Column(name = "mortgage_property_value_cents")
+    private Money mortgagePropertyValue;
 
     private Double interestRate;
-    private Double totalRepayment;
+    @Column(name = "total_repayment_cents")
+    private Money totalRepayment;
 
-    private String status;
+    // Credit score of the member when they applied
+    private Integer creditScore;
+
+    // How the installment schedule is built at approval
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private AmortizationMethod amortizationMethod;
+
+    // Running totals kept in step with loan_payments on every payment (see LoanpaymentService)
+    @Column(name = "amount_paid_cents")
+    private Money amountPaid;
+    @Column(name = "outstanding_balance_cents")
+    private Money outstandingBalance;
+
+    // Guards the running totals against concurrent payments
+    @Version
+    private Long version;
+
+    // Moves only along LoanStatus.canTransitionTo; see transitionTo
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private LoanStatus status;
 
     private LocalDate applicationDate;
 
@@ -45,8 +83,13 @@ public class LoanApplicationEntity {
     @JsonIgnore
     private MemberEntity member;
 
+    // Copy of member.chama.id so chama-scoped queries can use the loan's own indexes
+    @Column(name = "chama_id")
+    private Long chamaId;
+
     public LoanApplicationEntity() {
-        this.status = "PENDING";
+        this.amountPaid = Money.ZERO;
+        this.status = LoanStatus.PENDING;
         this.applicationDate = LocalDate.now();
     }
 
@@ -84,11 +127,11 @@ public class LoanApplicationEntity {
         this.phone = phone;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -116,11 +159,11 @@ public class LoanApplicationEntity {
         this.loanType = loanType;
     }
 
-    public Double getSalary() {
+    public Money getSalary() {
         return salary;
     }
 
-    public void setSalary(Double salary) {
+    public void setSalary(Money salary) {
         this.salary = salary;
     }
 
@@ -132,11 +175,11 @@ public class LoanApplicationEntity {
         this.personalLoanInfo = personalLoanInfo;
     }
 
-    public Double getMortgagePropertyValue() {
+    public Money getMortgagePropertyValue() {
         return mortgagePropertyValue;
     }
 
-    public void setMortgagePropertyValue(Double mortgagePropertyValue) {
+    public void setMortgagePropertyValue(Money mortgagePropertyValue) {
         this.mortgagePropertyValue = mortgagePropertyValue;
     }
 
@@ -148,22 +191,72 @@ public class LoanApplicationEntity {
         this.interestRate = interestRate;
     }
 
-    public Double getTotalRepayment() {
+    public Money getTotalRepayment() {
         return totalRepayment;
     }
 
-    public void setTotalRepayment(Double totalRepayment) {
+    public void setTotalRepayment(Money totalRepayment) {
         this.totalRepayment = totalRepayment;
     }
 
-    public String getStatus() {
+    public Integer getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(Integer creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    public AmortizationMethod getAmortizationMethod() {
+        return amortizationMethod;
+    }
+
+    public void setAmortizationMethod(AmortizationMethod amortizationMethod) {
+        this.amortizationMethod = amortizationMethod;
+    }
+
+    public Money getAmountPaid() {
+        return amountPaid;
+    }
+
+    public void setAmountPaid(Money amountPaid) {
+        this.amountPaid = amountPaid;
+    }
+
+    public Money getOutstandingBalance() {
+        return outstandingBalance;
+    }
+
+    public void setOutstandingBalance(Money outstandingBalance) {
+        this.outstandingBalance = outstandingBalance;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LoanStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(LoanStatus status) {
         this.status = status;
     }
 
+    // Validated status change; stamps the approval date when the loan is approved
+    public void transitionTo(LoanStatus next) {
+        if (!status.canTransitionTo(next)) {
+            throw new RuntimeException("Loan cannot move from " + status + " to " + next);
+        }
+        if (next == LoanStatus.REPAID && outstandingBalance != null && outstandingBalance.isPositive()) {
+            throw new RuntimeException("Loan still has an outstanding balance of " + outstandingBalance);
+        }
+        if (next == LoanStatus.APPROVED) {
+            this.approvalDate = LocalDate.now();
+        }
+        this.status = next;
+    }
+
     public LocalDate getApplicationDate() {
         return applicationDate;
     }
@@ -192,5 +285,10 @@ public class LoanApplicationEntity {
 
     // --- member mapping ---
     public MemberEntity getMember() { return member; }
-    public void setMember(MemberEntity member) { this.member = member; }
+    public void setMember(MemberEntity member) {
+        this.member = member;
+        this.chamaId = member != null ? member.getChama().getId() : null;
+    }
+
+    public Long getChamaId() { return chamaId; }
 }
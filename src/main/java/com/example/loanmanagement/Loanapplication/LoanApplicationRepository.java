@@ -1,14 +1,155 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Enum.LoanStatus;
 import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface LoanApplicationRepository extends JpaRepository<LoanApplicationEntity, Long> {
     // Find loans by member (since user can belong to multiple chamas)
+    @EntityGraph(attributePaths = {"member", "member.user"})
     List<LoanApplicationEntity> findByMember(MemberEntity member);
 
-    // Find all loans for a chama
+    // Find all loans for a chama (member and user loaded in the same query for DTO mapping)
+    @EntityGraph(attributePaths = {"member", "member.user"})
     List<LoanApplicationEntity> findByMember_Chama_Id(Long chamaId);
+
+    // One-off seed of the running totals for loans recorded before they were tracked
+    @Modifying
+    @Query(value = "UPDATE loan_applications l " +
+            "LEFT JOIN (SELECT loan_id, SUM(amount_paid_cents - COALESCE(penalty_cents, 0)) AS total FROM loan_payments GROUP BY loan_id) p " +
+            "ON p.loan_id = l.id " +
+            "SET l.amount_paid_cents = COALESCE(p.total, 0), " +
+            "l.outstanding_balance_cents = COALESCE(l.total_repayment_cents, 0) - COALESCE(p.total, 0), " +
+            "l.version = COALESCE(l.version, 0) " +
+            "WHERE l.amount_paid_cents IS NULL OR l.outstanding_balance_cents IS NULL OR l.version IS NULL",
+            nativeQuery = true)
+    int backfillRunningTotals();
+
+    // Loans whose running totals disagree with the payment ledger by even a cent: rows of [loanId, ledgerTotalCents].
+    // Penalties paid are charged on top of the total repayment, so they are left out of the ledger total.
+    @Query(value = "SELECT l.id, COALESCE(SUM(p.amount_paid_cents - COALESCE(p.penalty_cents, 0)), 0) FROM loan_applications l " +
+            "LEFT JOIN loan_payments p ON p.loan_id = l.id " +
+            "GROUP BY l.id, l.amount_paid_cents, l.outstanding_balance_cents, l.total_repayment_cents " +
+            "HAVING COALESCE(l.amount_paid_cents, 0) <> COALESCE(SUM(p.amount_paid_cents - COALESCE(p.penalty_cents, 0)), 0) " +
+            "OR COALESCE(l.outstanding_balance_cents, 0) <> " +
+            "COALESCE(l.total_repayment_cents, 0) - COALESCE(SUM(p.amount_paid_cents - COALESCE(p.penalty_cents, 0)), 0)",
+            nativeQuery = true)
+    List<Object[]> findRunningTotalMismatches();
+
+    // Portfolio of a chama in one pass, amounts in cents: running totals from the loan rows, days late from the oldest unpaid installment
+    @Query(value = "SELECT COUNT(*) AS loanCount, " +
+            "COALESCE(SUM(l.amount_cents), 0) AS totalLent, " +
+            "COALESCE(SUM(l.amount_paid_cents), 0) AS totalRepaid, " +
+            "COALESCE(SUM(l.outstanding_balance_cents), 0) AS outstanding, " +
+            "COALESCE(SUM(CASE WHEN o.oldest_due < :today THEN 1 ELSE 0 END), 0) AS overdueLoanCount, " +
+            "COALESCE(SUM(CASE WHEN o.oldest_due < :today THEN l.outstanding_balance_cents ELSE 0 END), 0) AS overdue, " +
+            "COALESCE(SUM(CASE WHEN o.oldest_due < :par30Cutoff THEN l.outstanding_balance_cents ELSE 0 END), 0) AS par30, " +
+            "COALESCE(SUM(CASE WHEN o.oldest_due < :par60Cutoff THEN l.outstanding_balance_cents ELSE 0 END), 0) AS par60, " +
+            "COALESCE(SUM(CASE WHEN o.oldest_due < :par90Cutoff THEN l.outstanding_balance_cents ELSE 0 END), 0) AS par90 " +
+            "FROM loan_applications l " +
+            "JOIN members m ON m.id = l.member_id " +
+            "LEFT JOIN (SELECT i.loan_id, MIN(i.due_date) AS oldest_due FROM loan_installments i " +
+            "           JOIN loan_applications il ON il.id = i.loan_id JOIN members im ON im.id = il.member_id " +
+            "           WHERE im.chama_id = :chamaId AND i.status <> 'PAID' GROUP BY i.loan_id) o ON o.loan_id = l.id " +
+            "WHERE m.chama_id = :chamaId AND l.status NOT IN ('PENDING', 'REJECTED')",
+            nativeQuery = true)
+    LoanPortfolioTotals getPortfolioTotals(@Param("chamaId") Long chamaId,
+                                           @Param("today") LocalDate today,
+                                           @Param("par30Cutoff") LocalDate par30Cutoff,
+                                           @Param("par60Cutoff") LocalDate par60Cutoff,
+                                           @Param("par90Cutoff") LocalDate par90Cutoff);
+
+    // Chamas with loans in the given statuses, for the platform rollup
+    @Query("SELECT DISTINCT l.member.chama.id FROM LoanApplicationEntity l WHERE l.status IN :statuses")
+    List<Long> findChamaIdsWithLoansIn(@Param("statuses") Collection<LoanStatus> statuses);
+
+    // Loans in the given statuses still owing past their final due date (served by the status, due_date index)
+    @Query("SELECT l FROM LoanApplicationEntity l JOIN FETCH l.member m JOIN FETCH m.user JOIN FETCH m.chama " +
+            "WHERE l.status IN :statuses AND l.dueDate < :cutoff AND l.outstandingBalance > :zero")
+    List<LoanApplicationEntity> findPastDue(@Param("statuses") Collection<LoanStatus> statuses,
+                                            @Param("cutoff") LocalDate cutoff,
+                                            @Param("zero") Money zero);
+
+    // Bulk decisions: all requested loans of a chama in one IN query, with member and user for notifications
+    @EntityGraph(attributePaths = {"member", "member.user"})
+    List<LoanApplicationEntity> findByIdInAndChamaId(Collection<Long> ids, Long chamaId);
+
+    // One-off copy of each loan's chama onto the loan row
+    @Modifying
+    @Query(value = "UPDATE loan_applications l JOIN members m ON m.id = l.member_id " +
+            "SET l.chama_id = m.chama_id WHERE l.chama_id IS NULL",
+            nativeQuery = true)
+    int backfillChamaIds();
+
+    // Admin queue, newest first; the cursor is the (applicationDate, id) of the last row already shown
+    @Query("SELECT l FROM LoanApplicationEntity l JOIN FETCH l.member m JOIN FETCH m.user " +
+            "WHERE l.chamaId = :chamaId " +
+            "AND (:status IS NULL OR l.status = :status) " +
+            "AND (:loanType IS NULL OR l.loanType = :loanType) " +
+            "AND (:fromDate IS NULL OR l.applicationDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR l.applicationDate <= :toDate) " +
+            "AND (:overdueOnly = FALSE OR EXISTS (SELECT i.id FROM LoanInstallmentEntity i " +
+            "     WHERE i.loan = l AND i.dueDate < :today AND i.status <> 'PAID')) " +
+            "AND (:cursorDate IS NULL OR l.applicationDate < :cursorDate " +
+            "     OR (l.applicationDate = :cursorDate AND l.id < :cursorId)) " +
+            "ORDER BY l.applicationDate DESC, l.id DESC")
+    List<LoanApplicationEntity> findQueuePage(@Param("chamaId") Long chamaId,
+                                              @Param("status") LoanStatus status,
+                                              @Param("loanType") String loanType,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("overdueOnly") boolean overdueOnly,
+                                              @Param("today") LocalDate today,
+                                              @Param("cursorDate") LocalDate cursorDate,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable limit);
+
+    // Queue tab counts: loans per status under the same type and date filters, rows of [status, count]
+    @Query("SELECT l.status, COUNT(l) FROM LoanApplicationEntity l " +
+            "WHERE l.chamaId = :chamaId " +
+            "AND (:loanType IS NULL OR l.loanType = :loanType) " +
+            "AND (:fromDate IS NULL OR l.applicationDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR l.applicationDate <= :toDate) " +
+            "GROUP BY l.status")
+    List<Object[]> countQueueByStatus(@Param("chamaId") Long chamaId,
+                                      @Param("loanType") String loanType,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate);
+
+    @Query("SELECT COUNT(l) FROM LoanApplicationEntity l " +
+            "WHERE l.chamaId = :chamaId " +
+            "AND (:loanType IS NULL OR l.loanType = :loanType) " +
+            "AND (:fromDate IS NULL OR l.applicationDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR l.applicationDate <= :toDate) " +
+            "AND EXISTS (SELECT i.id FROM LoanInstallmentEntity i " +
+            "     WHERE i.loan = l AND i.dueDate < :today AND i.status <> 'PAID')")
+    long countQueueOverdue(@Param("chamaId") Long chamaId,
+                           @Param("loanType") String loanType,
+                           @Param("fromDate") LocalDate fromDate,
+                           @Param("toDate") LocalDate toDate,
+                           @Param("today") LocalDate today);
+
+    // Status rows for the given loans in one query; the next due date comes from the loan_id prefix of the installment key
+    @Query("SELECT new com.example.loanmanagement.Loanapplication.LoanStatusDTO(" +
+            "l.id, l.status, l.amount, l.totalRepayment, l.amountPaid, l.outstandingBalance, l.dueDate, " +
+            "(SELECT MIN(i.dueDate) FROM LoanInstallmentEntity i WHERE i.loan = l AND i.status <> 'PAID')) " +
+            "FROM LoanApplicationEntity l WHERE l.id IN :ids")
+    List<LoanStatusDTO> findStatusViews(@Param("ids") Collection<Long> ids);
+
+    // Same rows, limited to loans taken by the given user
+    @Query("SELECT new com.example.loanmanagement.Loanapplication.LoanStatusDTO(" +
+            "l.id, l.status, l.amount, l.totalRepayment, l.amountPaid, l.outstandingBalance, l.dueDate, " +
+            "(SELECT MIN(i.dueDate) FROM LoanInstallmentEntity i WHERE i.loan = l AND i.status <> 'PAID')) " +
+            "FROM LoanApplicationEntity l WHERE l.id IN :ids AND l.member.user.username = :username")
+    List<LoanStatusDTO> findStatusViewsForUser(@Param("ids") Collection<Long> ids, @Param("username") String username);
 }
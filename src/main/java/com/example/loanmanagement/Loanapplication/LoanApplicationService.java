@@ -1,19 +1,37 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Creditscore.CreditAssessmentDTO;
+import com.example.loanmanagement.Creditscore.CreditScoringService;
+import com.example.loanmanagement.Enum.AmortizationMethod;
+import com.example.loanmanagement.Enum.LoanStatus;
 import com.example.loanmanagement.Loanpayment.LoanpaymentService;
 import com.example.loanmanagement.Member.MemberEntity;
 import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
 import com.example.loanmanagement.User.UserEntity;
 import com.example.loanmanagement.User.UserRepository;
 import com.example.loanmanagement.User.EmailService;
-import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Chama.ChamaLiquidityService;
 import com.example.loanmanagement.Chama.ChamaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,12 +39,23 @@ public class LoanApplicationService {
 
     private static final Logger logger = LoggerFactory.getLogger(LoanApplicationService.class);
 
+    private static final int DEFAULT_QUEUE_SIZE = 25;
+    private static final int MAX_QUEUE_SIZE = 100;
+    private static final int MAX_BULK_DECISIONS = 200;
+    private static final int MAX_STATUS_BATCH = 500;
+
     private final LoanApplicationRepository loanRepo;
     private final UserRepository userRepo;
     private final MemberRepository memberRepo;
     private final LoanpaymentService paymentService;
     private final ChamaRepository chamaRepo;
     private final EmailService emailService; // ✅ Added email service
+    private final LoanScheduleService scheduleService;
+    private final LoanPortfolioService portfolioService;
+    private final CreditScoringService creditScoringService;
+    private final ChamaLiquidityService liquidityService;
+    private final GuarantorService guarantorService;
+    private final LoanRatePolicyService rateService;
 
     public LoanApplicationService(
             LoanApplicationRepository loanRepo,
@@ -34,16 +63,29 @@ public class LoanApplicationService {
             MemberRepository memberRepo,
             LoanpaymentService paymentService,
             ChamaRepository chamaRepo,
-            EmailService emailService) {
+            EmailService emailService,
+            LoanScheduleService scheduleService,
+            LoanPortfolioService portfolioService,
+            CreditScoringService creditScoringService,
+            ChamaLiquidityService liquidityService,
+            GuarantorService guarantorService,
+            LoanRatePolicyService rateService) {
         this.loanRepo = loanRepo;
         this.userRepo = userRepo;
         this.memberRepo = memberRepo;
         this.paymentService = paymentService;
         this.chamaRepo = chamaRepo;
         this.emailService = emailService;
+        this.scheduleService = scheduleService;
+        this.portfolioService = portfolioService;
+        this.creditScoringService = creditScoringService;
+        this.liquidityService = liquidityService;
+        this.guarantorService = guarantorService;
+        this.rateService = rateService;
     }
 
     // ✅ Member applies for a loan in a specific chama
+    @Transactional
     public LoanApplicationDTO applyForLoan(LoanApplicationDTO dto, String username, Long chamaId) {
         logger.info("📝 User {} applying for loan in chama {}", username, chamaId);
 
@@ -56,6 +98,17 @@ public class LoanApplicationService {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("User is not a member of this chama"));
 
+        // ✅ Guarantors: each pledge must fit what that member has saved and not yet pledged elsewhere
+        Map<MemberEntity, Money> pledges = guarantorService.validatePledges(dto.guarantors, member, Money.orZero(dto.amount));
+        Money guaranteed = pledges.values().stream().reduce(Money.ZERO, Money::plus);
+
+        // ✅ Eligibility: contribution record, repayment history and existing exposure
+        CreditAssessmentDTO assessment = creditScoringService.assess(member, Money.orZero(dto.amount), guaranteed);
+        if (!assessment.eligible) {
+            throw new RuntimeException("Loan application not eligible: " + String.join("; ", assessment.reasons));
+        }
+        liquidityService.checkCapacity(chamaId, Money.orZero(dto.amount));
+
         LoanApplicationEntity loan = new LoanApplicationEntity();
         loan.setFullName(dto.fullName);
         loan.setEmail(dto.email);
@@ -63,17 +116,22 @@ public class LoanApplicationService {
         loan.setAmount(dto.amount);
         loan.setDuration(dto.duration);
         loan.setPurpose(dto.purpose);
-        loan.setLoanType(dto.loanType);
+        loan.setLoanType(dto.loanType != null ? dto.loanType.trim() : null);
         loan.setSalary(dto.salary);
         loan.setPersonalLoanInfo(dto.personalLoanInfo);
         loan.setMortgagePropertyValue(dto.mortgagePropertyValue);
-        loan.setInterestRate(calculateRate(dto.loanType, dto.duration));
-        loan.setTotalRepayment(calculateRepayment(dto.amount, loan.getInterestRate(), dto.duration));
-        loan.setStatus("PENDING");
+        loan.setInterestRate(rateService.resolveRate(chamaId, dto.loanType, dto.duration, dto.amount));
+        loan.setAmortizationMethod(dto.amortizationMethod != null ? dto.amortizationMethod : AmortizationMethod.FLAT);
+        loan.setTotalRepayment(AmortizationEngine.totalRepayment(
+                dto.amount, loan.getInterestRate(), dto.duration, loan.getAmortizationMethod()));
+        loan.setAmountPaid(Money.ZERO);
+        loan.setOutstandingBalance(loan.getTotalRepayment());
+        loan.setCreditScore(assessment.score);
         loan.setApplicationDate(LocalDate.now());
         loan.setMember(member);
 
         loanRepo.save(loan);
+        guarantorService.pledge(loan, pledges);
 
         // ✅ Send confirmation email
         emailService.sendEmail(
@@ -83,7 +141,9 @@ public class LoanApplicationService {
                         loan.getAmount() + " has been submitted successfully and is currently under review.\n\n- ChamaHub Team"
         );
 
-        return mapToDTO(loan);
+        LoanApplicationDTO result = mapToDTO(loan);
+        result.guarantors = guarantorService.getGuarantors(loan.getId());
+        return result;
     }
 
     // ✅ Get user's own loans in a chama
@@ -109,23 +169,72 @@ public class LoanApplicationService {
                 .collect(Collectors.toList());
     }
 
-    // ✅ Check if user is admin of a chama
-    public boolean isUserAdminOfChama(String username, Long chamaId) {
-        try {
-            UserEntity user = userRepo.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+    // ✅ Admin queue: filtered, newest first, keyset-paginated, with per-status counts
+    public LoanQueuePageDTO getLoanQueue(Long chamaId, String status, String loanType, LocalDate fromDate,
+                                         LocalDate toDate, boolean overdueOnly, String cursor, Integer size) {
+        LoanStatus statusFilter = status != null && !status.isBlank() ? LoanStatus.parse(status) : null;
+        String typeFilter = loanType != null && !loanType.isBlank() ? loanType.trim() : null;
+        int pageSize = size != null ? Math.min(Math.max(size, 1), MAX_QUEUE_SIZE) : DEFAULT_QUEUE_SIZE;
+
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = cursor.split("_", 2);
+                cursorDate = LocalDate.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        List<LoanApplicationEntity> rows = loanRepo.findQueuePage(chamaId, statusFilter, typeFilter, fromDate, toDate,
+                overdueOnly, today, cursorDate, cursorId, PageRequest.of(0, pageSize + 1));
+
+        // One extra row tells us whether another page exists
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            LoanApplicationEntity last = rows.get(pageSize - 1);
+            nextCursor = last.getApplicationDate() + "_" + last.getId();
+        }
 
-            ChamaEntity chama = chamaRepo.findById(chamaId)
-                    .orElseThrow(() -> new RuntimeException("Chama not found"));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (LoanStatus s : LoanStatus.values()) {
+            counts.put(s.name(), 0L);
+        }
+        long all = 0;
+        for (Object[] row : loanRepo.countQueueByStatus(chamaId, typeFilter, fromDate, toDate)) {
+            long count = (Long) row[1];
+            counts.put(((LoanStatus) row[0]).name(), count);
+            all += count;
+        }
+        counts.put("OVERDUE", loanRepo.countQueueOverdue(chamaId, typeFilter, fromDate, toDate, today));
+        counts.put("ALL", all);
 
-            return chama.getCreatedBy().equals(user.getId());
-        } catch (Exception e) {
-            logger.error("❌ Error checking admin status: {}", e.getMessage());
-            return false;
+        List<LoanApplicationDTO> items = rows.stream().map(this::mapToDTO).collect(Collectors.toList());
+        return new LoanQueuePageDTO(items, nextCursor, counts);
+    }
+
+    // ✅ Copy each loan's chama onto the loan row for loans created before the column existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void backfillChamaIds() {
+        int rows = loanRepo.backfillChamaIds();
+        if (rows > 0) {
+            logger.info("Backfilled chama id on {} loans", rows);
         }
     }
 
-    // ✅ Admin approves/rejects loan with notification
+    // ✅ Check if user is admin of a chama (by role or as its creator) in one query
+    public boolean isUserAdminOfChama(String username, Long chamaId) {
+        return memberRepo.isChamaAdmin(username, chamaId);
+    }
+
+    // ✅ Admin moves a loan along its lifecycle (approve, reject, disburse, ...) with notification
+    @Transactional
     public LoanApplicationDTO updateLoanStatus(Long id, String status, String adminUsername, Long chamaId) {
         if (!isUserAdminOfChama(adminUsername, chamaId)) {
             throw new RuntimeException("You are not authorized to modify loans in this chama");
@@ -138,52 +247,204 @@ public class LoanApplicationService {
             throw new RuntimeException("Loan does not belong to the specified chama");
         }
 
-        loan.setStatus(status.toUpperCase());
+        applyTransition(loan, LoanStatus.parse(status), chamaId);
         loanRepo.save(loan);
+        portfolioService.invalidate(chamaId);
 
         // ✅ Notify applicant
-        String subject = "Loan Application " + loan.getStatus();
-        String body = "Hello " + loan.getFullName() + ",\n\nYour loan application (ID: " + loan.getId() +
-                ") has been " + loan.getStatus().toLowerCase() + ".\n\n- ChamaHub Team";
-
-        emailService.sendEmail(loan.getEmail(), subject, body);
+        emailService.sendEmail(loan.getEmail(), decisionSubject(loan), decisionBody(loan));
 
         return mapToDTO(loan);
     }
 
+    // ✅ Admin decides many loans at once: one authorization, one IN query, one transaction, emails after commit
+    @Transactional
+    public BulkLoanDecisionResultDTO bulkUpdateLoanStatus(List<Long> loanIds, String status, String adminUsername, Long chamaId) {
+        if (loanIds == null || loanIds.isEmpty()) {
+            throw new RuntimeException("No loans given");
+        }
+        if (loanIds.size() > MAX_BULK_DECISIONS) {
+            throw new RuntimeException("At most " + MAX_BULK_DECISIONS + " loans can be decided at once");
+        }
+        if (!isUserAdminOfChama(adminUsername, chamaId)) {
+            throw new RuntimeException("You are not authorized to modify loans in this chama");
+        }
+
+        LoanStatus next = LoanStatus.parse(status);
+        BulkLoanDecisionResultDTO result = new BulkLoanDecisionResultDTO(next.name());
+
+        Map<Long, LoanApplicationEntity> loans = loanRepo.findByIdInAndChamaId(loanIds, chamaId).stream()
+                .collect(Collectors.toMap(LoanApplicationEntity::getId, loan -> loan));
+
+        List<LoanApplicationEntity> decided = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(loanIds)) {
+            LoanApplicationEntity loan = loans.get(id);
+            if (loan == null) {
+                result.failed.put(id, "Loan not found in this chama");
+                continue;
+            }
+            LoanStatus previousStatus = loan.getStatus();
+            LocalDate previousApprovalDate = loan.getApprovalDate();
+            try {
+                applyTransition(loan, next, chamaId);
+                decided.add(loan);
+                result.updated.add(id);
+            } catch (RuntimeException e) {
+                // Leave a loan that could not be moved exactly as it was, so the rest of the batch still commits
+                loan.setStatus(previousStatus);
+                loan.setApprovalDate(previousApprovalDate);
+                result.failed.put(id, e.getMessage());
+            }
+        }
+
+        // Dirty loans are flushed as one batched UPDATE at commit (hibernate.jdbc.batch_size)
+        portfolioService.invalidate(chamaId);
+        logger.info("Admin {} set {} loans to {} in chama {} ({} failed)",
+                adminUsername, decided.size(), next, chamaId, result.failed.size());
+
+        // ✅ Notify applicants only once the decisions are committed, without holding up the response
+        List<String[]> notifications = decided.stream()
+                .map(loan -> new String[]{loan.getEmail(), decisionSubject(loan), decisionBody(loan)})
+                .collect(Collectors.toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifications.forEach(n -> emailService.sendEmailAsync(n[0], n[1], n[2]));
+            }
+        });
+
+        return result;
+    }
+
+    // Validated status change plus what each transition brings with it
+    private void applyTransition(LoanApplicationEntity loan, LoanStatus next, Long chamaId) {
+        // Checked up front: a failure inside the transactional schedule/scoring calls would doom the whole batch
+        if (next == LoanStatus.APPROVED && (loan.getAmount() == null || !loan.getAmount().isPositive()
+                || loan.getDuration() < 1 || loan.getInterestRate() == null)) {
+            throw new RuntimeException("Loan " + loan.getId() + " has no valid amount, duration and rate to schedule");
+        }
+        loan.transitionTo(next);
+
+        // ✅ The repayment schedule is fixed once, at approval; it also sets the loan's final due date
+        if (next == LoanStatus.APPROVED) {
+            // First, so a loan the chama cannot fund is refused before anything else is written
+            liquidityService.reserveForLoan(chamaId, loan.getAmount());
+            scheduleService.generateSchedule(loan, loan.getApprovalDate());
+            creditScoringService.recordLoanApproved(loan.getMember().getId(), chamaId, loan.getOutstandingBalance());
+        }
+
+        // ✅ Guarantors of a loan that will never be lent get their pledges back
+        if (next == LoanStatus.REJECTED) {
+            guarantorService.releaseAll(loan);
+        }
+    }
+
+    private String decisionSubject(LoanApplicationEntity loan) {
+        return "Loan Application " + loan.getStatus();
+    }
+
+    private String decisionBody(LoanApplicationEntity loan) {
+        return "Hello " + loan.getFullName() + ",\n\nYour loan application (ID: " + loan.getId() +
+                ") has been " + loan.getStatus().name().toLowerCase() + ".\n\n- ChamaHub Team";
+    }
+
     // ✅ Track loan repayment progress
     public LoanStatusDTO getLoanStatus(Long loanId) {
-        LoanApplicationEntity loan = loanRepo.findById(loanId)
+        return loanRepo.findStatusViews(List.of(loanId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
+    }
+
+    // ✅ Status of many loans at once (dashboards); in the order asked, unknown ids skipped
+    public List<LoanStatusDTO> getLoanStatuses(List<Long> loanIds) {
+        if (loanIds == null || loanIds.isEmpty()) {
+            return List.of();
+        }
+        if (loanIds.size() > MAX_STATUS_BATCH) {
+            throw new RuntimeException("At most " + MAX_STATUS_BATCH + " loans can be looked up at once");
+        }
 
-        double totalPaid = paymentService.getTotalPaidForLoan(loanId);
-        double balance = loan.getTotalRepayment() - totalPaid;
+        return inRequestedOrder(loanIds, loanRepo.findStatusViews(new HashSet<>(loanIds)));
+    }
 
-        // ✅ Optional notification when loan is fully repaid
-        if (balance <= 0) {
-            emailService.sendEmail(
-                    loan.getEmail(),
-                    "🎉 Loan Fully Repaid",
-                    "Hello " + loan.getFullName() + ",\n\nCongratulations! Your loan (ID: " + loanId +
-                            ") has been fully repaid.\n\n- ChamaHub Team"
-            );
+    // ✅ Same lookup for a member's dashboard: loans that are not the caller's own are skipped like unknown ids
+    public List<LoanStatusDTO> getUserLoanStatuses(String username, List<Long> loanIds) {
+        if (loanIds == null || loanIds.isEmpty()) {
+            return List.of();
+        }
+        if (loanIds.size() > MAX_STATUS_BATCH) {
+            throw new RuntimeException("At most " + MAX_STATUS_BATCH + " loans can be looked up at once");
         }
 
-        return new LoanStatusDTO(loan, totalPaid, balance);
+        return inRequestedOrder(loanIds, loanRepo.findStatusViewsForUser(new HashSet<>(loanIds), username));
+    }
+
+    private List<LoanStatusDTO> inRequestedOrder(List<Long> loanIds, List<LoanStatusDTO> statuses) {
+        Map<Long, LoanStatusDTO> byId = statuses.stream()
+                .collect(Collectors.toMap(LoanStatusDTO::getLoanId, s -> s));
+        return loanIds.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // ✅ Guarantors of a loan and what each still has pledged
+    public List<LoanGuarantorDTO> getGuarantors(Long loanId) {
+        if (!loanRepo.existsById(loanId)) {
+            throw new RuntimeException("Loan not found");
+        }
+        return guarantorService.getGuarantors(loanId);
     }
 
-    private double calculateRate(String type, int duration) {
-        return switch (type.toLowerCase()) {
-            case "personal" -> duration > 12 ? 12 : 10;
-            case "business" -> duration > 24 ? 15 : 13;
-            case "mortgage" -> 6;
-            case "auto" -> duration > 24 ? 9 : 7;
-            default -> 10;
-        };
+    // ✅ Member checks what they have pledged for others and how much more they can guarantee
+    public GuarantorExposureDTO getGuarantorExposure(String username, Long chamaId) {
+        UserEntity user = userRepo.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        MemberEntity member = memberRepo.findAllByUser(user).stream()
+                .filter(m -> m.getChama().getId().equals(chamaId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("User is not a member of this chama"));
+
+        return guarantorService.getExposure(member);
+    }
+
+    // ✅ Member checks how much they can borrow before applying
+    public CreditAssessmentDTO assessEligibility(String username, Long chamaId, Money amount) {
+        UserEntity user = userRepo.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        MemberEntity member = memberRepo.findAllByUser(user).stream()
+                .filter(m -> m.getChama().getId().equals(chamaId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("User is not a member of this chama"));
+
+        return creditScoringService.assess(member, amount);
+    }
+
+    // ✅ Installment schedule and next installment due
+    public List<LoanInstallmentDTO> getRepaymentSchedule(Long loanId) {
+        if (!loanRepo.existsById(loanId)) {
+            throw new RuntimeException("Loan not found");
+        }
+        return scheduleService.getSchedule(loanId);
+    }
+
+    public LoanInstallmentDTO getNextInstallment(Long loanId) {
+        return scheduleService.getNextInstallment(loanId);
+    }
+
+    // ✅ Lending exposure and portfolio-at-risk
+    public LoanPortfolioDTO getPortfolio(Long chamaId) {
+        if (!chamaRepo.existsById(chamaId)) {
+            throw new RuntimeException("Chama not found");
+        }
+        return portfolioService.getPortfolio(chamaId);
     }
 
-    private double calculateRepayment(double amount, double rate, int duration) {
-        return amount + (amount * (rate / 100) * (duration / 12));
+    public LoanPortfolioDTO getPlatformPortfolio() {
+        return portfolioService.getPlatformPortfolio();
     }
 
     private LoanApplicationDTO mapToDTO(LoanApplicationEntity entity) {
@@ -201,7 +462,9 @@ public class LoanApplicationService {
         dto.mortgagePropertyValue = entity.getMortgagePropertyValue();
         dto.interestRate = entity.getInterestRate();
         dto.totalRepayment = entity.getTotalRepayment();
-        dto.status = entity.getStatus();
+        dto.amortizationMethod = entity.getAmortizationMethod();
+        dto.creditScore = entity.getCreditScore();
+        dto.status = entity.getStatus().name();
         dto.createdAt = entity.getApplicationDate().atStartOfDay();
 
         if (entity.getMember() != null) {
@@ -210,9 +473,8 @@ public class LoanApplicationService {
             dto.username = entity.getMember().getUser().getUsername();
         }
 
-        double totalPaid = paymentService.getTotalPaidForLoan(entity.getId());
-        double remaining = dto.totalRepayment != null ? dto.totalRepayment - totalPaid : 0.0;
-        dto.remainingBalance = Math.max(remaining, 0.0);
+        // Balance comes from the loan's running total; no payment rows are read
+        dto.remainingBalance = Money.orZero(entity.getOutstandingBalance()).max(Money.ZERO);
 
         return dto;
     }
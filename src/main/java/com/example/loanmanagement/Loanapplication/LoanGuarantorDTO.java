@@ -0,0 +1,25 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+
+public class LoanGuarantorDTO {
+    public Long memberId;      // guarantor's membership in the loan's chama
+    public Money amount;       // pledged from their savings
+
+    // Filled in on the way out
+    public Long loanId;
+    public String fullName;
+    public Money released;
+    public Money outstanding;  // still pledged
+
+    public LoanGuarantorDTO() {}
+
+    public LoanGuarantorDTO(LoanGuarantorEntity guarantor) {
+        this.memberId = guarantor.getGuarantor().getId();
+        this.amount = guarantor.getPledged();
+        this.loanId = guarantor.getLoan().getId();
+        this.fullName = guarantor.getGuarantor().getUser().getFullName();
+        this.released = guarantor.getReleased();
+        this.outstanding = guarantor.getOutstanding();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+// A member's pledge of part of their savings against someone else's loan. The pledge is released as the
+// loan is repaid; what is still pledged counts towards the guarantor's exposure (see GuarantorExposureEntity).
+@Entity
+@Table(name = "loan_guarantors",
+        uniqueConstraints = @UniqueConstraint(name = "uk_guarantors_loan_member", columnNames = {"loan_id", "guarantor_member_id"}),
+        indexes = @Index(name = "idx_guarantors_member", columnList = "guarantor_member_id"))
+public class LoanGuarantorEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "loan_id", nullable = false)
+    @JsonIgnore
+    private LoanApplicationEntity loan;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "guarantor_member_id", nullable = false)
+    @JsonIgnore
+    private MemberEntity guarantor;
+
+    @Column(name = "chama_id", nullable = false)
+    private Long chamaId;
+
+    @Column(name = "pledged_cents", nullable = false)
+    private Money pledged;
+
+    // Part of the pledge already handed back as the loan was repaid
+    @Column(name = "released_cents", nullable = false)
+    private Money released;
+
+    public LoanGuarantorEntity() {}
+
+    public LoanGuarantorEntity(LoanApplicationEntity loan, MemberEntity guarantor, Money pledged) {
+        this.loan = loan;
+        this.guarantor = guarantor;
+        this.chamaId = guarantor.getChama().getId();
+        this.pledged = pledged;
+        this.released = Money.ZERO;
+    }
+
+    public Long getId() { return id; }
+
+    public LoanApplicationEntity getLoan() { return loan; }
+
+    public MemberEntity getGuarantor() { return guarantor; }
+
+    public Long getChamaId() { return chamaId; }
+
+    public Money getPledged() { return pledged; }
+
+    public Money getReleased() { return released; }
+    public void setReleased(Money released) { this.released = released; }
+
+    public Money getOutstanding() {
+        return pledged.minus(released);
+    }
+}
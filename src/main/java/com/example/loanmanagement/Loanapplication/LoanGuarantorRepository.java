@@ -0,0 +1,22 @@
+package com.example.loanmanagement.Loanapplication;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LoanGuarantorRepository extends JpaRepository<LoanGuarantorEntity, Long> {
+
+    List<LoanGuarantorEntity> findByLoanId(Long loanId);
+
+    // Guarantors of a loan with their names, in one query
+    @Query("SELECT g FROM LoanGuarantorEntity g JOIN FETCH g.guarantor m JOIN FETCH m.user " +
+            "WHERE g.loan.id = :loanId ORDER BY g.id")
+    List<LoanGuarantorEntity> findWithMembersByLoanId(@Param("loanId") Long loanId);
+
+    // Pledges a member has made, with the loans and borrowers for display
+    @Query("SELECT g FROM LoanGuarantorEntity g JOIN FETCH g.loan l JOIN FETCH g.guarantor m JOIN FETCH m.user " +
+            "WHERE g.guarantor.id = :memberId ORDER BY l.applicationDate DESC, l.id DESC")
+    List<LoanGuarantorEntity> findByGuarantorId(@Param("memberId") Long memberId);
+}
@@ -0,0 +1,42 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.time.LocalDate;
+
+public class LoanInstallmentDTO {
+    public Long loanId;
+    public int installmentNumber;
+    public LocalDate dueDate;
+    public Money principalDue;
+    public Money interestDue;
+    public Money amountDue;
+    public Money amountPaid;
+    public Money principalPaid;
+    public Money interestPaid;
+    public Money penaltyDue;
+    public Money penaltyPaid;
+    public Money remaining;
+    public String status;
+    public LocalDate paidDate;
+
+    public LoanInstallmentDTO() {
+    }
+
+    public LoanInstallmentDTO(Long loanId, LoanInstallmentEntity entity) {
+        this.loanId = loanId;
+        this.installmentNumber = entity.getInstallmentNumber();
+        this.dueDate = entity.getDueDate();
+        this.principalDue = entity.getPrincipalDue();
+        this.interestDue = entity.getInterestDue();
+        this.amountDue = entity.getAmountDue();
+        this.amountPaid = entity.getAmountPaid();
+        this.principalPaid = entity.getPrincipalPaid();
+        this.interestPaid = entity.getInterestPaid();
+        this.penaltyDue = entity.getPenaltyDue();
+        this.penaltyPaid = entity.getPenaltyPaid();
+        this.remaining = entity.getRemaining();
+        this.status = entity.getStatus();
+        this.paidDate = entity.getPaidDate();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.RepaymentComponent;
+import com.example.loanmanagement.Money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "loan_installments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_installments_loan_number", columnNames = {"loan_id", "installment_number"}),
+        indexes = @Index(name = "idx_installments_due_status", columnList = "due_date, status"))
+public class LoanInstallmentEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "loan_id", nullable = false)
+    @JsonIgnore
+    private LoanApplicationEntity loan;
+
+    @Column(name = "installment_number", nullable = false)
+    private int installmentNumber;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    // Cents; nullable in the schema only so MoneyMigration can fill them for schedules built before the switch
+    @Column(name = "principal_due_cents")
+    private Money principalDue;
+
+    @Column(name = "interest_due_cents")
+    private Money interestDue;
+
+    @Column(name = "amount_due_cents")
+    private Money amountDue;
+
+    @Column(name = "amount_paid_cents")
+    private Money amountPaid;
+
+    // Split of amountPaid, plus late fees charged on this installment and what has been paid of them.
+    // Null only on rows written before the split existed, until LoanScheduleService backfills them.
+    @Column(name = "principal_paid_cents")
+    private Money principalPaid;
+
+    @Column(name = "interest_paid_cents")
+    private Money interestPaid;
+
+    @Column(name = "penalty_due_cents")
+    private Money penaltyDue;
+
+    @Column(name = "penalty_paid_cents")
+    private Money penaltyPaid;
+
+    // PENDING, PARTIAL or PAID
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    private LocalDate paidDate;
+
+    public LoanInstallmentEntity() {
+        this.amountPaid = Money.ZERO;
+        this.principalPaid = Money.ZERO;
+        this.interestPaid = Money.ZERO;
+        this.penaltyDue = Money.ZERO;
+        this.penaltyPaid = Money.ZERO;
+        this.status = "PENDING";
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LoanApplicationEntity getLoan() { return loan; }
+    public void setLoan(LoanApplicationEntity loan) { this.loan = loan; }
+
+    public int getInstallmentNumber() { return installmentNumber; }
+    public void setInstallmentNumber(int installmentNumber) { this.installmentNumber = installmentNumber; }
+
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+
+    public Money getPrincipalDue() { return principalDue; }
+    public void setPrincipalDue(Money principalDue) { this.principalDue = principalDue; }
+
+    public Money getInterestDue() { return interestDue; }
+    public void setInterestDue(Money interestDue) { this.interestDue = interestDue; }
+
+    public Money getAmountDue() { return amountDue; }
+    public void setAmountDue(Money amountDue) { this.amountDue = amountDue; }
+
+    public Money getAmountPaid() { return amountPaid; }
+    public void setAmountPaid(Money amountPaid) { this.amountPaid = amountPaid; }
+
+    public Money getPrincipalPaid() { return principalPaid; }
+    public void setPrincipalPaid(Money principalPaid) { this.principalPaid = principalPaid; }
+
+    public Money getInterestPaid() { return interestPaid; }
+    public void setInterestPaid(Money interestPaid) { this.interestPaid = interestPaid; }
+
+    public Money getPenaltyDue() { return penaltyDue; }
+    public void setPenaltyDue(Money penaltyDue) { this.penaltyDue = penaltyDue; }
+
+    public Money getPenaltyPaid() { return penaltyPaid; }
+    public void setPenaltyPaid(Money penaltyPaid) { this.penaltyPaid = penaltyPaid; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDate getPaidDate() { return paidDate; }
+    public void setPaidDate(LocalDate paidDate) { this.paidDate = paidDate; }
+
+    public Money getRemaining() {
+        return amountDue.minus(amountPaid).max(Money.ZERO);
+    }
+
+    // Cents still owed per component, indexed by RepaymentComponent ordinal
+    public long[] getOwedCents() {
+        long[] owed = new long[RepaymentComponent.values().length];
+        owed[RepaymentComponent.PENALTY.ordinal()] = penaltyDue.cents() - penaltyPaid.cents();
+        owed[RepaymentComponent.INTEREST.ordinal()] = interestDue.cents() - interestPaid.cents();
+        owed[RepaymentComponent.PRINCIPAL.ordinal()] = principalDue.cents() - principalPaid.cents();
+        return owed;
+    }
+
+    // Records cents paid per component; amountPaid keeps counting interest and principal only
+    public void applyPayment(long[] applied) {
+        penaltyPaid = penaltyPaid.plus(Money.ofCents(applied[RepaymentComponent.PENALTY.ordinal()]));
+        interestPaid = interestPaid.plus(Money.ofCents(applied[RepaymentComponent.INTEREST.ordinal()]));
+        principalPaid = principalPaid.plus(Money.ofCents(applied[RepaymentComponent.PRINCIPAL.ordinal()]));
+        amountPaid = interestPaid.plus(principalPaid);
+    }
+
+    public boolean isFullyPaid() {
+        for (long owed : getOwedCents()) {
+            if (owed > 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.LoanStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanInstallmentRepository extends JpaRepository<LoanInstallmentEntity, Long> {
+
+    List<LoanInstallmentEntity> findByLoanIdOrderByInstallmentNumber(Long loanId);
+
+    boolean existsByLoanId(Long loanId);
+
+    // Next installment still owed on a loan
+    Optional<LoanInstallmentEntity> findFirstByLoanIdAndStatusNotOrderByInstallmentNumberAsc(Long loanId, String status);
+
+    // Unpaid installments in payment order, for allocating a repayment
+    @Query("SELECT i FROM LoanInstallmentEntity i WHERE i.loan.id = :loanId AND i.status <> 'PAID' ORDER BY i.installmentNumber")
+    List<LoanInstallmentEntity> findUnpaidByLoanId(@Param("loanId") Long loanId);
+
+    // Reminders: unpaid installments falling due on a day (served by the due_date, status index)
+    @Query("SELECT i FROM LoanInstallmentEntity i JOIN FETCH i.loan l JOIN FETCH l.member m JOIN FETCH m.user " +
+            "WHERE i.dueDate = :dueDate AND i.status IN ('PENDING', 'PARTIAL')")
+    List<LoanInstallmentEntity> findUnpaidDueOn(@Param("dueDate") LocalDate dueDate);
+
+    // Overdue detection: earliest unpaid installment past its due date, one row per loan
+    @Query("SELECT i FROM LoanInstallmentEntity i JOIN FETCH i.loan l JOIN FETCH l.member m JOIN FETCH m.user " +
+            "WHERE i.dueDate < :today AND i.status IN ('PENDING', 'PARTIAL') " +
+            "AND i.installmentNumber = (SELECT MIN(o.installmentNumber) FROM LoanInstallmentEntity o " +
+            "WHERE o.loan = i.loan AND o.dueDate < :today AND o.status IN ('PENDING', 'PARTIAL'))")
+    List<LoanInstallmentEntity> findOldestOverdue(@Param("today") LocalDate today);
+
+    // Loans in the given statuses that were approved before schedules existed
+    @Query("SELECT l FROM LoanApplicationEntity l WHERE l.status IN :statuses " +
+            "AND NOT EXISTS (SELECT i.id FROM LoanInstallmentEntity i WHERE i.loan = l)")
+    List<LoanApplicationEntity> findLoansWithoutSchedule(@Param("statuses") Collection<LoanStatus> statuses);
+
+    // Installments written before repayments were split by component
+    @Query("SELECT i FROM LoanInstallmentEntity i WHERE i.principalPaid IS NULL OR i.interestPaid IS NULL " +
+            "OR i.penaltyDue IS NULL OR i.penaltyPaid IS NULL")
+    List<LoanInstallmentEntity> findWithoutRepaymentSplit();
+
+    // ✅ Late fees in one statement over installments past the grace period (range scan on the due_date, status index).
+    // The fee is the accrued total for the days late, so reruns are idempotent and it never goes down after a payment.
+    @Modifying
+    @Query(value = "UPDATE loan_installments i JOIN loan_applications l ON l.id = i.loan_id " +
+            "SET i.penalty_due_cents = GREATEST(COALESCE(i.penalty_due_cents, 0), " +
+            "    ROUND((i.amount_due_cents - i.amount_paid_cents) * " +
+            "          LEAST(:dailyRate * (DATEDIFF(:today, i.due_date) - :graceDays), :maxRate))) " +
+            "WHERE i.due_date < :cutoff AND i.status <> 'PAID' AND l.status IN (:statuses)",
+            nativeQuery = true)
+    int accrueLateFees(@Param("today") LocalDate today,
+                       @Param("cutoff") LocalDate cutoff,
+                       @Param("graceDays") int graceDays,
+                       @Param("dailyRate") double dailyRate,
+                       @Param("maxRate") double maxRate,
+                       @Param("statuses") Collection<String> statuses);
+}
@@ -0,0 +1,71 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.time.LocalDate;
+
+public class LoanPortfolioDTO {
+    public Long chamaId; // null for the platform-wide rollup
+    public LocalDate asOf;
+    public long loanCount;
+    public Money totalLent = Money.ZERO;
+    public Money totalRepaid = Money.ZERO;
+    public Money outstanding = Money.ZERO;
+    public long overdueLoanCount;
+    public Money overdue = Money.ZERO;
+
+    // Outstanding balance on loans whose oldest unpaid installment is more than 30/60/90 days late
+    public Money par30Amount = Money.ZERO;
+    public Money par60Amount = Money.ZERO;
+    public Money par90Amount = Money.ZERO;
+
+    // The same as a share of the outstanding portfolio (0..1)
+    public double par30;
+    public double par60;
+    public double par90;
+
+    public LoanPortfolioDTO() {
+    }
+
+    public LoanPortfolioDTO(Long chamaId, LocalDate asOf, LoanPortfolioTotals totals) {
+        this.chamaId = chamaId;
+        this.asOf = asOf;
+        this.loanCount = totals.getLoanCount() != null ? totals.getLoanCount() : 0;
+        this.totalLent = cents(totals.getTotalLent());
+        this.totalRepaid = cents(totals.getTotalRepaid());
+        this.outstanding = cents(totals.getOutstanding());
+        this.overdueLoanCount = totals.getOverdueLoanCount() != null ? totals.getOverdueLoanCount() : 0;
+        this.overdue = cents(totals.getOverdue());
+        this.par30Amount = cents(totals.getPar30());
+        this.par60Amount = cents(totals.getPar60());
+        this.par90Amount = cents(totals.getPar90());
+        computeRatios();
+    }
+
+    // Adds another portfolio's amounts into this one (used for the platform rollup)
+    public void add(LoanPortfolioDTO other) {
+        loanCount += other.loanCount;
+        totalLent = totalLent.plus(other.totalLent);
+        totalRepaid = totalRepaid.plus(other.totalRepaid);
+        outstanding = outstanding.plus(other.outstanding);
+        overdueLoanCount += other.overdueLoanCount;
+        overdue = overdue.plus(other.overdue);
+        par30Amount = par30Amount.plus(other.par30Amount);
+        par60Amount = par60Amount.plus(other.par60Amount);
+        par90Amount = par90Amount.plus(other.par90Amount);
+    }
+
+    public void computeRatios() {
+        par30 = ratio(par30Amount);
+        par60 = ratio(par60Amount);
+        par90 = ratio(par90Amount);
+    }
+
+    private double ratio(Money part) {
+        return outstanding.isPositive() ? (double) part.cents() / outstanding.cents() : 0.0;
+    }
+
+    private static Money cents(Long value) {
+        return value != null ? Money.ofCents(value) : Money.ZERO;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.LoanStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanPortfolioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanPortfolioService.class);
+
+    // Chama aggregates computed at once during a platform rollup; kept well below the connection pool size
+    private static final int ROLLUP_THREADS = 4;
+
+    private final LoanApplicationRepository loanRepo;
+
+    // Per-chama portfolio, valid for the day it was computed (days late move on at midnight)
+    private final Map<Long, LoanPortfolioDTO> cache = new ConcurrentHashMap<>();
+
+    private final ExecutorService rollupPool = Executors.newFixedThreadPool(ROLLUP_THREADS);
+
+    public LoanPortfolioService(LoanApplicationRepository loanRepo) {
+        this.loanRepo = loanRepo;
+    }
+
+    // ✅ Portfolio of one chama from a single aggregate query
+    public LoanPortfolioDTO getPortfolio(Long chamaId) {
+        LocalDate today = LocalDate.now();
+        LoanPortfolioDTO cached = cache.get(chamaId);
+        if (cached != null && today.equals(cached.asOf)) {
+            return cached;
+        }
+
+        LoanPortfolioTotals totals = loanRepo.getPortfolioTotals(chamaId, today,
+                today.minusDays(30), today.minusDays(60), today.minusDays(90));
+        LoanPortfolioDTO portfolio = new LoanPortfolioDTO(chamaId, today, totals);
+        cache.put(chamaId, portfolio);
+        return portfolio;
+    }
+
+    // ✅ Platform-wide portfolio: chama aggregates are fetched in parallel, then summed
+    public LoanPortfolioDTO getPlatformPortfolio() {
+        List<Long> chamaIds = loanRepo.findChamaIdsWithLoansIn(LoanStatus.LENT);
+        logger.info("📊 Rolling up loan portfolio across {} chamas", chamaIds.size());
+
+        List<CompletableFuture<LoanPortfolioDTO>> futures = chamaIds.stream()
+                .map(chamaId -> CompletableFuture.supplyAsync(() -> getPortfolio(chamaId), rollupPool))
+                .collect(Collectors.toList());
+
+        LoanPortfolioDTO platform = new LoanPortfolioDTO();
+        platform.asOf = LocalDate.now();
+        futures.stream().map(CompletableFuture::join).forEach(platform::add);
+        platform.computeRatios();
+        return platform;
+    }
+
+    // Evicts now and again after the surrounding transaction commits, so a concurrent read cannot re-cache stale totals
+    public void invalidate(Long chamaId) {
+        if (chamaId == null) return;
+        cache.remove(chamaId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(chamaId);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rollupPool.shutdown();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.loanmanagement.Loanapplication;
+
+// Projection for the portfolio aggregate query; amounts are sums in cents over loans that were lent out
+public interface LoanPortfolioTotals {
+    Long getLoanCount();
+    Long getTotalLent();
+    Long getTotalRepaid();
+    Long getOutstanding();
+    Long getOverdueLoanCount();
+    Long getOverdue();
+    Long getPar30();
+    Long getPar60();
+    Long getPar90();
+}
@@ -0,0 +1,20 @@
+package com.example.loanmanagement.Loanapplication;
+
+import java.util.List;
+import java.util.Map;
+
+public class LoanQueuePageDTO {
+    public List<LoanApplicationDTO> items;
+
+    // Pass back as ?cursor= to fetch the next page; null on the last page
+    public String nextCursor;
+
+    // Loans per status under the type/date filters, plus OVERDUE and ALL
+    public Map<String, Long> counts;
+
+    public LoanQueuePageDTO(List<LoanApplicationDTO> items, String nextCursor, Map<String, Long> counts) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.counts = counts;
+    }
+}
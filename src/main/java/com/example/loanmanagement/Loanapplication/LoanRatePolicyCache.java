@@ -0,0 +1,89 @@
+package com.example.loanmanagement.Loanapplication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compiled rate policies per chama, loaded on first use and dropped whenever the chama's policy is replaced
+@Service
+public class LoanRatePolicyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanRatePolicyCache.class);
+
+    // Upper bound on cached chama policies; least recently used entries are evicted first
+    public static final int MAX_ENTRIES = 1000;
+
+    private final LoanRatePolicyRepository policyRepo;
+
+    private final Map<Long, CompiledRatePolicy> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CompiledRatePolicy> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Bumped on every invalidation so a load that raced with a policy write is not cached
+    private long generation;
+
+    public LoanRatePolicyCache(LoanRatePolicyRepository policyRepo) {
+        this.policyRepo = policyRepo;
+    }
+
+    // Chamas without their own rows get the platform default; that is cached too, so it costs one query per chama
+    public CompiledRatePolicy get(Long chamaId) {
+        long loadGeneration;
+        synchronized (cache) {
+            CompiledRatePolicy cached = cache.get(chamaId);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        CompiledRatePolicy policy = load(chamaId);
+
+        synchronized (cache) {
+            if (loadGeneration == generation) {
+                cache.putIfAbsent(chamaId, policy);
+            }
+        }
+        return policy;
+    }
+
+    // Evicts now and again after the surrounding transaction commits, so readers never re-cache the old policy
+    public void invalidate(Long chamaId) {
+        if (chamaId == null) return;
+        evict(chamaId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(chamaId);
+                }
+            });
+        }
+    }
+
+    private CompiledRatePolicy load(Long chamaId) {
+        List<LoanRatePolicyEntity> policies = policyRepo.findByChamaIdOrderById(chamaId);
+        return policies.isEmpty()
+                ? CompiledRatePolicy.DEFAULT
+                : CompiledRatePolicy.compile(policies, CompiledRatePolicy.DEFAULT);
+    }
+
+    private void evict(Long chamaId) {
+        synchronized (cache) {
+            generation++;
+            if (cache.remove(chamaId) != null) {
+                logger.info("Rate policy cache invalidated for chama {}", chamaId);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+
+public class LoanRatePolicyDTO {
+    public String loanType;      // personal, business, ... or "*" for any type
+    public Integer minDuration;  // months, inclusive; null for no lower bound
+    public Integer maxDuration;  // months, inclusive; null for no upper bound
+    public Money minAmount;
+    public Money maxAmount;
+    public Double interestRate;  // percent
+
+    public LoanRatePolicyDTO() {}
+
+    public LoanRatePolicyDTO(LoanRatePolicyEntity policy) {
+        this.loanType = policy.getLoanType();
+        this.minDuration = policy.getMinDuration();
+        this.maxDuration = policy.getMaxDuration();
+        this.minAmount = policy.getMinAmount();
+        this.maxAmount = policy.getMaxAmount();
+        this.interestRate = policy.getInterestRate();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+import jakarta.persistence.*;
+
+// One interest-rate band of a chama's policy: a loan type (or "*" for any), a duration range in months and an
+// amount range. Open ends are null. Read through LoanRatePolicyCache, never per application.
+@Entity
+@Table(name = "loan_rate_policies",
+        indexes = @Index(name = "idx_rate_policies_chama", columnList = "chama_id"))
+public class LoanRatePolicyEntity {
+
+    public static final String ANY_TYPE = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chama_id", nullable = false)
+    private Long chamaId;
+
+    @Column(name = "loan_type", nullable = false, length = 30)
+    private String loanType;
+
+    // Inclusive bounds
+    @Column(name = "min_duration")
+    private Integer minDuration;
+
+    @Column(name = "max_duration")
+    private Integer maxDuration;
+
+    @Column(name = "min_amount_cents")
+    private Money minAmount;
+
+    @Column(name = "max_amount_cents")
+    private Money maxAmount;
+
+    // Percent, as stored on the loan
+    @Column(nullable = false)
+    private Double interestRate;
+
+    public LoanRatePolicyEntity() {}
+
+    public LoanRatePolicyEntity(Long chamaId, String loanType, Integer minDuration, Integer maxDuration,
+                                Money minAmount, Money maxAmount, Double interestRate) {
+        this.chamaId = chamaId;
+        this.loanType = loanType;
+        this.minDuration = minDuration;
+        this.maxDuration = maxDuration;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.interestRate = interestRate;
+    }
+
+    public Long getId() { return id; }
+
+    public Long getChamaId() { return chamaId; }
+
+    public String getLoanType() { return loanType; }
+
+    public Integer getMinDuration() { return minDuration; }
+
+    public Integer getMaxDuration() { return maxDuration; }
+
+    public Money getMinAmount() { return minAmount; }
+
+    public Money getMaxAmount() { return maxAmount; }
+
+    public Double getInterestRate() { return interestRate; }
+}
@@ -0,0 +1,17 @@
+package com.example.loanmanagement.Loanapplication;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LoanRatePolicyRepository extends JpaRepository<LoanRatePolicyEntity, Long> {
+
+    List<LoanRatePolicyEntity> findByChamaIdOrderById(Long chamaId);
+
+    @Modifying
+    @Query("DELETE FROM LoanRatePolicyEntity p WHERE p.chamaId = :chamaId")
+    int deleteByChamaId(@Param("chamaId") Long chamaId);
+}
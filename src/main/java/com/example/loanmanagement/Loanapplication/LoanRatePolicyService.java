@@ -0,0 +1,85 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanRatePolicyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanRatePolicyService.class);
+
+    public static final int MAX_BANDS = 100;
+    public static final double MAX_RATE = 100;
+
+    private final LoanRatePolicyRepository policyRepo;
+    private final LoanRatePolicyCache policyCache;
+    private final MemberRepository memberRepo;
+
+    public LoanRatePolicyService(LoanRatePolicyRepository policyRepo, LoanRatePolicyCache policyCache,
+                                 MemberRepository memberRepo) {
+        this.policyRepo = policyRepo;
+        this.policyCache = policyCache;
+        this.memberRepo = memberRepo;
+    }
+
+    // ✅ Rate for a new application, from the chama's compiled policy
+    public double resolveRate(Long chamaId, String loanType, int duration, Money amount) {
+        return policyCache.get(chamaId).rateFor(loanType, duration, Money.orZero(amount).cents());
+    }
+
+    // ✅ The chama's own bands; empty means the platform default applies
+    public List<LoanRatePolicyDTO> getPolicies(Long chamaId) {
+        return policyRepo.findByChamaIdOrderById(chamaId).stream()
+                .map(LoanRatePolicyDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    // ✅ Admin replaces the chama's whole policy; an empty list returns it to the platform default
+    @Transactional
+    public List<LoanRatePolicyDTO> replacePolicies(Long chamaId, List<LoanRatePolicyDTO> bands, String adminUsername) {
+        if (!memberRepo.isChamaAdmin(adminUsername, chamaId)) {
+            throw new RuntimeException("You are not authorized to change loan rates in this chama");
+        }
+        List<LoanRatePolicyDTO> requested = bands != null ? bands : List.of();
+        if (requested.size() > MAX_BANDS) {
+            throw new RuntimeException("A rate policy can have at most " + MAX_BANDS + " bands");
+        }
+
+        List<LoanRatePolicyEntity> policies = new ArrayList<>();
+        for (LoanRatePolicyDTO band : requested) {
+            validate(band);
+            policies.add(new LoanRatePolicyEntity(chamaId, CompiledRatePolicy.normalizeType(band.loanType),
+                    band.minDuration, band.maxDuration, band.minAmount, band.maxAmount, band.interestRate));
+        }
+
+        policyRepo.deleteByChamaId(chamaId);
+        policyRepo.saveAll(policies);
+        policyCache.invalidate(chamaId);
+        logger.info("Admin {} set {} rate bands for chama {}", adminUsername, policies.size(), chamaId);
+
+        return policies.stream().map(LoanRatePolicyDTO::new).collect(Collectors.toList());
+    }
+
+    private void validate(LoanRatePolicyDTO band) {
+        if (band.loanType == null || band.loanType.isBlank()) {
+            throw new RuntimeException("Each rate band needs a loan type (or \"" + LoanRatePolicyEntity.ANY_TYPE + "\" for any)");
+        }
+        if (band.interestRate == null || band.interestRate < 0 || band.interestRate > MAX_RATE) {
+            throw new RuntimeException("Interest rate for " + band.loanType + " must be between 0 and " + MAX_RATE);
+        }
+        if (band.minDuration != null && band.maxDuration != null && band.minDuration > band.maxDuration) {
+            throw new RuntimeException("Duration band for " + band.loanType + " has its minimum above its maximum");
+        }
+        if (band.minAmount != null && band.maxAmount != null && band.minAmount.isGreaterThan(band.maxAmount)) {
+            throw new RuntimeException("Amount band for " + band.loanType + " has its minimum above its maximum");
+        }
+    }
+}
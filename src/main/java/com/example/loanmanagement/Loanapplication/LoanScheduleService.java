@@ -0,0 +1,204 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AmortizationMethod;
+import com.example.loanmanagement.Enum.LoanStatus;
+import com.example.loanmanagement.Enum.RepaymentComponent;
+import com.example.loanmanagement.Loanpayment.LoanpaymentEntity;
+import com.example.loanmanagement.Loanpayment.LoanpaymentRepository;
+import com.example.loanmanagement.Money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanScheduleService.class);
+
+    private final LoanInstallmentRepository installmentRepo;
+    private final LoanApplicationRepository loanRepo;
+    private final LoanpaymentRepository paymentRepo;
+    private final RepaymentWaterfall waterfall;
+
+    public LoanScheduleService(LoanInstallmentRepository installmentRepo, LoanApplicationRepository loanRepo,
+                               LoanpaymentRepository paymentRepo,
+                               @Value("${loans.repayment.waterfall:" + RepaymentWaterfall.DEFAULT + "}") String waterfall) {
+        this.installmentRepo = installmentRepo;
+        this.loanRepo = loanRepo;
+        this.paymentRepo = paymentRepo;
+        this.waterfall = RepaymentWaterfall.parse(waterfall);
+        logger.info("Repayment waterfall: {}", this.waterfall.getOrder());
+    }
+
+    // ✅ Generate and persist the installment schedule once, when the loan is approved
+    @Transactional
+    public List<LoanInstallmentEntity> generateSchedule(LoanApplicationEntity loan, LocalDate startDate) {
+        if (installmentRepo.existsByLoanId(loan.getId())) {
+            return installmentRepo.findByLoanIdOrderByInstallmentNumber(loan.getId());
+        }
+
+        List<LoanInstallmentEntity> installments = AmortizationEngine.schedule(
+                loan.getAmount(), loan.getInterestRate(), loan.getDuration(), methodOf(loan), startDate);
+        installments.forEach(installment -> installment.setLoan(loan));
+
+        // Final due date stays on the loan for screens that only show one date
+        loan.setDueDate(installments.get(installments.size() - 1).getDueDate());
+
+        List<LoanInstallmentEntity> saved = installmentRepo.saveAll(installments);
+        logger.info("📅 Generated {} installments for loan {}", saved.size(), loan.getId());
+        return saved;
+    }
+
+    // ✅ Settle a repayment against the oldest unpaid installments first, each one's penalty, interest and
+    // principal in waterfall order; the split and the installments paid off come back in the allocation
+    @Transactional
+    public RepaymentAllocation allocatePayment(Long loanId, Money amount, LocalDate paymentDate) {
+        RepaymentAllocation allocation = new RepaymentAllocation();
+        List<LoanInstallmentEntity> unpaid = installmentRepo.findUnpaidByLoanId(loanId);
+        if (unpaid.isEmpty() && !installmentRepo.existsByLoanId(loanId)) {
+            // No schedule to split against (a loan whose backfill failed): all principal
+            allocation.addPrincipal(amount.cents());
+            return allocation;
+        }
+
+        long left = amount.cents();
+        long penaltyOutstanding = 0;
+        for (LoanInstallmentEntity installment : unpaid) {
+            if (left <= 0) {
+                penaltyOutstanding += installment.getOwedCents()[RepaymentComponent.PENALTY.ordinal()];
+                continue;
+            }
+
+            long[] applied = waterfall.allocate(left, installment.getOwedCents());
+            installment.applyPayment(applied);
+            allocation.add(applied);
+            for (long cents : applied) {
+                left -= cents;
+            }
+
+            if (installment.isFullyPaid()) {
+                installment.setStatus("PAID");
+                installment.setPaidDate(paymentDate);
+                allocation.settle(installment);
+            } else if (installment.getAmountPaid().isPositive() || installment.getPenaltyPaid().isPositive()) {
+                installment.setStatus("PARTIAL");
+            }
+            penaltyOutstanding += installment.getOwedCents()[RepaymentComponent.PENALTY.ordinal()];
+        }
+        allocation.setUnallocatedCents(left);
+        allocation.setPenaltyOutstandingCents(penaltyOutstanding);
+        return allocation;
+    }
+
+    public List<LoanInstallmentDTO> getSchedule(Long loanId) {
+        return installmentRepo.findByLoanIdOrderByInstallmentNumber(loanId).stream()
+                .map(installment -> new LoanInstallmentDTO(loanId, installment))
+                .collect(Collectors.toList());
+    }
+
+    public LoanInstallmentDTO getNextInstallment(Long loanId) {
+        return installmentRepo.findFirstByLoanIdAndStatusNotOrderByInstallmentNumberAsc(loanId, "PAID")
+                .map(installment -> new LoanInstallmentDTO(loanId, installment))
+                .orElseThrow(() -> new RuntimeException("No outstanding installment for loan " + loanId));
+    }
+
+    // ✅ Give loans approved before schedules existed a schedule, with what they already paid applied to it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    @Transactional
+    public void backfillSchedules() {
+        backfillInstallmentSplits();
+
+        List<LoanApplicationEntity> loans = installmentRepo.findLoansWithoutSchedule(LoanStatus.ACTIVE);
+        for (LoanApplicationEntity loan : loans) {
+            try {
+                LocalDate start = loan.getApprovalDate() != null ? loan.getApprovalDate() : loan.getApplicationDate();
+                generateSchedule(loan, start);
+                if (loan.getAmountPaid() != null && loan.getAmountPaid().isPositive()) {
+                    allocatePayment(loan.getId(), loan.getAmountPaid(), LocalDate.now());
+                }
+                loanRepo.save(loan);
+            } catch (RuntimeException e) {
+                logger.error("❌ Could not build schedule for loan {}: {}", loan.getId(), e.getMessage());
+            }
+        }
+        if (!loans.isEmpty()) {
+            logger.info("📅 Backfilled installment schedules for {} loans", loans.size());
+        }
+
+        backfillPaymentSplits();
+    }
+
+    // Installments paid before the split: their amountPaid is divided as the waterfall would have (no penalties then)
+    private void backfillInstallmentSplits() {
+        List<LoanInstallmentEntity> installments = installmentRepo.findWithoutRepaymentSplit();
+        for (LoanInstallmentEntity installment : installments) {
+            installment.setPrincipalPaid(Money.ZERO);
+            installment.setInterestPaid(Money.ZERO);
+            installment.setPenaltyDue(Money.orZero(installment.getPenaltyDue()));
+            installment.setPenaltyPaid(Money.ZERO);
+            long[] applied = waterfall.allocate(installment.getAmountPaid().cents(), installment.getOwedCents());
+            installment.applyPayment(applied);
+        }
+        if (!installments.isEmpty()) {
+            logger.info("📅 Split the amounts paid on {} installments", installments.size());
+        }
+    }
+
+    // Payments recorded before the split: replayed in date order over each loan's schedule as it was at approval
+    private void backfillPaymentSplits() {
+        List<Long> loanIds = paymentRepo.findLoanIdsWithUnsplitPayments();
+        for (Long loanId : loanIds) {
+            List<long[]> owed = installmentRepo.findByLoanIdOrderByInstallmentNumber(loanId).stream()
+                    .map(this::owedAtApproval)
+                    .collect(Collectors.toList());
+
+            int next = 0;
+            for (LoanpaymentEntity payment : paymentRepo.findByLoanIdInPaymentOrder(loanId)) {
+                long left = Money.orZero(payment.getAmountPaid()).cents();
+                long[] split = new long[RepaymentComponent.values().length];
+                while (left > 0 && next < owed.size()) {
+                    long[] applied = waterfall.allocate(left, owed.get(next));
+                    for (int c = 0; c < applied.length; c++) {
+                        owed.get(next)[c] -= applied[c];
+                        split[c] += applied[c];
+                        left -= applied[c];
+                    }
+                    if (left > 0) next++;
+                }
+                split[RepaymentComponent.PRINCIPAL.ordinal()] += left; // beyond the schedule, or no schedule at all
+
+                if (payment.getPrincipalAmount() == null) {
+                    payment.setPenaltyAmount(Money.ofCents(split[RepaymentComponent.PENALTY.ordinal()]));
+                    payment.setInterestAmount(Money.ofCents(split[RepaymentComponent.INTEREST.ordinal()]));
+                    payment.setPrincipalAmount(Money.ofCents(split[RepaymentComponent.PRINCIPAL.ordinal()]));
+                }
+            }
+        }
+        if (!loanIds.isEmpty()) {
+            logger.info("📅 Split the recorded payments of {} loans", loanIds.size());
+        }
+    }
+
+    private long[] owedAtApproval(LoanInstallmentEntity installment) {
+        long[] owed = new long[RepaymentComponent.values().length];
+        owed[RepaymentComponent.PENALTY.ordinal()] = Money.orZero(installment.getPenaltyDue()).cents();
+        owed[RepaymentComponent.INTEREST.ordinal()] = installment.getInterestDue().cents();
+        owed[RepaymentComponent.PRINCIPAL.ordinal()] = installment.getPrincipalDue().cents();
+        return owed;
+    }
+
+    private AmortizationMethod methodOf(LoanApplicationEntity loan) {
+        return loan.getAmortizationMethod() != null ? loan.getAmortizationMethod() : AmortizationMethod.FLAT;
+    }
+}
@@ -1,37 +1,62 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Enum.LoanStatus;
+import com.example.loanmanagement.Money.Money;
+
+import java.time.LocalDate;
+
+// Repayment progress of one loan, read straight from the loan row (see LoanApplicationRepository.findStatusViews)
 public class LoanStatusDTO {
-    private LoanApplicationEntity loan;
-    private double totalPaid;
-    private double outstandingBalance;
+    private Long loanId;
+    private LoanStatus status;
+    private Money amount;
+    private Money totalRepayment;
+    private Money totalPaid;
+    private Money outstandingBalance;
+    private LocalDate dueDate; // final installment
+    private LocalDate nextDueDate; // earliest unpaid installment; null once repaid or before approval
+
+    public LoanStatusDTO(Long loanId, LoanStatus status, Money amount, Money totalRepayment, Money totalPaid,
+                         Money outstandingBalance, LocalDate dueDate, LocalDate nextDueDate) {
+        this.loanId = loanId;
+        this.status = status;
+        this.amount = amount;
+        this.totalRepayment = totalRepayment;
+        this.totalPaid = Money.orZero(totalPaid);
+        this.outstandingBalance = Money.orZero(outstandingBalance);
+        this.dueDate = dueDate;
+        this.nextDueDate = nextDueDate;
+    }
 
-    public LoanStatusDTO(LoanApplicationEntity loan, double totalPaid, double outstandingBalance) {
-        this.loan = loan;
-        this.totalPaid = totalPaid;
-        this.outstandingBalance = outstandingBalance;
+    public Long getLoanId() {
+        return loanId;
     }
 
-    public LoanApplicationEntity getLoan() {
-        return loan;
+    public LoanStatus getStatus() {
+        return status;
     }
 
-    public void setLoan(LoanApplicationEntity loan) {
-        this.loan = loan;
+    public Money getAmount() {
+        return amount;
     }
 
-    public double getTotalPaid() {
-        return totalPaid;
+    public Money getTotalRepayment() {
+        return totalRepayment;
     }
 
-    public void setTotalPaid(double totalPaid) {
-        this.totalPaid = totalPaid;
+    public Money getTotalPaid() {
+        return totalPaid;
     }
 
-    public double getOutstandingBalance() {
+    public Money getOutstandingBalance() {
         return outstandingBalance;
     }
 
-    public void setOutstandingBalance(double outstandingBalance) {
-        this.outstandingBalance = outstandingBalance;
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public LocalDate getNextDueDate() {
+        return nextDueDate;
     }
 }
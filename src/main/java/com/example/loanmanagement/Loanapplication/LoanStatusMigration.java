@@ -0,0 +1,103 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.LoanStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// One-off cleanup of loan_applications.status from the free-text column it used to be (admins could send any
+// string, stored uppercased) to the LoanStatus names the entity now maps. Runs in plain SQL because rows with
+// an unknown or null status cannot be loaded as entities at all. Like MoneyMigration it runs before the web server
+// starts, so no request loads a loan whose status does not map yet.
+@Component
+public class LoanStatusMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanStatusMigration.class);
+
+    // Legacy spellings seen from the old admin endpoint
+    private static final Map<String, LoanStatus> SYNONYMS = Map.ofEntries(
+            Map.entry("APPROVE", LoanStatus.APPROVED),
+            Map.entry("ACCEPTED", LoanStatus.APPROVED),
+            Map.entry("ACTIVE", LoanStatus.DISBURSED),
+            Map.entry("DISBURSE", LoanStatus.DISBURSED),
+            Map.entry("PAID", LoanStatus.REPAID),
+            Map.entry("PAID_OFF", LoanStatus.REPAID),
+            Map.entry("CLEARED", LoanStatus.REPAID),
+            Map.entry("COMPLETED", LoanStatus.REPAID),
+            Map.entry("CLOSED", LoanStatus.REPAID),
+            Map.entry("REJECT", LoanStatus.REJECTED),
+            Map.entry("DECLINED", LoanStatus.REJECTED),
+            Map.entry("DENIED", LoanStatus.REJECTED),
+            Map.entry("CANCELLED", LoanStatus.REJECTED),
+            Map.entry("CANCELED", LoanStatus.REJECTED),
+            Map.entry("DEFAULT", LoanStatus.DEFAULTED),
+            Map.entry("SUBMITTED", LoanStatus.PENDING),
+            Map.entry("PROCESSING", LoanStatus.PENDING)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoanStatusMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateLegacyStatuses();
+    }
+
+    public void migrateLegacyStatuses() {
+        Integer tables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'loan_applications'",
+                Integer.class);
+        if (tables == null || tables == 0) return;
+
+        // DISTINCT and = follow the column collation, so each value covers its case and trailing-space variants;
+        // BINARY skips rows already holding the exact enum name
+        List<String> values = jdbcTemplate.queryForList(
+                "SELECT DISTINCT status FROM loan_applications WHERE status IS NOT NULL", String.class);
+        for (String value : values) {
+            LoanStatus status = fromLegacy(value);
+            if (status == null) continue;
+            int rows = jdbcTemplate.update(
+                    "UPDATE loan_applications SET status = ? WHERE status = ? AND BINARY status <> ?",
+                    status.name(), value, status.name());
+            if (rows > 0) {
+                logger.info("Mapped {} loans with status '{}' to {}", rows, value, status);
+            }
+        }
+
+        // Whatever is left is unmappable: report each row, then park it where it can be handled by hand.
+        // Loans that were never approved go back to the queue; approved ones stay active so their balance is still collected.
+        List<String> valid = Arrays.stream(LoanStatus.values()).map(Enum::name).toList();
+        String placeholders = String.join(",", Collections.nCopies(valid.size(), "?"));
+        List<Map<String, Object>> unmapped = jdbcTemplate.queryForList(
+                "SELECT id, status, approval_date FROM loan_applications WHERE status IS NULL OR BINARY status NOT IN (" +
+                        placeholders + ")", valid.toArray());
+        if (unmapped.isEmpty()) return;
+
+        for (Map<String, Object> row : unmapped) {
+            LoanStatus parked = row.get("approval_date") != null ? LoanStatus.APPROVED : LoanStatus.PENDING;
+            logger.warn("Loan {} has unknown status '{}'; setting it to {} for review", row.get("id"), row.get("status"), parked);
+            jdbcTemplate.update("UPDATE loan_applications SET status = ? WHERE id = ?", parked.name(), row.get("id"));
+        }
+        logger.warn("{} loans had an unmappable status and need review", unmapped.size());
+    }
+
+    // LoanStatus for a stored legacy value, or null when it cannot be mapped
+    static LoanStatus fromLegacy(String value) {
+        if (value == null || value.isBlank()) return null;
+        String key = value.trim().toUpperCase().replace(' ', '_').replace('-', '_');
+        for (LoanStatus status : LoanStatus.values()) {
+            if (status.name().equals(key)) return status;
+        }
+        return SYNONYMS.get(key);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.RepaymentComponent;
+import com.example.loanmanagement.Money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// How one repayment was split over a loan's schedule
+public class RepaymentAllocation {
+    private long penaltyCents;
+    private long interestCents;
+    private long principalCents;
+    private long unallocatedCents; // more than the schedule still owes
+    private long penaltyOutstandingCents; // late fees still owed on the schedule after this repayment
+    private final List<LoanInstallmentEntity> settled = new ArrayList<>();
+
+    void add(long[] applied) {
+        penaltyCents += applied[RepaymentComponent.PENALTY.ordinal()];
+        interestCents += applied[RepaymentComponent.INTEREST.ordinal()];
+        principalCents += applied[RepaymentComponent.PRINCIPAL.ordinal()];
+    }
+
+    void addPrincipal(long cents) {
+        principalCents += cents;
+    }
+
+    void setUnallocatedCents(long unallocatedCents) {
+        this.unallocatedCents = unallocatedCents;
+    }
+
+    void setPenaltyOutstandingCents(long penaltyOutstandingCents) {
+        this.penaltyOutstandingCents = penaltyOutstandingCents;
+    }
+
+    void settle(LoanInstallmentEntity installment) {
+        settled.add(installment);
+    }
+
+    public Money getPenalty() { return Money.ofCents(penaltyCents); }
+    public Money getInterest() { return Money.ofCents(interestCents); }
+    public Money getPrincipal() { return Money.ofCents(principalCents); }
+
+    // The part that counts against the loan's total repayment (penalties are charged on top of it)
+    public Money getScheduled() { return Money.ofCents(interestCents + principalCents); }
+
+    public long getUnallocatedCents() { return unallocatedCents; }
+
+    // Penalties sit outside the total repayment, so a loan can have its scheduled amount covered and still owe these
+    public Money getPenaltyOutstanding() { return Money.ofCents(penaltyOutstandingCents); }
+
+    // Installments this repayment paid off
+    public List<LoanInstallmentEntity> getSettled() { return settled; }
+}
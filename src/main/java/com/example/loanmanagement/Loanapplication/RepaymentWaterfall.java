@@ -0,0 +1,54 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.RepaymentComponent;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+// Order in which a repayment settles an installment's penalty, interest and principal, e.g. "PENALTY,INTEREST,PRINCIPAL"
+public final class RepaymentWaterfall {
+
+    public static final String DEFAULT = "PENALTY,INTEREST,PRINCIPAL";
+
+    private final List<RepaymentComponent> order;
+
+    private RepaymentWaterfall(List<RepaymentComponent> order) {
+        this.order = List.copyOf(order);
+    }
+
+    // Every component must appear exactly once
+    public static RepaymentWaterfall parse(String spec) {
+        List<RepaymentComponent> order = new ArrayList<>();
+        for (String part : (spec == null || spec.isBlank() ? DEFAULT : spec).split(",")) {
+            try {
+                order.add(RepaymentComponent.valueOf(part.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown repayment component: " + part.trim());
+            }
+        }
+        if (order.size() != RepaymentComponent.values().length || !EnumSet.copyOf(order).equals(EnumSet.allOf(RepaymentComponent.class))) {
+            throw new RuntimeException("Repayment waterfall must list " + DEFAULT.replace(",", ", ") + " once each, got: " + spec);
+        }
+        return new RepaymentWaterfall(order);
+    }
+
+    public List<RepaymentComponent> getOrder() {
+        return order;
+    }
+
+    // Fills what is owed per component (cents, indexed by ordinal) in waterfall order from up to `available` cents;
+    // returns the cents applied per component
+    public long[] allocate(long available, long[] owed) {
+        long[] applied = new long[owed.length];
+        long left = available;
+        for (RepaymentComponent component : order) {
+            if (left <= 0) break;
+            long take = Math.min(left, Math.max(owed[component.ordinal()], 0));
+            applied[component.ordinal()] = take;
+            left -= take;
+        }
+        return applied;
+    }
+}
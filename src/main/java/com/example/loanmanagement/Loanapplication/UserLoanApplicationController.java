@@ -1,5 +1,7 @@
 package com.example.loanmanagement.Loanapplication;
 
+import com.example.loanmanagement.Creditscore.CreditAssessmentDTO;
+import com.example.loanmanagement.Money.Money;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -7,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -83,4 +86,107 @@ public class UserLoanApplicationController {
             return ResponseEntity.status(400).body("Error: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // ✅ User dashboard fetches the status of several of their own loans: ?ids=1,2,3
+    @GetMapping("/loan-status")
+    public ResponseEntity<?> getUserLoanStatuses(
+            @RequestParam List<Long> ids,
+            Authentication auth
+    ) {
+        String username = auth.getName();
+
+        if (username == null) {
+            logger.error("❌ Username not found in authentication");
+            return ResponseEntity.status(401).body("User authentication failed");
+        }
+
+        try {
+            List<LoanStatusDTO> statuses = loanService.getUserLoanStatuses(username, ids);
+            return ResponseEntity.ok(statuses);
+        } catch (RuntimeException e) {
+            logger.error("❌ Error fetching loan statuses: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ User views the installment schedule of a loan
+    @GetMapping("/{loanId}/schedule")
+    public ResponseEntity<?> getRepaymentSchedule(@PathVariable Long loanId) {
+        try {
+            List<LoanInstallmentDTO> schedule = loanService.getRepaymentSchedule(loanId);
+            return ResponseEntity.ok(schedule);
+        } catch (RuntimeException e) {
+            logger.error("❌ Error fetching repayment schedule: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ User checks the next installment due
+    @GetMapping("/{loanId}/next-installment")
+    public ResponseEntity<?> getNextInstallment(@PathVariable Long loanId) {
+        try {
+            LoanInstallmentDTO installment = loanService.getNextInstallment(loanId);
+            return ResponseEntity.ok(installment);
+        } catch (RuntimeException e) {
+            logger.error("❌ Error fetching next installment: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ User views the guarantors on a loan
+    @GetMapping("/{loanId}/guarantors")
+    public ResponseEntity<?> getGuarantors(@PathVariable Long loanId) {
+        try {
+            List<LoanGuarantorDTO> guarantors = loanService.getGuarantors(loanId);
+            return ResponseEntity.ok(guarantors);
+        } catch (RuntimeException e) {
+            logger.error("❌ Error fetching loan guarantors: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ User checks what they have guaranteed for others and how much more they can pledge
+    @GetMapping("/guarantees")
+    public ResponseEntity<?> getMyGuarantees(
+            @RequestParam Long chamaId,
+            Authentication auth
+    ) {
+        String username = auth.getName();
+
+        if (username == null) {
+            logger.error("❌ Username not found in authentication");
+            return ResponseEntity.status(401).body("User authentication failed");
+        }
+
+        try {
+            GuarantorExposureDTO exposure = loanService.getGuarantorExposure(username, chamaId);
+            return ResponseEntity.ok(exposure);
+        } catch (RuntimeException e) {
+            logger.error("❌ Error fetching guarantees: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ User checks eligibility and borrowing limit before applying
+    @GetMapping("/eligibility")
+    public ResponseEntity<?> checkEligibility(
+            @RequestParam Long chamaId,
+            @RequestParam(defaultValue = "0") BigDecimal amount,
+            Authentication auth
+    ) {
+        String username = auth.getName();
+
+        if (username == null) {
+            logger.error("❌ Username not found in authentication");
+            return ResponseEntity.status(401).body("User authentication failed");
+        }
+
+        try {
+            CreditAssessmentDTO assessment = loanService.assessEligibility(username, chamaId, Money.of(amount));
+            return ResponseEntity.ok(assessment);
+        } catch (RuntimeException e) {
+            logger.error("❌ Error checking loan eligibility: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+}
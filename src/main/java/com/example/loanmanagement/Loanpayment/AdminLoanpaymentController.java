@@ -3,12 +3,14 @@ package com.example.loanmanagement.Loanpayment;
 import com.example.loanmanagement.User.UserEntity;
 import com.example.loanmanagement.User.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -108,4 +110,26 @@ public class AdminLoanpaymentController {
             return ResponseEntity.status(400).body("Error: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Admin views what repayments went to penalties, interest and principal (GET /api/admin/payments/repayment-report?chamaId=X&from=&to=)
+    @GetMapping("/repayment-report")
+    public ResponseEntity<?> getRepaymentReport(
+            @RequestParam Long chamaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth
+    ) {
+        String username = auth.getName();
+        if (username == null) {
+            return ResponseEntity.status(401).body("Admin authentication failed");
+        }
+
+        try {
+            LoanRepaymentReportDTO report = paymentService.getRepaymentReportWithAuth(chamaId, username, from, to);
+            return ResponseEntity.ok(report);
+        } catch (RuntimeException e) {
+            logger.error("Error building repayment report: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.loanmanagement.Loanpayment;
+
+import com.example.loanmanagement.Money.Money;
+
+import java.time.LocalDate;
+
+// What a chama's loan repayments over a period were allocated to; interest and penalties are income
+public class LoanRepaymentReportDTO {
+    public Long chamaId;
+    public LocalDate from;
+    public LocalDate to;
+    public long paymentCount;
+    public Money penalty;
+    public Money interest;
+    public Money principal;
+    public Money income;
+    public Money total;
+
+    public LoanRepaymentReportDTO(Long chamaId, LocalDate from, LocalDate to, LoanRepaymentTotals totals) {
+        this.chamaId = chamaId;
+        this.from = from;
+        this.to = to;
+        this.paymentCount = totals.getPaymentCount() != null ? totals.getPaymentCount() : 0;
+        this.penalty = cents(totals.getPenalty());
+        this.interest = cents(totals.getInterest());
+        this.principal = cents(totals.getPrincipal());
+        this.income = penalty.plus(interest);
+        this.total = income.plus(principal);
+    }
+
+    private static Money cents(Long cents) {
+        return Money.ofCents(cents != null ? cents : 0);
+    }
+}
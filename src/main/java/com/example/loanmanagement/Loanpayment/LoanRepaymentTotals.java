@@ -0,0 +1,9 @@
+package com.example.loanmanagement.Loanpayment;
+
+// Projection for the repayment report query; amounts are sums in cents
+public interface LoanRepaymentTotals {
+    Long getPaymentCount();
+    Long getPenalty();
+    Long getInterest();
+    Long getPrincipal();
+}
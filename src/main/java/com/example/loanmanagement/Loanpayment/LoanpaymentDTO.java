@@ -1,18 +1,25 @@
 package com.example.loanmanagement.Loanpayment;
 
+import com.example.loanmanagement.Money.Money;
+
 import java.time.LocalDate;
 
 public class LoanpaymentDTO {
 
     private Long loanId;
     private Long paidByUserId;
-    private Double amountPaid;
+    private Money amountPaid;
     private boolean paidByAdmin;
     private LocalDate paymentDate;
 
+    // Allocation of amountPaid; filled from the saved payment, ignored on input
+    private Money penaltyAmount;
+    private Money interestAmount;
+    private Money principalAmount;
+
     public LoanpaymentDTO() {}
 
-    public LoanpaymentDTO(Long loanId, Long paidByUserId, Double amountPaid, boolean paidByAdmin, LocalDate paymentDate) {
+    public LoanpaymentDTO(Long loanId, Long paidByUserId, Money amountPaid, boolean paidByAdmin, LocalDate paymentDate) {
         this.loanId = loanId;
         this.paidByUserId = paidByUserId;
         this.amountPaid = amountPaid;
@@ -27,6 +34,9 @@ public class LoanpaymentDTO {
         this.amountPaid = entity.getAmountPaid();
         this.paidByAdmin = entity.isPaidByAdmin();
         this.paymentDate = entity.getPaymentDate();
+        this.penaltyAmount = entity.getPenaltyAmount();
+        this.interestAmount = entity.getInterestAmount();
+        this.principalAmount = entity.getPrincipalAmount();
     }
 
     // --- Getters and Setters ---
@@ -36,12 +46,21 @@ public class LoanpaymentDTO {
     public Long getPaidByUserId() { return paidByUserId; }
     public void setPaidByUserId(Long paidByUserId) { this.paidByUserId = paidByUserId; }
 
-    public Double getAmountPaid() { return amountPaid; }
-    public void setAmountPaid(Double amountPaid) { this.amountPaid = amountPaid; }
+    public Money getAmountPaid() { return amountPaid; }
+    public void setAmountPaid(Money amountPaid) { this.amountPaid = amountPaid; }
 
     public boolean isPaidByAdmin() { return paidByAdmin; }
     public void setPaidByAdmin(boolean paidByAdmin) { this.paidByAdmin = paidByAdmin; }
 
     public LocalDate getPaymentDate() { return paymentDate; }
     public void setPaymentDate(LocalDate paymentDate) { this.paymentDate = paymentDate; }
+
+    public Money getPenaltyAmount() { return penaltyAmount; }
+    public void setPenaltyAmount(Money penaltyAmount) { this.penaltyAmount = penaltyAmount; }
+
+    public Money getInterestAmount() { return interestAmount; }
+    public void setInterestAmount(Money interestAmount) { this.interestAmount = interestAmount; }
+
+    public Money getPrincipalAmount() { return principalAmount; }
+    public void setPrincipalAmount(Money principalAmount) { this.principalAmount = principalAmount; }
 }
@@ -1,6 +1,7 @@
 package com.example.loanmanagement.Loanpayment;
 
 import com.example.loanmanagement.Loanapplication.LoanApplicationEntity;
+import com.example.loanmanagement.Money.Money;
 import com.example.loanmanagement.User.UserEntity;
 import jakarta.persistence.*;
 
@@ -24,9 +25,20 @@ public class LoanpaymentEntity {
     @JoinColumn(name = "paid_by", nullable = false)
     private UserEntity paidBy;
 
-    // Payment amount
-    @Column(nullable = false)
-    private Double amountPaid;
+    // Payment amount in cents; nullable in the schema only so MoneyMigration can fill it for older rows
+    @Column(name = "amount_paid_cents")
+    private Money amountPaid;
+
+    // How amountPaid was allocated (see RepaymentWaterfall), so income and principal reports are column sums.
+    // Null only on payments recorded before the split existed, until LoanScheduleService backfills them.
+    @Column(name = "penalty_cents")
+    private Money penaltyAmount;
+
+    @Column(name = "interest_cents")
+    private Money interestAmount;
+
+    @Column(name = "principal_cents")
+    private Money principalAmount;
 
     // Date the payment was made
     @Column(nullable = false)
@@ -50,8 +62,17 @@ public class LoanpaymentEntity {
     public UserEntity getPaidBy() { return paidBy; }
     public void setPaidBy(UserEntity paidBy) { this.paidBy = paidBy; }
 
-    public Double getAmountPaid() { return amountPaid; }
-    public void setAmountPaid(Double amountPaid) { this.amountPaid = amountPaid; }
+    public Money getAmountPaid() { return amountPaid; }
+    public void setAmountPaid(Money amountPaid) { this.amountPaid = amountPaid; }
+
+    public Money getPenaltyAmount() { return penaltyAmount; }
+    public void setPenaltyAmount(Money penaltyAmount) { this.penaltyAmount = penaltyAmount; }
+
+    public Money getInterestAmount() { return interestAmount; }
+    public void setInterestAmount(Money interestAmount) { this.interestAmount = interestAmount; }
+
+    public Money getPrincipalAmount() { return principalAmount; }
+    public void setPrincipalAmount(Money principalAmount) { this.principalAmount = principalAmount; }
 
     public LocalDate getPaymentDate() { return paymentDate; }
     public void setPaymentDate(LocalDate paymentDate) { this.paymentDate = paymentDate; }
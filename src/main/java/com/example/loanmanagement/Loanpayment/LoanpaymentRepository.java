@@ -3,7 +3,10 @@ package com.example.loanmanagement.Loanpayment;
 import com.example.loanmanagement.Loanapplication.LoanApplicationEntity;
 import com.example.loanmanagement.User.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface LoanpaymentRepository extends JpaRepository<LoanpaymentEntity, Long> {
@@ -12,4 +15,28 @@ public interface LoanpaymentRepository extends JpaRepository<LoanpaymentEntity,
 
     // ✅ New chama-aware query
     List<LoanpaymentEntity> findByLoan_Member_Chama_Id(Long chamaId);
+
+    // ✅ Interest and principal repaid on one loan according to the ledger, in cents (used to reconcile the running totals)
+    @Query(value = "SELECT COALESCE(SUM(amount_paid_cents - COALESCE(penalty_cents, 0)), 0) FROM loan_payments WHERE loan_id = :loanId",
+            nativeQuery = true)
+    long sumRepaidCentsByLoanId(@Param("loanId") Long loanId);
+
+    // ✅ Repayment split of a chama's payments over a date range, in cents
+    @Query(value = "SELECT COUNT(*) AS paymentCount, " +
+            "COALESCE(SUM(p.penalty_cents), 0) AS penalty, " +
+            "COALESCE(SUM(p.interest_cents), 0) AS interest, " +
+            "COALESCE(SUM(p.principal_cents), 0) AS principal " +
+            "FROM loan_payments p JOIN loan_applications l ON l.id = p.loan_id " +
+            "WHERE l.chama_id = :chamaId AND p.payment_date BETWEEN :fromDate AND :toDate",
+            nativeQuery = true)
+    LoanRepaymentTotals getRepaymentTotals(@Param("chamaId") Long chamaId,
+                                           @Param("fromDate") LocalDate fromDate,
+                                           @Param("toDate") LocalDate toDate);
+
+    // Loans with payments recorded before payments were split by component
+    @Query("SELECT DISTINCT p.loan.id FROM LoanpaymentEntity p WHERE p.principalAmount IS NULL")
+    List<Long> findLoanIdsWithUnsplitPayments();
+
+    @Query("SELECT p FROM LoanpaymentEntity p WHERE p.loan.id = :loanId ORDER BY p.paymentDate, p.id")
+    List<LoanpaymentEntity> findByLoanIdInPaymentOrder(@Param("loanId") Long loanId);
 }
@@ -1,5 +1,6 @@
 package com.example.loanmanagement.Loanpayment;
 
+import com.example.loanmanagement.Money.Money;
 import com.example.loanmanagement.User.UserEntity;
 import com.example.loanmanagement.User.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -122,7 +123,7 @@ public class UserLoanpaymentController {
         }
 
         try {
-            double totalPaid = paymentService.getTotalPaidForLoanWithAuth(loanId, username, chamaId);
+            Money totalPaid = paymentService.getTotalPaidForLoanWithAuth(loanId, username, chamaId);
             return ResponseEntity.ok(totalPaid);
         } catch (RuntimeException e) {
             logger.error("Error fetching total paid: {}", e.getMessage());
@@ -143,7 +144,7 @@ public class UserLoanpaymentController {
         }
 
         try {
-            double balance = paymentService.getOutstandingBalanceWithAuth(loanId, username, chamaId);
+            Money balance = paymentService.getOutstandingBalanceWithAuth(loanId, username, chamaId);
             return ResponseEntity.ok(balance);
         } catch (RuntimeException e) {
             logger.error("Error fetching outstanding balance: {}", e.getMessage());
@@ -2,6 +2,7 @@ package com.example.loanmanagement.Member;
 
 import com.example.loanmanagement.Chama.ChamaEntity;
 import com.example.loanmanagement.Enum.ChamaRole;
+import com.example.loanmanagement.Search.SearchIndexListener;
 import com.example.loanmanagement.User.UserEntity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -10,6 +11,7 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "members")
 public class MemberEntity {
 
@@ -27,6 +27,10 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long> {
     @Query("SELECT m FROM MemberEntity m WHERE m.chama.id = :chamaId ORDER BY m.id")
     List<MemberEntity> findByChamaIdOrderById(@Param("chamaId") Long chamaId);
 
+    // Fetch all members of a specific chama with their users loaded, ordered by ID
+    @Query("SELECT m FROM MemberEntity m JOIN FETCH m.user WHERE m.chama.id = :chamaId ORDER BY m.id")
+    List<MemberEntity> findByChamaIdWithUserOrderById(@Param("chamaId") Long chamaId);
+
     // Count total members in a chama
     @Query("SELECT COUNT(m) FROM MemberEntity m WHERE m.chama.id = :chamaId")
     Integer countMembersByChamaId(@Param("chamaId") Long chamaId);
@@ -36,4 +40,9 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long> {
 
     // Fetch a member by user ID
     Optional<MemberEntity> findByUser_Id(Long userId);
+
+    // Is the user an admin of the chama, either by role or as its creator
+    @Query("SELECT COUNT(m) > 0 FROM MemberEntity m WHERE m.user.username = :username AND m.chama.id = :chamaId " +
+            "AND (m.chamaRole = com.example.loanmanagement.Enum.ChamaRole.ADMIN OR m.chama.createdBy = m.user)")
+    boolean isChamaAdmin(@Param("username") String username, @Param("chamaId") Long chamaId);
 }
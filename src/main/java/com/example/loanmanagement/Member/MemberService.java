@@ -2,6 +2,7 @@ package com.example.loanmanagement.Member;
 
 import com.example.loanmanagement.Chama.ChamaEntity;
 import com.example.loanmanagement.Chama.ChamaRepository;
+import com.example.loanmanagement.Contribution.PayoutRotationService;
 import com.example.loanmanagement.Enum.ChamaRole;
 import com.example.loanmanagement.User.UserEntity;
 import com.example.loanmanagement.User.UserRepository;
@@ -17,13 +18,16 @@ public class MemberService {
     private final MemberRepository memberRepository;
     private final UserRepository userRepository;
     private final ChamaRepository chamaRepository;
+    private final PayoutRotationService payoutRotationService;
 
     public MemberService(MemberRepository memberRepository,
                          UserRepository userRepository,
-                         ChamaRepository chamaRepository) {
+                         ChamaRepository chamaRepository,
+                         PayoutRotationService payoutRotationService) {
         this.memberRepository = memberRepository;
         this.userRepository = userRepository;
         this.chamaRepository = chamaRepository;
+        this.payoutRotationService = payoutRotationService;
     }
 
     // Member joins chama via joinCode
@@ -50,8 +54,10 @@ public class MemberService {
                 chama
         );
 
-        // 5. Save and return
-        return memberRepository.save(member);
+        // 5. Save, refresh the payout rotation and return
+        MemberEntity saved = memberRepository.save(member);
+        payoutRotationService.addSlot(saved);
+        return saved;
     }
 
     // Add a new member (without chama association)
@@ -0,0 +1,140 @@
+package com.example.loanmanagement.Money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Immutable amount of Ksh held as a whole number of cents, so sums and comparisons are exact.
+// Loops over many rows can work on cents() directly and wrap the result once with ofCents.
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Amounts with more than two decimals are rounded half-up to the cent
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            throw new RuntimeException("Amount is required");
+        }
+        try {
+            return ofCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount " + amount + " is out of range");
+        }
+    }
+
+    // For values that are still doubles at the edges (scores, rates); goes through the decimal text, not the binary value
+    public static Money of(double amount) {
+        return of(BigDecimal.valueOf(amount));
+    }
+
+    public static Money ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : null;
+    }
+
+    public static Money orZero(Money money) {
+        return money != null ? money : ZERO;
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    // ===== Arithmetic =====
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    // Scales by a rate or ratio, rounding half-up to the cent
+    public Money times(BigDecimal factor) {
+        return of(toBigDecimal().multiply(factor));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money min(Money other) {
+        return cents <= other.cents ? this : other;
+    }
+
+    public Money max(Money other) {
+        return cents >= other.cents ? this : other;
+    }
+
+    // ===== Comparison =====
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    // Plain decimal with two places, e.g. "1500.00"; used as-is in emails and CSV
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.loanmanagement.Money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Every Money attribute is stored as a BIGINT count of cents
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money != null ? money.cents() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long cents) {
+        return cents != null ? Money.ofCents(cents) : null;
+    }
+}
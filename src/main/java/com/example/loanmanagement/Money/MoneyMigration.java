@@ -0,0 +1,83 @@
+package com.example.loanmanagement.Money;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// One-off move of DOUBLE/DECIMAL money columns into the BIGINT cents columns the Money attributes map to.
+// The legacy columns are left in place (made nullable) so a rollback still finds its data.
+// Runs once every bean exists (Hibernate has added the cents columns) but before the web server and the schedulers
+// start, so no request or job can read a cents column that is still NULL.
+@Component
+public class MoneyMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoneyMigration.class);
+
+    // { table, legacy column, cents column }
+    private static final String[][] COLUMNS = {
+            {"loan_applications", "amount", "amount_cents"},
+            {"loan_applications", "salary", "salary_cents"},
+            {"loan_applications", "mortgage_property_value", "mortgage_property_value_cents"},
+            {"loan_applications", "total_repayment", "total_repayment_cents"},
+            {"loan_applications", "amount_paid", "amount_paid_cents"},
+            {"loan_applications", "outstanding_balance", "outstanding_balance_cents"},
+            {"loan_payments", "amount_paid", "amount_paid_cents"},
+            {"loan_installments", "principal_due", "principal_due_cents"},
+            {"loan_installments", "interest_due", "interest_due_cents"},
+            {"loan_installments", "amount_due", "amount_due_cents"},
+            {"loan_installments", "amount_paid", "amount_paid_cents"},
+            {"contributions", "amount", "amount_cents"},
+            {"contributions", "penalty_amount", "penalty_amount_cents"},
+            {"contribution_cycle_totals", "amount_paid", "amount_paid_cents"},
+            {"contribution_cycle_totals", "penalty_total", "penalty_total_cents"},
+            {"penalty_accruals", "amount", "amount_cents"},
+            {"cycle_snapshots", "total_collected", "total_collected_cents"},
+            {"cycle_snapshots", "total_penalties", "total_penalties_cents"},
+            {"cycle_snapshot_entries", "amount_contributed", "amount_contributed_cents"},
+            {"cycle_snapshot_entries", "penalty_amount", "penalty_amount_cents"},
+            {"member_credit_features", "savings_balance", "savings_balance_cents"},
+            {"member_credit_features", "current_exposure", "current_exposure_cents"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MoneyMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateLegacyAmounts();
+    }
+
+    public void migrateLegacyAmounts() {
+        for (String[] column : COLUMNS) {
+            String table = column[0];
+            String legacy = column[1];
+            String cents = column[2];
+
+            List<Map<String, Object>> legacyColumn = jdbcTemplate.queryForList(
+                    "SELECT COLUMN_TYPE, IS_NULLABLE FROM information_schema.columns " +
+                            "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?", table, legacy);
+            if (legacyColumn.isEmpty()) continue;
+
+            // Rows written since the switch only fill the cents column, so the legacy one must accept NULL
+            if ("NO".equals(legacyColumn.get(0).get("IS_NULLABLE"))) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY " + legacy + " " +
+                        legacyColumn.get(0).get("COLUMN_TYPE") + " NULL");
+            }
+
+            // Through DECIMAL so DOUBLE values round half-up on the decimal amount, not its binary approximation
+            int rows = jdbcTemplate.update("UPDATE " + table + " SET " + cents + " = ROUND(CAST(" + legacy +
+                    " AS DECIMAL(19,4)) * 100) WHERE " + cents + " IS NULL AND " + legacy + " IS NOT NULL");
+            if (rows > 0) {
+                logger.info("Migrated {} rows of {}.{} to cents", rows, table, legacy);
+            }
+        }
+    }
+}
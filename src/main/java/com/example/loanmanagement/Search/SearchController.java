@@ -0,0 +1,68 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Member.MemberRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/search")
+public class SearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private final SearchIndexService searchService;
+    private final MemberRepository memberRepo;
+
+    public SearchController(SearchIndexService searchService, MemberRepository memberRepo) {
+        this.searchService = searchService;
+        this.memberRepo = memberRepo;
+    }
+
+    // ✅ Chama admin finds members, loan applicants or the chama by name, email or phone prefix
+    @GetMapping
+    public ResponseEntity<?> searchChama(
+            @RequestParam Long chamaId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            Principal principal
+    ) {
+        if (principal == null || !memberRepo.isChamaAdmin(principal.getName(), chamaId)) {
+            return ResponseEntity.status(403).body("Error: Only admins of this chama can search it");
+        }
+
+        try {
+            List<SearchResultDTO> results = searchService.searchChama(chamaId, q, limit);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            logger.error("❌ Error searching chama {}: {}", chamaId, e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+
+    // ✅ Super admin searches users, chamas and loan applicants across the platform
+    @GetMapping("/platform")
+    public ResponseEntity<?> searchPlatform(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request
+    ) {
+        Object role = request.getAttribute("role");
+        if (role == null || !role.toString().equalsIgnoreCase("SUPER_ADMIN")) {
+            return ResponseEntity.status(403).body("Error: Only super admins can search the whole platform");
+        }
+
+        try {
+            List<SearchResultDTO> results = searchService.searchPlatform(q, limit);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            logger.error("❌ Error searching platform: {}", e.getMessage());
+            return ResponseEntity.status(400).body("Error: " + e.getMessage());
+        }
+    }
+}
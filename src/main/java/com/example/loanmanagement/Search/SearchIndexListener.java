@@ -0,0 +1,75 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Enum.SearchEntityType;
+import com.example.loanmanagement.Loanapplication.LoanApplicationEntity;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.User.UserEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// JPA listener on the searchable entities. Changes are collected per transaction and reindexed
+// in the background once it commits, so a rolled-back write never reaches the index.
+@Component
+public class SearchIndexListener {
+
+    private static final Object PENDING_KEY = new Object();
+
+    private final SearchIndexService indexService;
+
+    // Lazy: Hibernate may ask for this listener while the repositories the service needs are still being built
+    public SearchIndexListener(@Lazy SearchIndexService indexService) {
+        this.indexService = indexService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof UserEntity user) {
+            queue(new SearchKey(SearchEntityType.USER, user.getId()));
+        } else if (entity instanceof MemberEntity member) {
+            queue(new SearchKey(SearchEntityType.MEMBER, member.getId()));
+        } else if (entity instanceof ChamaEntity chama) {
+            queue(new SearchKey(SearchEntityType.CHAMA, chama.getId()));
+        } else if (entity instanceof LoanApplicationEntity loan) {
+            queue(new SearchKey(SearchEntityType.LOAN_APPLICANT, loan.getId()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void queue(SearchKey key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexService.reindexAsync(List.of(key));
+            return;
+        }
+
+        Set<SearchKey> pending = (Set<SearchKey>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<SearchKey> keys = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexService.reindexAsync(List.copyOf(keys));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = keys;
+        }
+        pending.add(key);
+    }
+}
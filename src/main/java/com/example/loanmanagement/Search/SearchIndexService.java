@@ -0,0 +1,245 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Enum.SearchEntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    // Term rows read per result asked for; one entity usually matches a prefix on several terms
+    private static final int ROWS_PER_RESULT = 4;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    // Memberships already cover users within a chama, so platform search returns the user row instead
+    private static final Set<SearchEntityType> PLATFORM_TYPES =
+            EnumSet.of(SearchEntityType.USER, SearchEntityType.CHAMA, SearchEntityType.LOAN_APPLICANT);
+
+    private final SearchTermRepository searchRepo;
+
+    public SearchIndexService(SearchTermRepository searchRepo) {
+        this.searchRepo = searchRepo;
+    }
+
+    // ===== Search =====
+
+    // ✅ Members, loan applicants and the chama itself matching the query within one chama
+    public List<SearchResultDTO> searchChama(Long chamaId, String query, Integer limit) {
+        if (chamaId == null) {
+            throw new RuntimeException("chamaId is required");
+        }
+        return search(query, limit, (prefix, rows) -> searchRepo.findByChamaAndPrefix(chamaId, prefix, PageRequest.of(0, rows)));
+    }
+
+    // ✅ Users, chamas and loan applicants across the platform
+    public List<SearchResultDTO> searchPlatform(String query, Integer limit) {
+        return search(query, limit, (prefix, rows) -> searchRepo.findByPrefix(prefix, PLATFORM_TYPES, PageRequest.of(0, rows)));
+    }
+
+    private List<SearchResultDTO> search(String query, Integer limit, TermLookup lookup) {
+        List<String> tokens = SearchTerms.ofQuery(query);
+        if (tokens.isEmpty() || tokens.get(0).length() < MIN_QUERY_LENGTH) {
+            throw new RuntimeException("Search query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        // Index range scan on the longest token; the other tokens are checked against the stored label and detail
+        List<String> others = tokens.subList(1, tokens.size());
+        Map<SearchKey, SearchResultDTO> results = new LinkedHashMap<>();
+        for (SearchTermEntity hit : lookup.find(SearchTerms.likePrefix(tokens.get(0)), max * ROWS_PER_RESULT)) {
+            if (results.size() >= max) break;
+            SearchKey key = new SearchKey(hit.getEntityType(), hit.getEntityId());
+            if (!results.containsKey(key) && SearchTerms.matchesAll(others, hit.getLabel(), hit.getDetail())) {
+                results.put(key, new SearchResultDTO(hit));
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    @FunctionalInterface
+    private interface TermLookup {
+        List<SearchTermEntity> find(String prefix, int rows);
+    }
+
+    // ===== Incremental maintenance =====
+
+    // ✅ Called after the transaction that changed these entities commits (see SearchIndexListener)
+    @Async
+    @Transactional
+    public void reindexAsync(Collection<SearchKey> keys) {
+        for (SearchKey key : keys) {
+            try {
+                reindex(key.type(), key.id());
+            } catch (RuntimeException e) {
+                logger.error("Failed to reindex {} {} for search: {}", key.type(), key.id(), e.getMessage());
+            }
+        }
+    }
+
+    // Rewrites the entity's terms from its current row; a deleted entity simply loses its terms
+    @Transactional
+    public void reindex(SearchEntityType type, Long id) {
+        if (id == null) return;
+        PageRequest one = PageRequest.of(0, 1);
+        List<SearchTermEntity> terms = switch (type) {
+            case USER -> toTerms(type, searchRepo.findUserDocs(id - 1, id, one));
+            case MEMBER -> toTerms(type, searchRepo.findMemberDocs(id - 1, id, one));
+            case CHAMA -> toTerms(type, searchRepo.findChamaDocs(id - 1, id, one));
+            case LOAN_APPLICANT -> toTerms(type, searchRepo.findLoanApplicantDocs(id - 1, id, one));
+        };
+        replace(type, id, terms);
+
+        if (type == SearchEntityType.USER) {
+            for (Long memberId : searchRepo.findMemberIdsByUserId(id)) {
+                reindex(SearchEntityType.MEMBER, memberId);
+            }
+        }
+    }
+
+    private void replace(SearchEntityType type, Long id, List<SearchTermEntity> terms) {
+        Set<String> current = searchRepo.findByEntityTypeAndEntityId(type, id).stream()
+                .map(SearchTermEntity::signature)
+                .collect(Collectors.toSet());
+        Set<String> wanted = terms.stream().map(SearchTermEntity::signature).collect(Collectors.toSet());
+        if (current.equals(wanted)) {
+            return; // e.g. a payment updated the loan but not the applicant's details
+        }
+        if (terms.isEmpty()) {
+            searchRepo.deleteByEntity(type, id);
+            return;
+        }
+        searchRepo.deleteStaleTerms(type, id, terms.stream().map(SearchTermEntity::getTerm).collect(Collectors.toList()));
+        terms.forEach(this::upsert);
+    }
+
+    private void upsert(SearchTermEntity term) {
+        searchRepo.upsertTerm(term.getEntityType().name(), term.getEntityId(), term.getChamaId(),
+                term.getTerm(), term.getLabel(), term.getDetail());
+    }
+
+    // ===== Full rebuild =====
+
+    // ✅ Seed the index on first start
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(4) // after the other backfills
+    public void seedIndex() {
+        // ddl-auto cannot add the unique key while duplicates from earlier concurrent reindexes are present
+        if (searchRepo.countEntityTermKey() == 0) {
+            int removed = searchRepo.deleteDuplicateTerms();
+            searchRepo.addEntityTermKey();
+            logger.info("Added unique key on search terms, removing {} duplicate rows", removed);
+        }
+        if (searchRepo.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    // Walks each source table in id order, a page per query, writing terms as it goes
+    public void rebuildAll() {
+        logger.info("Building search index...");
+        int total = 0;
+        for (SearchEntityType type : SearchEntityType.values()) {
+            long afterId = 0;
+            while (true) {
+                PageRequest page = PageRequest.of(0, REBUILD_PAGE_SIZE);
+                List<Object[]> rows = switch (type) {
+                    case USER -> searchRepo.findUserDocs(afterId, Long.MAX_VALUE, page);
+                    case MEMBER -> searchRepo.findMemberDocs(afterId, Long.MAX_VALUE, page);
+                    case CHAMA -> searchRepo.findChamaDocs(afterId, Long.MAX_VALUE, page);
+                    case LOAN_APPLICANT -> searchRepo.findLoanApplicantDocs(afterId, Long.MAX_VALUE, page);
+                };
+                if (rows.isEmpty()) break;
+
+                List<SearchTermEntity> terms = toTerms(type, rows);
+                terms.forEach(this::upsert);
+                total += terms.size();
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        }
+        logger.info("Search index built with {} terms", total);
+    }
+
+    // ===== Documents =====
+
+    // Rows come from the SearchTermRepository find*Docs queries, id first
+    private List<SearchTermEntity> toTerms(SearchEntityType type, List<Object[]> rows) {
+        List<SearchTermEntity> terms = new ArrayList<>();
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            Long chamaId;
+            String label;
+            String detail;
+            Set<String> words = new LinkedHashSet<>();
+
+            switch (type) {
+                case USER -> {
+                    chamaId = null;
+                    label = (String) row[1];
+                    detail = (String) row[3];
+                    words.addAll(SearchTerms.ofName(label));
+                    words.addAll(SearchTerms.ofName((String) row[2]));
+                    words.addAll(SearchTerms.ofEmail(detail));
+                }
+                case MEMBER -> {
+                    chamaId = (Long) row[1];
+                    label = (String) row[2];
+                    detail = joinDetail((String) row[4], (String) row[5]);
+                    words.addAll(SearchTerms.ofName(label));
+                    words.addAll(SearchTerms.ofName((String) row[3]));
+                    words.addAll(SearchTerms.ofEmail((String) row[4]));
+                    words.addAll(SearchTerms.ofPhone((String) row[5]));
+                }
+                case CHAMA -> {
+                    chamaId = id;
+                    label = (String) row[1];
+                    detail = (String) row[2];
+                    words.addAll(SearchTerms.ofName(label));
+                    words.addAll(SearchTerms.ofName(detail));
+                }
+                case LOAN_APPLICANT -> {
+                    chamaId = (Long) row[1];
+                    label = (String) row[2];
+                    detail = joinDetail((String) row[3], (String) row[4]);
+                    words.addAll(SearchTerms.ofName(label));
+                    words.addAll(SearchTerms.ofEmail((String) row[3]));
+                    words.addAll(SearchTerms.ofPhone((String) row[4]));
+                }
+                default -> throw new IllegalStateException("Unknown search entity type " + type);
+            }
+
+            for (String word : words) {
+                terms.add(new SearchTermEntity(type, id, chamaId, word, label, detail));
+            }
+        }
+        return terms;
+    }
+
+    private String joinDetail(String email, String phone) {
+        if (phone == null || phone.isBlank()) return email;
+        if (email == null || email.isBlank()) return phone;
+        return email + ", " + phone;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Enum.SearchEntityType;
+
+// An indexed entity: a user, a membership, a chama or a loan application
+public record SearchKey(SearchEntityType type, Long id) {
+}
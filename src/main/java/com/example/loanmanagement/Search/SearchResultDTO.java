@@ -0,0 +1,19 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Enum.SearchEntityType;
+
+public class SearchResultDTO {
+    public SearchEntityType type;
+    public Long id; // user, member, chama or loan application id, depending on type
+    public Long chamaId;
+    public String label;
+    public String detail;
+
+    public SearchResultDTO(SearchTermEntity term) {
+        this.type = term.getEntityType();
+        this.id = term.getEntityId();
+        this.chamaId = term.getChamaId();
+        this.label = term.getLabel();
+        this.detail = term.getDetail();
+    }
+}
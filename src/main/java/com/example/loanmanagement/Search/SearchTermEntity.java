@@ -0,0 +1,69 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Enum.SearchEntityType;
+import jakarta.persistence.*;
+
+// One searchable word of a user, membership, chama or loan applicant. Lookups are prefix range scans
+// on term, so "jan" finds "jane" and "jane@mail.com" without a full table scan.
+@Entity
+@Table(name = "search_terms",
+        indexes = {
+                @Index(name = "idx_search_chama_term", columnList = "chama_id, term"),
+                @Index(name = "idx_search_term", columnList = "term")
+        },
+        // One row per word of an entity; reindexes upsert against it (also serves lookups by entity)
+        uniqueConstraints = @UniqueConstraint(name = SearchTermEntity.ENTITY_TERM_KEY,
+                columnNames = {"entity_type", "entity_id", "term"}))
+public class SearchTermEntity {
+
+    public static final int MAX_TERM_LENGTH = 64;
+    public static final String ENTITY_TERM_KEY = "uk_search_entity_term";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private SearchEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Null for platform-wide user rows
+    @Column(name = "chama_id")
+    private Long chamaId;
+
+    // Lowercased word, email or phone digits
+    @Column(nullable = false, length = MAX_TERM_LENGTH)
+    private String term;
+
+    // Shown in results, so a hit needs no further lookups
+    private String label;
+    private String detail;
+
+    public SearchTermEntity() {}
+
+    public SearchTermEntity(SearchEntityType entityType, Long entityId, Long chamaId, String term, String label, String detail) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.chamaId = chamaId;
+        this.term = term;
+        this.label = label;
+        this.detail = detail;
+    }
+
+    public Long getId() { return id; }
+
+    public SearchEntityType getEntityType() { return entityType; }
+    public Long getEntityId() { return entityId; }
+    public Long getChamaId() { return chamaId; }
+    public String getTerm() { return term; }
+    public String getLabel() { return label; }
+    public String getDetail() { return detail; }
+
+    // Identifies the row's content, to skip rewriting an entity whose searchable fields did not change
+    String signature() {
+        return chamaId + "|" + term + "|" + label + "|" + detail;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.loanmanagement.Search;
+
+import com.example.loanmanagement.Enum.SearchEntityType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchTermRepository extends JpaRepository<SearchTermEntity, Long> {
+
+    // ===== Lookups (prefix is already escaped with '!' and ends in '%') =====
+
+    @Query("SELECT t FROM SearchTermEntity t WHERE t.chamaId = :chamaId AND t.term LIKE :prefix ESCAPE '!' ORDER BY t.term")
+    List<SearchTermEntity> findByChamaAndPrefix(@Param("chamaId") Long chamaId, @Param("prefix") String prefix, Pageable page);
+
+    @Query("SELECT t FROM SearchTermEntity t WHERE t.term LIKE :prefix ESCAPE '!' AND t.entityType IN :types ORDER BY t.term")
+    List<SearchTermEntity> findByPrefix(@Param("prefix") String prefix, @Param("types") Collection<SearchEntityType> types, Pageable page);
+
+    // ===== Maintenance =====
+
+    List<SearchTermEntity> findByEntityTypeAndEntityId(SearchEntityType entityType, Long entityId);
+
+    @Modifying
+    @Query("DELETE FROM SearchTermEntity t WHERE t.entityType = :type AND t.entityId = :entityId")
+    void deleteByEntity(@Param("type") SearchEntityType type, @Param("entityId") Long entityId);
+
+    // Drops the entity's terms that are no longer among its current ones
+    @Modifying
+    @Query("DELETE FROM SearchTermEntity t WHERE t.entityType = :type AND t.entityId = :entityId AND t.term NOT IN :terms")
+    void deleteStaleTerms(@Param("type") SearchEntityType type, @Param("entityId") Long entityId,
+                          @Param("terms") Collection<String> terms);
+
+    // Insert or refresh one term (MySQL upsert on uk_search_entity_term), so reindexes of the same entity
+    // racing each other converge on one row per term instead of duplicating them
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO search_terms (entity_type, entity_id, chama_id, term, label, detail) " +
+            "VALUES (:type, :entityId, :chamaId, :term, :label, :detail) " +
+            "ON DUPLICATE KEY UPDATE chama_id = :chamaId, label = :label, detail = :detail", nativeQuery = true)
+    void upsertTerm(@Param("type") String type, @Param("entityId") Long entityId, @Param("chamaId") Long chamaId,
+                    @Param("term") String term, @Param("label") String label, @Param("detail") String detail);
+
+    // ===== Unique key migration (rows written before uk_search_entity_term existed) =====
+
+    @Query(value = "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() " +
+            "AND table_name = 'search_terms' AND index_name = '" + SearchTermEntity.ENTITY_TERM_KEY + "'", nativeQuery = true)
+    long countEntityTermKey();
+
+    // Keeps the oldest row of each (entity, term)
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE t1 FROM search_terms t1 JOIN search_terms t2 ON t1.entity_type = t2.entity_type " +
+            "AND t1.entity_id = t2.entity_id AND t1.term = t2.term AND t1.id > t2.id", nativeQuery = true)
+    int deleteDuplicateTerms();
+
+    @Transactional
+    @Modifying
+    @Query(value = "ALTER TABLE search_terms ADD CONSTRAINT " + SearchTermEntity.ENTITY_TERM_KEY +
+            " UNIQUE (entity_type, entity_id, term)", nativeQuery = true)
+    void addEntityTermKey();
+
+    // ===== Source rows, by id range so one query serves single reindexes and the paged rebuild =====
+
+    @Query("SELECT u.id, u.fullName, u.username, u.email FROM UserEntity u " +
+            "WHERE u.id > :afterId AND u.id <= :upToId ORDER BY u.id")
+    List<Object[]> findUserDocs(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable page);
+
+    @Query("SELECT m.id, m.chama.id, u.fullName, u.username, u.email, m.phoneNumber FROM MemberEntity m JOIN m.user u " +
+            "WHERE m.id > :afterId AND m.id <= :upToId ORDER BY m.id")
+    List<Object[]> findMemberDocs(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable page);
+
+    @Query("SELECT c.id, c.name, c.joinCode FROM ChamaEntity c " +
+            "WHERE c.id > :afterId AND c.id <= :upToId ORDER BY c.id")
+    List<Object[]> findChamaDocs(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable page);
+
+    @Query("SELECT l.id, l.chamaId, l.fullName, l.email, l.phone FROM LoanApplicationEntity l " +
+            "WHERE l.id > :afterId AND l.id <= :upToId ORDER BY l.id")
+    List<Object[]> findLoanApplicantDocs(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable page);
+
+    // Memberships repeat the user's name and email, so they are reindexed with the user
+    @Query("SELECT m.id FROM MemberEntity m WHERE m.user.id = :userId")
+    List<Long> findMemberIdsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,127 @@
+package com.example.loanmanagement.Search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Turns names, emails and phone numbers into the lowercase terms stored in search_terms, and queries into
+// the prefixes looked up against them
+final class SearchTerms {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("\\+?[0-9][0-9 \\-]*");
+    private static final String COUNTRY_CODE = "254";
+    private static final int MIN_PHONE_DIGITS = 7;
+
+    private SearchTerms() {}
+
+    // "Jane W. Doe" -> jane, w, doe
+    static Set<String> ofName(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) return terms;
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            add(terms, word);
+        }
+        return terms;
+    }
+
+    // "jane.doe@mail.com" -> the address itself, its local part and the words of the local part
+    static Set<String> ofEmail(String email) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (email == null || email.isBlank()) return terms;
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        add(terms, normalized);
+        int at = normalized.indexOf('@');
+        if (at > 0) {
+            String local = normalized.substring(0, at);
+            add(terms, local);
+            terms.addAll(ofName(local));
+        }
+        return terms;
+    }
+
+    // "+254 712-345678" -> 254712345678, 0712345678 and 712345678, so any way of typing it matches
+    static Set<String> ofPhone(String phone) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (phone == null) return terms;
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            add(terms, digits);
+            return terms;
+        }
+        String subscriber = digits;
+        if (digits.startsWith(COUNTRY_CODE)) {
+            subscriber = digits.substring(COUNTRY_CODE.length());
+        } else if (digits.startsWith("0")) {
+            subscriber = digits.substring(1);
+        }
+        add(terms, digits);
+        add(terms, COUNTRY_CODE + subscriber);
+        add(terms, "0" + subscriber);
+        add(terms, subscriber);
+        return terms;
+    }
+
+    // Query tokens, most selective (longest) first: the first is looked up, the rest filter the hits
+    static List<String> ofQuery(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null || query.isBlank()) return tokens;
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+
+        if (PHONE_QUERY.matcher(normalized).matches()) {
+            String digits = normalized.replaceAll("[^0-9]", "");
+            if (digits.length() >= 3) {
+                tokens.add(truncate(digits));
+                return tokens;
+            }
+        }
+
+        Set<String> unique = new LinkedHashSet<>();
+        for (String piece : normalized.split("\\s+")) {
+            if (piece.indexOf('@') >= 0) {
+                add(unique, piece);
+            } else {
+                unique.addAll(ofName(piece));
+            }
+        }
+        tokens.addAll(unique);
+        tokens.sort((a, b) -> Integer.compare(b.length(), a.length()));
+        return tokens;
+    }
+
+    // LIKE pattern for a prefix, escaping wildcards with '!' (emails may contain '_')
+    static String likePrefix(String token) {
+        return token.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    // Do all tokens start some word of the hit's label or detail
+    static boolean matchesAll(List<String> tokens, String label, String detail) {
+        if (tokens.isEmpty()) return true;
+        Set<String> words = ofName(label);
+        words.addAll(ofName(detail));
+        if (detail != null) {
+            for (String piece : detail.toLowerCase(Locale.ROOT).split("[\\s,]+")) {
+                add(words, piece);
+            }
+        }
+        for (String token : tokens) {
+            if (words.stream().noneMatch(word -> word.startsWith(token))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void add(Set<String> terms, String term) {
+        if (term != null && !term.isEmpty()) {
+            terms.add(truncate(term));
+        }
+    }
+
+    private static String truncate(String term) {
+        return term.length() > SearchTermEntity.MAX_TERM_LENGTH ? term.substring(0, SearchTermEntity.MAX_TERM_LENGTH) : term;
+    }
+}
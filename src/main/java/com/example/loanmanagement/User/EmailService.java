@@ -3,6 +3,7 @@ package com.example.loanmanagement.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +43,14 @@ public class EmailService {
         sendEmail(to, subject, body);
     }
 
+    /**
+     * Same as sendEmail, but runs on the task executor so callers are not held up by SMTP
+     */
+    @Async
+    public void sendEmailAsync(String to, String subject, String body) {
+        sendEmail(to, subject, body);
+    }
+
     // === Specific emails ===
 
     public void sendJoiningCode(String userEmail, String joiningCode) {
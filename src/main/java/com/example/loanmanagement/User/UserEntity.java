@@ -1,6 +1,7 @@
 package com.example.loanmanagement.User;
 
 import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Search.SearchIndexListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 
@@ -8,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "users") // "user" is a reserved keyword in some DBs
 public class UserEntity {
 
@@ -0,0 +1,59 @@
+package com.example.loanmanagement.Contribution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CycleCloseServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+
+    @Mock
+    private CycleSnapshotRepository cycleSnapshotRepository;
+
+    @Mock
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @InjectMocks
+    private CycleCloseService cycleCloseService;
+
+    @BeforeEach
+    void setUp() {
+        ChamaRulesEntity rules = new ChamaRulesEntity();
+        rules.setCycleType(ChamaRulesEntity.CycleType.MONTHLY);
+        when(chamaRulesRepository.findByChamaId(CHAMA_ID)).thenReturn(Optional.of(rules));
+    }
+
+    @Test
+    void malformedCycleIsRejected() {
+        assertThrows(RuntimeException.class, () -> cycleCloseService.closeCycle(CHAMA_ID, "Week 3 2025"));
+        assertThrows(RuntimeException.class, () -> cycleCloseService.closeCycle(CHAMA_ID, "march 2025"));
+
+        verify(cycleSnapshotRepository, never()).save(any());
+    }
+
+    // Members are still paying into the current and later cycles
+    @Test
+    void cycleThatHasNotEndedIsRejected() {
+        String current = ContributionUtils.getCurrentCycle(ChamaRulesEntity.CycleType.MONTHLY);
+        String next = ContributionUtils.generateCycle(ChamaRulesEntity.CycleType.MONTHLY, LocalDate.now().plusMonths(1));
+
+        assertThrows(RuntimeException.class, () -> cycleCloseService.closeCycle(CHAMA_ID, current));
+        assertThrows(RuntimeException.class, () -> cycleCloseService.closeCycle(CHAMA_ID, next));
+
+        verify(cycleSnapshotRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Chama.ChamaRepository;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.User.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayoutRotationServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+
+    @Mock
+    private ChamaRulesRepository chamaRulesRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private PayoutSlotRepository payoutSlotRepository;
+
+    @Mock
+    private ChamaRulesCache chamaRulesCache;
+
+    @Mock
+    private ChamaRepository chamaRepository;
+
+    @InjectMocks
+    private PayoutRotationService rotationService;
+
+    private ChamaEntity chama;
+
+    @BeforeEach
+    void setUp() {
+        chama = new ChamaEntity();
+        chama.setId(CHAMA_ID);
+
+        ChamaRulesEntity rules = rules(1_000);
+        rules.setCurrentPayoutCycle("March 2025");
+        when(chamaRulesRepository.findByChamaId(CHAMA_ID)).thenReturn(Optional.of(rules));
+    }
+
+    // A version taking effect in May prices the payouts from May on, as getMemberTurn does
+    @Test
+    void scheduleUsesTheRulesVersionOfEachCycle() {
+        givenMembersWithoutSlots();
+        CompiledChamaRules current = CompiledChamaRules.compile(rules(1_000));
+        CompiledChamaRules fromMay = CompiledChamaRules.compile(rules(1_500));
+        when(chamaRulesCache.get(eq(CHAMA_ID), anyString())).thenAnswer(call ->
+                List.of("March 2025", "April 2025").contains(call.getArgument(1, String.class)) ? current : fromMay);
+
+        List<MemberPayoutDTO> schedule = rotationService.getSchedule(CHAMA_ID);
+
+        assertEquals("March 2025", schedule.get(0).getCycle());
+        assertEquals(0, BigDecimal.valueOf(2_000).compareTo(schedule.get(0).getPayoutAmount()));
+        assertEquals(0, BigDecimal.valueOf(2_000).compareTo(schedule.get(1).getPayoutAmount()));
+        assertEquals("May 2025", schedule.get(2).getCycle());
+        assertEquals(0, BigDecimal.valueOf(3_000).compareTo(schedule.get(2).getPayoutAmount()));
+    }
+
+    // A schedule read between the change and its commit must not outlive the commit
+    @Test
+    void invalidationEvictsAgainAfterCommit() {
+        givenMembersWithoutSlots();
+        when(chamaRulesCache.get(eq(CHAMA_ID), anyString())).thenReturn(CompiledChamaRules.compile(rules(1_000)));
+        List<MemberPayoutDTO> first = rotationService.getSchedule(CHAMA_ID);
+        assertSame(first, rotationService.getSchedule(CHAMA_ID));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rotationService.invalidate(CHAMA_ID);
+            rotationService.getSchedule(CHAMA_ID);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        rotationService.getSchedule(CHAMA_ID);
+
+        verify(chamaRulesRepository, times(3)).findByChamaId(CHAMA_ID);
+    }
+
+    // Slots keep their rows; the ones that move pass through negative positions first so the
+    // (chama_id, position) unique key holds after every statement
+    @Test
+    void reorderMovesExistingSlotsInTwoPhases() {
+        MemberEntity amina = member(1L, "Amina");
+        MemberEntity baraka = member(2L, "Baraka");
+        MemberEntity chebet = member(3L, "Chebet");
+        PayoutSlotEntity first = new PayoutSlotEntity(11L, chama, 0, amina, null);
+        PayoutSlotEntity second = new PayoutSlotEntity(12L, chama, 1, baraka, null);
+        PayoutSlotEntity third = new PayoutSlotEntity(13L, chama, 2, chebet, null);
+        when(chamaRepository.findByIdForUpdate(CHAMA_ID)).thenReturn(Optional.of(chama));
+        when(memberRepository.findByChamaIdOrderById(CHAMA_ID)).thenReturn(List.of(amina, baraka, chebet));
+        when(payoutSlotRepository.findByChamaIdOrderByPosition(CHAMA_ID)).thenReturn(List.of(first, second, third));
+
+        List<List<Integer>> flushed = new ArrayList<>();
+        doAnswer(call -> flushed.add(List.of(first.getPosition(), second.getPosition(), third.getPosition())))
+                .when(payoutSlotRepository).flush();
+
+        List<Long> order = rotationService.reorder(CHAMA_ID, List.of(2L, 1L));
+
+        assertEquals(List.of(2L, 1L, 3L), order);
+        assertEquals(List.of(-2, -1, 2), flushed.get(0));
+        assertEquals(List.of(1, 0, 2), flushed.get(1));
+        verify(payoutSlotRepository).deleteAll(List.of());
+        verify(payoutSlotRepository).saveAll(List.of());
+        verify(payoutSlotRepository, never()).deleteByChamaId(any());
+    }
+
+    private void givenMembersWithoutSlots() {
+        when(memberRepository.findByChamaIdWithUserOrderById(CHAMA_ID)).thenReturn(List.of(member(1L, "Amina"), member(2L, "Baraka")));
+        when(payoutSlotRepository.findByChamaIdOrderByPosition(CHAMA_ID)).thenReturn(List.of());
+    }
+
+    private ChamaRulesEntity rules(long contribution) {
+        ChamaRulesEntity rules = new ChamaRulesEntity();
+        rules.setChama(chama);
+        rules.setCycleType(ChamaRulesEntity.CycleType.MONTHLY);
+        rules.setMonthlyContributionAmount(BigDecimal.valueOf(contribution));
+        rules.setPenaltyForLate(BigDecimal.ZERO);
+        rules.setDayOfCycle(5);
+        rules.setGracePeriodDays(2);
+        return rules;
+    }
+
+    private MemberEntity member(Long id, String name) {
+        UserEntity user = new UserEntity();
+        user.setFullName(name);
+        MemberEntity member = new MemberEntity();
+        member.setId(id);
+        member.setUser(user);
+        member.setChama(chama);
+        return member;
+    }
+}
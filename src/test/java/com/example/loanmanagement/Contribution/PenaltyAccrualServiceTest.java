@@ -0,0 +1,95 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PenaltyAccrualServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+
+    @Mock
+    private ChamaRulesCache chamaRulesCache;
+
+    @InjectMocks
+    private PenaltyAccrualService accrualService;
+
+    private ChamaEntity chama;
+
+    @BeforeEach
+    void setUp() {
+        chama = new ChamaEntity();
+        chama.setId(CHAMA_ID);
+        chama.setCreatedDate(LocalDate.of(2024, 1, 10));
+    }
+
+    // Due on the 28th with 5 grace days: June's grace period ends on 3 July, inside the next cycle
+    @Test
+    void graceEndingInTheNextCycleStillAccrues() {
+        givenMonthlyRules(28, 5);
+
+        List<PenaltyAccrualService.OverdueCycle> onGraceEnd = accrualService.overdueCycles(
+                chama, ChamaRulesEntity.CycleType.MONTHLY, LocalDate.of(2025, 7, 3));
+        List<PenaltyAccrualService.OverdueCycle> weekLater = accrualService.overdueCycles(
+                chama, ChamaRulesEntity.CycleType.MONTHLY, LocalDate.of(2025, 7, 10));
+
+        assertEquals("May 2025", onGraceEnd.get(0).cycle());
+        assertEquals("June 2025", weekLater.get(0).cycle());
+        assertEquals(7, weekLater.get(0).daysLate());
+        assertEquals(17_000, weekLater.get(0).penaltyCents()); // 100 + 7 * 10
+    }
+
+    // Cycles already over keep accruing for members who never pay, back to the chama's first cycle
+    @Test
+    void pastOpenCyclesKeepAccruing() {
+        chama.setCreatedDate(LocalDate.of(2025, 3, 15));
+        givenMonthlyRules(1, 3);
+
+        List<PenaltyAccrualService.OverdueCycle> overdue = accrualService.overdueCycles(
+                chama, ChamaRulesEntity.CycleType.MONTHLY, LocalDate.of(2025, 6, 10));
+
+        assertEquals(List.of("June 2025", "May 2025", "April 2025", "March 2025"),
+                overdue.stream().map(PenaltyAccrualService.OverdueCycle::cycle).toList());
+        assertEquals(6, overdue.get(0).daysLate());
+        assertEquals(98, overdue.get(3).daysLate());
+        assertEquals("2025-03-01", overdue.get(3).dueDate());
+        assertEquals(100_000, overdue.get(3).expectedCents());
+    }
+
+    @Test
+    void lookbackIsBoundedToAYear() {
+        givenMonthlyRules(1, 3);
+
+        List<PenaltyAccrualService.OverdueCycle> overdue = accrualService.overdueCycles(
+                chama, ChamaRulesEntity.CycleType.MONTHLY, LocalDate.of(2026, 6, 10));
+
+        assertEquals(13, overdue.size());
+        assertEquals("June 2025", overdue.get(12).cycle());
+    }
+
+    private void givenMonthlyRules(int dayOfCycle, int gracePeriodDays) {
+        ChamaRulesEntity rules = new ChamaRulesEntity();
+        rules.setChama(chama);
+        rules.setCycleType(ChamaRulesEntity.CycleType.MONTHLY);
+        rules.setMonthlyContributionAmount(BigDecimal.valueOf(1000));
+        rules.setPenaltyForLate(BigDecimal.valueOf(100));
+        rules.setPenaltyPerDay(BigDecimal.valueOf(10));
+        rules.setDayOfCycle(dayOfCycle);
+        rules.setGracePeriodDays(gracePeriodDays);
+        when(chamaRulesCache.get(eq(CHAMA_ID), anyString())).thenReturn(CompiledChamaRules.compile(rules));
+    }
+}
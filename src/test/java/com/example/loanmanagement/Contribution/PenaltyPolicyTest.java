@@ -0,0 +1,77 @@
+package com.example.loanmanagement.Contribution;
+
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PenaltyPolicyTest {
+
+    @Test
+    void nothingIsOwedWithinTheGracePeriod() {
+        PenaltyPolicy policy = PenaltyPolicy.of(amount(100), amount(10), null, List.of());
+
+        assertEquals(Money.ZERO, policy.penaltyFor(0));
+        assertEquals(Money.ZERO, policy.penaltyFor(-3));
+    }
+
+    @Test
+    void flatChargePlusPerDayAccrual() {
+        PenaltyPolicy policy = PenaltyPolicy.of(amount(100), amount(10), null, List.of());
+
+        assertEquals(Money.of(110), policy.penaltyFor(1));
+        assertEquals(Money.of(400), policy.penaltyFor(30));
+    }
+
+    @Test
+    void flatPolicyDoesNotGrowWithDaysLate() {
+        PenaltyPolicy policy = PenaltyPolicy.flat(amount(250));
+
+        assertEquals(Money.of(250), policy.penaltyFor(1));
+        assertEquals(Money.of(250), policy.penaltyFor(90));
+    }
+
+    // From day 4 each day costs 20 instead of 10; from day 8, 50
+    @Test
+    void tiersStepUpTheDailyRate() {
+        PenaltyPolicy policy = PenaltyPolicy.of(amount(100), amount(10), null, List.of(
+                new PenaltyTier(8, amount(50)),
+                new PenaltyTier(4, amount(20))));
+
+        assertEquals(Money.of(130), policy.penaltyFor(3));
+        assertEquals(Money.of(150), policy.penaltyFor(4));
+        assertEquals(Money.of(170), policy.penaltyFor(5));
+        assertEquals(Money.of(310), policy.penaltyFor(9)); // 100 + 3 * 10 + 4 * 20 + 2 * 50
+    }
+
+    @Test
+    void tierFromTheFirstDayReplacesTheBaseRate() {
+        PenaltyPolicy policy = PenaltyPolicy.of(BigDecimal.ZERO, amount(10), null, List.of(new PenaltyTier(1, amount(30))));
+
+        assertEquals(Money.of(90), policy.penaltyFor(3));
+    }
+
+    @Test
+    void totalIsCappedIncludingTheFlatCharge() {
+        PenaltyPolicy policy = PenaltyPolicy.of(amount(100), amount(10), amount(250), List.of(new PenaltyTier(5, amount(40))));
+
+        assertEquals(Money.of(180), policy.penaltyFor(5));
+        assertEquals(Money.of(220), policy.penaltyFor(6));
+        assertEquals(Money.of(250), policy.penaltyFor(7));
+        assertEquals(Money.of(250), policy.penaltyFor(365));
+    }
+
+    @Test
+    void missingAmountsCountAsZero() {
+        PenaltyPolicy policy = PenaltyPolicy.of(null, null, null, null);
+
+        assertEquals(Money.ZERO, policy.penaltyFor(10));
+    }
+
+    private static BigDecimal amount(long value) {
+        return BigDecimal.valueOf(value);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.loanmanagement.Creditscore;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Chama.ChamaRepository;
+import com.example.loanmanagement.Contribution.ContributionEntity.ContributionStatus;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CreditScoringServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+    private static final Long MEMBER_ID = 3L;
+
+    private MemberCreditFeaturesRepository featuresRepo;
+    private CreditScoringService scoringService;
+    private MemberEntity member;
+
+    @BeforeEach
+    void setUp() {
+        featuresRepo = mock(MemberCreditFeaturesRepository.class);
+        scoringService = new CreditScoringService(featuresRepo, mock(ChamaRepository.class));
+
+        ChamaEntity chama = new ChamaEntity();
+        chama.setId(CHAMA_ID);
+        member = new MemberEntity();
+        member.setId(MEMBER_ID);
+        member.setChama(chama);
+    }
+
+    // 8 of 10 contributions on time, every installment on time, 6,000 owed against a 30,000 limit
+    @Test
+    void scoresFromFeatureRow() {
+        givenFeatures(8, 2, 10_000, 4, 0, 6_000);
+
+        CreditAssessmentDTO result = scoringService.assess(member, Money.of(24_000));
+
+        assertEquals(0.8, result.onTimeContributionRatio, 1e-9);
+        assertEquals(1.0, result.repaymentPunctuality, 1e-9);
+        assertEquals(24_000, result.maxLoanAmount, 1e-9);
+        assertEquals(86, result.score); // 50 * 0.8 + 30 * 1.0 + 20 * (24,000 / 30,000)
+        assertTrue(result.eligible, String.join("; ", result.reasons));
+    }
+
+    @Test
+    void membersWithoutRepaymentsAreNeutralOnPunctuality() {
+        givenFeatures(5, 0, 1_000, 0, 0, 0);
+
+        CreditAssessmentDTO result = scoringService.assess(member, Money.of(100));
+
+        assertEquals(0.5, result.repaymentPunctuality, 1e-9);
+        assertEquals(85, result.score); // 50 + 15 + 20
+    }
+
+    @Test
+    void rejectsFewerThanThreeContributions() {
+        givenFeatures(2, 0, 10_000, 0, 0, 0);
+
+        CreditAssessmentDTO result = scoringService.assess(member, Money.of(100));
+
+        assertFalse(result.eligible);
+        assertEquals(1, result.reasons.size());
+        assertTrue(result.reasons.get(0).contains("contributions"));
+    }
+
+    // All contributions late and all installments late: 0 + 0 + 20 * headroom stays under 50
+    @Test
+    void rejectsScoreBelowMinimum() {
+        givenFeatures(0, 5, 10_000, 0, 3, 0);
+
+        CreditAssessmentDTO result = scoringService.assess(member, Money.of(100));
+
+        assertEquals(20, result.score);
+        assertFalse(result.eligible);
+        assertTrue(result.reasons.get(0).contains("below the minimum"));
+    }
+
+    @Test
+    void limitIsThreeTimesSavingsLessExposure() {
+        givenFeatures(10, 0, 10_000, 0, 0, 6_000);
+
+        assertTrue(scoringService.assess(member, Money.of(24_000)).eligible);
+
+        CreditAssessmentDTO over = scoringService.assess(member, Money.ofCents(2_400_001));
+        assertFalse(over.eligible);
+        assertTrue(over.reasons.get(0).contains("exceeds the current limit"));
+    }
+
+    @Test
+    void exposureAboveLimitLeavesNothingToBorrow() {
+        givenFeatures(10, 0, 1_000, 0, 0, 5_000);
+
+        CreditAssessmentDTO result = scoringService.assess(member, Money.of(1));
+
+        assertEquals(0, result.maxLoanAmount, 1e-9);
+        assertFalse(result.eligible);
+    }
+
+    @Test
+    void eventsMoveTheMatchingCounters() {
+        scoringService.recordContribution(MEMBER_ID, CHAMA_ID, ContributionStatus.LATE, null, Money.of(500));
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, 0, 1, 50_000, 0, 0, 0);
+
+        scoringService.recordLoanApproved(MEMBER_ID, CHAMA_ID, Money.of(1_200));
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, 0, 0, 0, 0, 0, 120_000);
+
+        scoringService.recordRepayment(MEMBER_ID, CHAMA_ID, Money.of(300), 1, 0);
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, 0, 0, 0, 1, 0, -30_000);
+    }
+
+    // Installments after the first add to savings but not to the cycle count
+    @Test
+    void contributionsCountOncePerCycle() {
+        scoringService.recordContribution(MEMBER_ID, CHAMA_ID, ContributionStatus.ON_TIME, null, Money.of(400));
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, 1, 0, 40_000, 0, 0, 0);
+
+        scoringService.recordContribution(MEMBER_ID, CHAMA_ID, ContributionStatus.ON_TIME, ContributionStatus.ON_TIME, Money.of(300));
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, 0, 0, 30_000, 0, 0, 0);
+
+        // A late installment turns the cycle late once
+        scoringService.recordContribution(MEMBER_ID, CHAMA_ID, ContributionStatus.LATE, ContributionStatus.ON_TIME, Money.of(200));
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, -1, 1, 20_000, 0, 0, 0);
+
+        scoringService.recordContribution(MEMBER_ID, CHAMA_ID, ContributionStatus.LATE, ContributionStatus.LATE, Money.of(100));
+        verify(featuresRepo).addDeltas(MEMBER_ID, CHAMA_ID, 0, 0, 10_000, 0, 0, 0);
+    }
+
+    private void givenFeatures(int contributionsOnTime, int contributionsLate, double savings,
+                               int installmentsOnTime, int installmentsLate, double exposure) {
+        MemberCreditFeaturesEntity features = new MemberCreditFeaturesEntity();
+        features.setContributionsOnTime(contributionsOnTime);
+        features.setContributionsLate(contributionsLate);
+        features.setSavingsBalance(Money.of(savings));
+        features.setInstallmentsOnTime(installmentsOnTime);
+        features.setInstallmentsLate(installmentsLate);
+        features.setCurrentExposure(Money.of(exposure));
+        when(featuresRepo.findByMemberId(MEMBER_ID)).thenReturn(Optional.of(features));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AmortizationMethod;
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmortizationEngineTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 31);
+
+    // Terms under a year used to accrue no interest because of integer division
+    @Test
+    void flatInterestAccruesForShortTerms() {
+        assertEquals(Money.of(10500), AmortizationEngine.totalRepayment(Money.of(10000), 10, 6, AmortizationMethod.FLAT));
+    }
+
+    @Test
+    void flatScheduleSumsToPrincipalAndInterest() {
+        List<LoanInstallmentEntity> schedule = AmortizationEngine.schedule(Money.of(1000), 12, 7, AmortizationMethod.FLAT, START);
+
+        assertEquals(7, schedule.size());
+        assertEquals(100000, schedule.stream().mapToLong(i -> i.getPrincipalDue().cents()).sum());
+        assertEquals(7000, schedule.stream().mapToLong(i -> i.getInterestDue().cents()).sum());
+        assertEquals(LocalDate.of(2025, 2, 28), schedule.get(0).getDueDate());
+        assertEquals(LocalDate.of(2025, 8, 31), schedule.get(6).getDueDate());
+    }
+
+    @Test
+    void reducingBalanceRepaysPrincipalWithEqualInstallments() {
+        List<LoanInstallmentEntity> schedule = AmortizationEngine.schedule(Money.of(10000), 12, 12, AmortizationMethod.REDUCING_BALANCE, START);
+
+        assertEquals(1000000, schedule.stream().mapToLong(i -> i.getPrincipalDue().cents()).sum());
+        assertEquals(Money.of(888.49), schedule.get(0).getAmountDue());
+        assertEquals(Money.of(100), schedule.get(0).getInterestDue());
+        assertEquals(10661.86, AmortizationEngine.totalRepayment(Money.of(10000), 12, 12, AmortizationMethod.REDUCING_BALANCE).toDouble(), 0.02);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledRatePolicyTest {
+
+    private static final Long CHAMA_ID = 7L;
+
+    // The platform default must keep giving the rates applications have always had
+    @Test
+    void defaultPolicyMatchesPlatformRates() {
+        CompiledRatePolicy policy = CompiledRatePolicy.DEFAULT;
+        long amount = Money.of(50_000).cents();
+
+        assertEquals(10, policy.rateFor("personal", 12, amount));
+        assertEquals(12, policy.rateFor("Personal", 13, amount));
+        assertEquals(13, policy.rateFor("business", 24, amount));
+        assertEquals(15, policy.rateFor("business", 36, amount));
+        assertEquals(6, policy.rateFor("MORTGAGE", 120, amount));
+        assertEquals(7, policy.rateFor("auto", 6, amount));
+        assertEquals(9, policy.rateFor("auto", 48, amount));
+        assertEquals(10, policy.rateFor("education", 6, amount));
+        assertEquals(10, policy.rateFor(null, 6, amount));
+    }
+
+    @Test
+    void chamaBandsWinThenAnyTypeThenDefault() {
+        CompiledRatePolicy policy = CompiledRatePolicy.compile(List.of(
+                new LoanRatePolicyEntity(CHAMA_ID, "personal", null, null, null, null, 8.0),
+                new LoanRatePolicyEntity(CHAMA_ID, "personal", null, 6, Money.of(100_000), null, 5.0),
+                new LoanRatePolicyEntity(CHAMA_ID, "*", 24, null, null, null, 20.0)
+        ), CompiledRatePolicy.DEFAULT);
+
+        // The narrower band wins where it applies
+        assertEquals(5, policy.rateFor("personal", 6, Money.of(150_000).cents()));
+        assertEquals(8, policy.rateFor("personal", 6, Money.of(50_000).cents()));
+        assertEquals(8, policy.rateFor("personal", 30, Money.of(150_000).cents()));
+
+        // No personal-type match elsewhere: the chama's "*" band, then the platform default
+        assertEquals(20, policy.rateFor("business", 30, Money.of(1_000).cents()));
+        assertEquals(13, policy.rateFor("business", 12, Money.of(1_000).cents()));
+    }
+
+    // Same lower bounds: the band bounded on its upper side is the narrower one, whatever order they were saved in
+    @Test
+    void narrowerBandWinsWhenLowerBoundsTie() {
+        CompiledRatePolicy policy = CompiledRatePolicy.compile(List.of(
+                new LoanRatePolicyEntity(CHAMA_ID, "personal", null, null, null, null, 8.0),
+                new LoanRatePolicyEntity(CHAMA_ID, "personal", null, 6, null, null, 5.0),
+                new LoanRatePolicyEntity(CHAMA_ID, "personal", null, 6, null, Money.of(10_000), 4.0)
+        ), CompiledRatePolicy.DEFAULT);
+
+        assertEquals(4, policy.rateFor("personal", 6, Money.of(10_000).cents()));
+        assertEquals(5, policy.rateFor("personal", 6, Money.of(50_000).cents()));
+        assertEquals(8, policy.rateFor("personal", 7, Money.of(50_000).cents()));
+    }
+
+    @Test
+    void loanTypeIsMatchedIgnoringSurroundingSpaces() {
+        CompiledRatePolicy policy = CompiledRatePolicy.compile(List.of(
+                new LoanRatePolicyEntity(CHAMA_ID, "personal", null, null, null, null, 8.0)
+        ), CompiledRatePolicy.DEFAULT);
+
+        assertEquals(8, policy.rateFor(" Personal ", 12, Money.of(1_000).cents()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Creditscore.CreditScoringService;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class GuarantorServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+    private static final Long LOAN_ID = 1L;
+
+    private LoanGuarantorRepository guarantorRepo;
+    private GuarantorExposureRepository exposureRepo;
+    private GuarantorService guarantorService;
+
+    @BeforeEach
+    void setUp() {
+        guarantorRepo = mock(LoanGuarantorRepository.class);
+        exposureRepo = mock(GuarantorExposureRepository.class);
+        guarantorService = new GuarantorService(guarantorRepo, exposureRepo,
+                mock(MemberRepository.class), mock(CreditScoringService.class));
+    }
+
+    // Pledges shrink in step with the loan: only the newly repaid share comes off each guarantor's exposure
+    @Test
+    void releasesPledgesInProportionToRepayment() {
+        LoanApplicationEntity loan = loan(Money.of(1200), Money.of(300));
+        LoanGuarantorEntity guarantor = new LoanGuarantorEntity(loan, member(21L), Money.of(400));
+        when(guarantorRepo.findByLoanId(LOAN_ID)).thenReturn(List.of(guarantor));
+
+        guarantorService.releaseForRepayment(loan);
+        assertEquals(Money.of(100), guarantor.getReleased());
+        verify(exposureRepo).addDelta(21L, CHAMA_ID, -Money.of(100).cents());
+
+        loan.setAmountPaid(Money.of(1200));
+        guarantorService.releaseForRepayment(loan);
+        assertEquals(Money.of(400), guarantor.getReleased());
+        assertEquals(Money.ZERO, guarantor.getOutstanding());
+        verify(exposureRepo).addDelta(21L, CHAMA_ID, -Money.of(300).cents());
+
+        // Nothing more to hand back
+        guarantorService.releaseForRepayment(loan);
+        verifyNoMoreInteractions(exposureRepo);
+    }
+
+    private LoanApplicationEntity loan(Money totalRepayment, Money amountPaid) {
+        LoanApplicationEntity loan = new LoanApplicationEntity();
+        loan.setId(LOAN_ID);
+        loan.setTotalRepayment(totalRepayment);
+        loan.setAmountPaid(amountPaid);
+        return loan;
+    }
+
+    private MemberEntity member(Long id) {
+        ChamaEntity chama = new ChamaEntity();
+        chama.setId(CHAMA_ID);
+        MemberEntity member = new MemberEntity();
+        member.setId(id);
+        member.setChama(chama);
+        return member;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.AgingBucket;
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class LoanAgingServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private final LoanInstallmentRepository installmentRepo = mock(LoanInstallmentRepository.class);
+    private final LoanAgingSnapshotRepository snapshotRepo = mock(LoanAgingSnapshotRepository.class);
+
+    // 7 grace days, then 0.1% of the unpaid amount per day, capped at 10%
+    private final LoanAgingService agingService = new LoanAgingService(installmentRepo, snapshotRepo, 7, 0.001, 0.10);
+
+    @Test
+    void lateFeeStartsAfterGraceAndIsCapped() {
+        long unpaid = Money.of(1_000).cents();
+
+        assertEquals(0, agingService.lateFeeCents(unpaid, 7));
+        assertEquals(100, agingService.lateFeeCents(unpaid, 8));
+        assertEquals(3_000, agingService.lateFeeCents(unpaid, 37));
+        assertEquals(10_000, agingService.lateFeeCents(unpaid, 107));
+        assertEquals(10_000, agingService.lateFeeCents(unpaid, 400));
+        assertEquals(0, agingService.lateFeeCents(0, 400));
+    }
+
+    @Test
+    void accrualPassesTheConfiguredFormulaToTheStatement() {
+        agingService.accrueLateFees(TODAY);
+
+        verify(installmentRepo).accrueLateFees(TODAY, TODAY.minusDays(7), 7, 0.001, 0.10,
+                List.of("APPROVED", "DISBURSED", "DEFAULTED"));
+    }
+
+    @Test
+    void lateFeeSettingsMustNotBeNegative() {
+        assertThrows(RuntimeException.class, () -> new LoanAgingService(installmentRepo, snapshotRepo, -1, 0.001, 0.10));
+        assertThrows(RuntimeException.class, () -> new LoanAgingService(installmentRepo, snapshotRepo, 7, -0.001, 0.10));
+    }
+
+    @Test
+    void daysLateMapToBuckets() {
+        assertEquals(AgingBucket.CURRENT, AgingBucket.forDaysLate(null));
+        assertEquals(AgingBucket.DAYS_1_30, AgingBucket.forDaysLate(1));
+        assertEquals(AgingBucket.DAYS_1_30, AgingBucket.forDaysLate(30));
+        assertEquals(AgingBucket.DAYS_31_60, AgingBucket.forDaysLate(31));
+        assertEquals(AgingBucket.DAYS_31_60, AgingBucket.forDaysLate(60));
+        assertEquals(AgingBucket.DAYS_61_90, AgingBucket.forDaysLate(61));
+        assertEquals(AgingBucket.DAYS_61_90, AgingBucket.forDaysLate(90));
+        assertEquals(AgingBucket.DAYS_90_PLUS, AgingBucket.forDaysLate(91));
+    }
+
+    // A rerun replaces the day's rows, and the statement classifies with the same bounds as AgingBucket
+    @Test
+    void snapshotReplacesTheDayWithBucketBounds() {
+        agingService.snapshot(TODAY);
+
+        InOrder order = inOrder(snapshotRepo);
+        order.verify(snapshotRepo).deleteByAsOf(TODAY);
+        order.verify(snapshotRepo).writeSnapshot(TODAY, List.of("APPROVED", "DISBURSED", "DEFAULTED"), 30, 60, 90);
+    }
+
+    // Every bucket is listed, empty ones with zeros, and the totals add up the snapshot rows
+    @Test
+    void agingListsEveryBucketWithTotals() {
+        // Rows are built first: stubbing them inside another when(...) would leave that stubbing unfinished
+        List<LoanAgingSnapshotEntity> rows = List.of(
+                row(AgingBucket.CURRENT, 4, 40_000, 0, 0),
+                row(AgingBucket.DAYS_31_60, 2, 15_000, 6_000, 240));
+        when(snapshotRepo.findLatestAsOf(CHAMA_ID)).thenReturn(TODAY);
+        when(snapshotRepo.findByChamaIdAndAsOf(CHAMA_ID, TODAY)).thenReturn(rows);
+
+        LoanAgingDTO aging = agingService.getAging(CHAMA_ID);
+
+        assertEquals(TODAY, aging.asOf);
+        assertEquals(AgingBucket.values().length, aging.buckets.size());
+        assertEquals(0, aging.buckets.get(AgingBucket.DAYS_1_30.ordinal()).loanCount);
+        assertEquals(Money.of(6_000), aging.buckets.get(AgingBucket.DAYS_31_60.ordinal()).overdue);
+        assertEquals(6, aging.loanCount);
+        assertEquals(Money.of(55_000), aging.outstanding);
+        assertEquals(Money.of(6_000), aging.overdue);
+        assertEquals(Money.of(240), aging.lateFees);
+    }
+
+    private static LoanAgingSnapshotEntity row(AgingBucket bucket, long loans, long outstanding, long overdue, long lateFees) {
+        LoanAgingSnapshotEntity row = mock(LoanAgingSnapshotEntity.class);
+        when(row.getBucket()).thenReturn(bucket);
+        when(row.getLoanCount()).thenReturn(loans);
+        when(row.getOutstanding()).thenReturn(Money.of(outstanding));
+        when(row.getOverdue()).thenReturn(Money.of(overdue));
+        when(row.getLateFees()).thenReturn(Money.of(lateFees));
+        return row;
+    }
+}
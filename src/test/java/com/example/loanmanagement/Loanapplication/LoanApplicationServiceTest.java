@@ -0,0 +1,310 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Chama.ChamaEntity;
+import com.example.loanmanagement.Chama.ChamaLiquidityService;
+import com.example.loanmanagement.Chama.ChamaRepository;
+import com.example.loanmanagement.Creditscore.CreditScoringService;
+import com.example.loanmanagement.Creditscore.MemberCreditFeaturesEntity;
+import com.example.loanmanagement.Creditscore.MemberCreditFeaturesRepository;
+import com.example.loanmanagement.Enum.LoanStatus;
+import com.example.loanmanagement.Loanpayment.LoanpaymentRepository;
+import com.example.loanmanagement.Loanpayment.LoanpaymentService;
+import com.example.loanmanagement.Member.MemberEntity;
+import com.example.loanmanagement.Member.MemberRepository;
+import com.example.loanmanagement.Money.Money;
+import com.example.loanmanagement.User.EmailService;
+import com.example.loanmanagement.User.UserEntity;
+import com.example.loanmanagement.User.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanApplicationServiceTest {
+
+    private static final Long CHAMA_ID = 7L;
+
+    @Mock
+    private LoanApplicationRepository loanRepo;
+
+    @Mock
+    private LoanpaymentRepository paymentRepository;
+
+    @InjectMocks
+    private LoanpaymentService paymentService;
+
+    private LoanApplicationService loanService;
+
+    @BeforeEach
+    void setUp() {
+        loanService = new LoanApplicationService(loanRepo, mock(UserRepository.class), mock(MemberRepository.class),
+                paymentService, mock(ChamaRepository.class), mock(EmailService.class), mock(LoanScheduleService.class),
+                mock(LoanPortfolioService.class), mock(CreditScoringService.class), mock(ChamaLiquidityService.class),
+                mock(GuarantorService.class), mock(LoanRatePolicyService.class));
+    }
+
+    // Listing a chama's loans must cost one loan query however many loans there are; balances come from the loan rows
+    @Test
+    void getLoansByChamaReadsNoPayments() {
+        List<LoanApplicationEntity> loans = loans(50);
+        loans.get(0).setAmountPaid(Money.of(400));
+        loans.get(0).setOutstandingBalance(Money.of(600));
+        loans.get(1).setAmountPaid(Money.of(1000));
+        loans.get(1).setOutstandingBalance(Money.ZERO);
+        when(loanRepo.findByMember_Chama_Id(CHAMA_ID)).thenReturn(loans);
+
+        List<LoanApplicationDTO> dtos = loanService.getLoansByChama(CHAMA_ID);
+
+        assertEquals(50, dtos.size());
+        assertEquals(Money.of(600), dtos.get(0).remainingBalance);
+        assertEquals(Money.ZERO, dtos.get(1).remainingBalance);
+        assertEquals(Money.of(1000), dtos.get(2).remainingBalance);
+
+        verify(loanRepo, times(1)).findByMember_Chama_Id(CHAMA_ID);
+        verifyNoMoreInteractions(loanRepo);
+        verifyNoInteractions(paymentRepository);
+    }
+
+    // applyForLoan turns away members with under 3 contributions, a score under 50 or an amount over
+    // 3 x savings - exposure, before anything is written; a member who passes gets a loan row
+    @Test
+    void applyForLoanEnforcesEligibilityGate() {
+        UserRepository userRepo = mock(UserRepository.class);
+        MemberRepository memberRepo = mock(MemberRepository.class);
+        MemberCreditFeaturesRepository featuresRepo = mock(MemberCreditFeaturesRepository.class);
+        LoanRatePolicyService rateService = mock(LoanRatePolicyService.class);
+        LoanApplicationService service = new LoanApplicationService(loanRepo, userRepo, memberRepo,
+                paymentService, mock(ChamaRepository.class), mock(EmailService.class), mock(LoanScheduleService.class),
+                mock(LoanPortfolioService.class), new CreditScoringService(featuresRepo, mock(ChamaRepository.class)),
+                mock(ChamaLiquidityService.class), mock(GuarantorService.class), rateService);
+
+        MemberEntity member = loans(1).get(0).getMember();
+        UserEntity user = member.getUser();
+        when(userRepo.findByUsername("member")).thenReturn(Optional.of(user));
+        when(memberRepo.findAllByUser(user)).thenReturn(List.of(member));
+
+        MemberCreditFeaturesEntity features = new MemberCreditFeaturesEntity();
+        features.setContributionsOnTime(2);
+        features.setSavingsBalance(1_000.0);
+        features.setCurrentExposure(500.0);
+        when(featuresRepo.findByMemberId(member.getId())).thenReturn(Optional.of(features));
+
+        // Too few contributions
+        RuntimeException tooNew = assertThrows(RuntimeException.class,
+                () -> service.applyForLoan(application(Money.of(100)), "member", CHAMA_ID));
+        assertTrue(tooNew.getMessage().contains("contributions"), tooNew.getMessage());
+
+        // Score under 50: every contribution and installment late
+        features.setContributionsOnTime(0);
+        features.setContributionsLate(5);
+        features.setInstallmentsLate(2);
+        RuntimeException lowScore = assertThrows(RuntimeException.class,
+                () -> service.applyForLoan(application(Money.of(100)), "member", CHAMA_ID));
+        assertTrue(lowScore.getMessage().contains("below the minimum"), lowScore.getMessage());
+
+        // Good record, but over 3 x 1,000 - 500
+        features.setContributionsOnTime(5);
+        features.setContributionsLate(0);
+        features.setInstallmentsLate(0);
+        RuntimeException overLimit = assertThrows(RuntimeException.class,
+                () -> service.applyForLoan(application(Money.of(2_501)), "member", CHAMA_ID));
+        assertTrue(overLimit.getMessage().contains("exceeds the current limit"), overLimit.getMessage());
+        verify(loanRepo, never()).save(any());
+
+        // Right at the limit
+        when(rateService.resolveRate(CHAMA_ID, "personal", 12, Money.of(2_500))).thenReturn(10.0);
+        LoanApplicationDTO applied = service.applyForLoan(application(Money.of(2_500)), "member", CHAMA_ID);
+        assertEquals("PENDING", applied.status);
+        verify(loanRepo).save(any(LoanApplicationEntity.class));
+    }
+
+    // Only the caller's loans come back, in the order asked; the filter is part of the query, not applied afterwards
+    @Test
+    void userLoanStatusesAreScopedToTheCaller() {
+        when(loanRepo.findStatusViewsForUser(Set.of(1L, 2L, 3L), "member")).thenReturn(List.of(
+                new LoanStatusDTO(3L, LoanStatus.APPROVED, Money.of(1000), Money.of(1100), Money.ZERO, Money.of(1100), null, null),
+                new LoanStatusDTO(1L, LoanStatus.PENDING, Money.of(500), null, Money.ZERO, null, null, null)));
+
+        List<LoanStatusDTO> statuses = loanService.getUserLoanStatuses("member", List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(List.of(1L, 3L), statuses.stream().map(LoanStatusDTO::getLoanId).toList());
+        verify(loanRepo, never()).findStatusViews(any());
+    }
+
+    // One row past the page size signals another page; the cursor is the last shown row's (applicationDate, id)
+    @Test
+    void loanQueueReturnsPageAndCursor() {
+        List<LoanApplicationEntity> rows = loans(3);
+        rows.get(1).setApplicationDate(LocalDate.of(2025, 3, 1));
+        when(loanRepo.findQueuePage(CHAMA_ID, null, null, null, null, false, LocalDate.now(), null, null,
+                PageRequest.of(0, 3))).thenReturn(rows);
+        when(loanRepo.countQueueByStatus(CHAMA_ID, null, null, null)).thenReturn(List.of(
+                new Object[]{LoanStatus.PENDING, 4L}, new Object[]{LoanStatus.APPROVED, 3L}));
+        when(loanRepo.countQueueOverdue(CHAMA_ID, null, null, null, LocalDate.now())).thenReturn(1L);
+
+        LoanQueuePageDTO page = loanService.getLoanQueue(CHAMA_ID, null, null, null, null, false, null, 2);
+
+        assertEquals(List.of(1L, 2L), page.items.stream().map(dto -> dto.id).toList());
+        assertEquals("2025-03-01_2", page.nextCursor);
+        assertEquals(4L, page.counts.get("PENDING"));
+        assertEquals(3L, page.counts.get("APPROVED"));
+        assertEquals(0L, page.counts.get("REJECTED"));
+        assertEquals(1L, page.counts.get("OVERDUE"));
+        assertEquals(7L, page.counts.get("ALL"));
+    }
+
+    // Filters and the cursor reach the query as typed values; a short page ends the queue
+    @Test
+    void loanQueuePassesFiltersAndCursor() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        when(loanRepo.findQueuePage(CHAMA_ID, LoanStatus.APPROVED, "personal", from, to, true, LocalDate.now(),
+                LocalDate.of(2025, 3, 1), 42L, PageRequest.of(0, 11))).thenReturn(loans(1));
+
+        LoanQueuePageDTO page = loanService.getLoanQueue(CHAMA_ID, "approved", " personal ", from, to, true,
+                "2025-03-01_42", 10);
+
+        assertEquals(1, page.items.size());
+        assertNull(page.nextCursor);
+    }
+
+    @Test
+    void loanQueueClampsPageSizeAndRejectsBadInput() {
+        loanService.getLoanQueue(CHAMA_ID, null, null, null, null, false, null, 1000);
+        verify(loanRepo).findQueuePage(CHAMA_ID, null, null, null, null, false, LocalDate.now(), null, null,
+                PageRequest.of(0, 101));
+
+        assertThrows(RuntimeException.class,
+                () -> loanService.getLoanQueue(CHAMA_ID, null, null, null, null, false, "not-a-cursor", null));
+        assertThrows(RuntimeException.class,
+                () -> loanService.getLoanQueue(CHAMA_ID, "OPEN", null, null, null, false, null, null));
+    }
+
+    // Each loan is decided on its own: a refused transition or a loan from another chama leaves the rest committed,
+    // and only the loans actually moved are emailed, once the transaction commits
+    @Test
+    void bulkDecisionAppliesEachLoanAndNotifiesAfterCommit() {
+        MemberRepository memberRepo = mock(MemberRepository.class);
+        EmailService emailService = mock(EmailService.class);
+        ChamaLiquidityService liquidityService = mock(ChamaLiquidityService.class);
+        LoanApplicationService service = new LoanApplicationService(loanRepo, mock(UserRepository.class), memberRepo,
+                paymentService, mock(ChamaRepository.class), emailService, mock(LoanScheduleService.class),
+                mock(LoanPortfolioService.class), mock(CreditScoringService.class), liquidityService,
+                mock(GuarantorService.class), mock(LoanRatePolicyService.class));
+
+        List<LoanApplicationEntity> loans = loans(3);
+        loans.forEach(loan -> {
+            loan.setStatus(LoanStatus.PENDING);
+            loan.setDuration(12);
+            loan.setInterestRate(10.0);
+        });
+        loans.get(1).setAmount(Money.of(5_000));
+        loans.get(0).setEmail("one@example.com");
+        loans.get(2).setEmail("three@example.com");
+        when(memberRepo.isChamaAdmin("admin", CHAMA_ID)).thenReturn(true);
+        when(loanRepo.findByIdInAndChamaId(List.of(1L, 2L, 3L, 99L), CHAMA_ID)).thenReturn(loans);
+        // The chama cannot fund loan 2
+        lenient().doThrow(new RuntimeException("Not enough funds"))
+                .when(liquidityService).reserveForLoan(CHAMA_ID, Money.of(5_000));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            BulkLoanDecisionResultDTO result = service.bulkUpdateLoanStatus(List.of(1L, 2L, 3L, 99L), "approved", "admin", CHAMA_ID);
+
+            assertEquals("APPROVED", result.status);
+            assertEquals(List.of(1L, 3L), result.updated);
+            assertEquals(List.of(2L, 99L), List.copyOf(result.failed.keySet()));
+            assertEquals(LoanStatus.APPROVED, loans.get(0).getStatus());
+            assertEquals(LoanStatus.PENDING, loans.get(1).getStatus());
+            assertNull(loans.get(1).getApprovalDate());
+
+            verify(emailService, never()).sendEmailAsync(any(), any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(emailService).sendEmailAsync(eq("one@example.com"), any(), any());
+            verify(emailService).sendEmailAsync(eq("three@example.com"), any(), any());
+            verifyNoMoreInteractions(emailService);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Authorization is one isChamaAdmin query (role or creator); a non-admin is refused before any loan is read
+    @Test
+    void loanDecisionsRequireChamaAdmin() {
+        MemberRepository memberRepo = mock(MemberRepository.class);
+        LoanApplicationService service = new LoanApplicationService(loanRepo, mock(UserRepository.class), memberRepo,
+                paymentService, mock(ChamaRepository.class), mock(EmailService.class), mock(LoanScheduleService.class),
+                mock(LoanPortfolioService.class), mock(CreditScoringService.class), mock(ChamaLiquidityService.class),
+                mock(GuarantorService.class), mock(LoanRatePolicyService.class));
+        when(memberRepo.isChamaAdmin("member", CHAMA_ID)).thenReturn(false);
+
+        assertFalse(service.isUserAdminOfChama("member", CHAMA_ID));
+        assertThrows(RuntimeException.class,
+                () -> service.bulkUpdateLoanStatus(List.of(1L), "approved", "member", CHAMA_ID));
+        assertThrows(RuntimeException.class,
+                () -> service.updateLoanStatus(1L, "approved", "member", CHAMA_ID));
+        verifyNoInteractions(loanRepo);
+
+        // Limits are checked before anything else
+        assertThrows(RuntimeException.class, () -> service.bulkUpdateLoanStatus(List.of(), "approved", "admin", CHAMA_ID));
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 1; id <= 201; id++) tooMany.add(id);
+        assertThrows(RuntimeException.class, () -> service.bulkUpdateLoanStatus(tooMany, "approved", "admin", CHAMA_ID));
+        verify(memberRepo, times(3)).isChamaAdmin(any(), any());
+    }
+
+    private LoanApplicationDTO application(Money amount) {
+        LoanApplicationDTO dto = new LoanApplicationDTO();
+        dto.fullName = "Jane Member";
+        dto.email = "jane@example.com";
+        dto.amount = amount;
+        dto.duration = 12;
+        dto.loanType = "personal";
+        return dto;
+    }
+
+    private List<LoanApplicationEntity> loans(int count) {
+        ChamaEntity chama = new ChamaEntity();
+        chama.setId(CHAMA_ID);
+        UserEntity user = new UserEntity();
+        user.setUsername("member");
+        MemberEntity member = new MemberEntity();
+        member.setId(3L);
+        member.setUser(user);
+        member.setChama(chama);
+
+        List<LoanApplicationEntity> loans = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            LoanApplicationEntity loan = new LoanApplicationEntity();
+            loan.setId(id);
+            loan.setAmount(Money.of(1000));
+            loan.setTotalRepayment(Money.of(1000));
+            loan.setAmountPaid(Money.ZERO);
+            loan.setOutstandingBalance(Money.of(1000));
+            loan.setStatus(LoanStatus.APPROVED);
+            loan.setApplicationDate(LocalDate.now());
+            loan.setMember(member);
+            loans.add(loan);
+        }
+        return loans;
+    }
+}
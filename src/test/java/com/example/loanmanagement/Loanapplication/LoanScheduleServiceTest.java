@@ -0,0 +1,50 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Loanpayment.LoanpaymentRepository;
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoanScheduleServiceTest {
+
+    private static final Long LOAN_ID = 11L;
+
+    // Penalty last: the scheduled amount can be covered while a late fee is still owed
+    @Test
+    void allocationReportsPenaltyStillOwed() {
+        LoanInstallmentRepository installmentRepo = mock(LoanInstallmentRepository.class);
+        LoanScheduleService scheduleService = new LoanScheduleService(installmentRepo, mock(LoanApplicationRepository.class),
+                mock(LoanpaymentRepository.class), "PRINCIPAL,INTEREST,PENALTY");
+        LoanInstallmentEntity installment = installment(100_000, 10_000, 5_000);
+        when(installmentRepo.findUnpaidByLoanId(LOAN_ID)).thenReturn(List.of(installment));
+
+        RepaymentAllocation first = scheduleService.allocatePayment(LOAN_ID, Money.ofCents(110_000), LocalDate.now());
+
+        assertEquals(Money.ofCents(110_000), first.getScheduled());
+        assertEquals(Money.ofCents(5_000), first.getPenaltyOutstanding());
+        assertEquals("PARTIAL", installment.getStatus());
+
+        RepaymentAllocation second = scheduleService.allocatePayment(LOAN_ID, Money.ofCents(5_000), LocalDate.now());
+
+        assertEquals(Money.ofCents(5_000), second.getPenalty());
+        assertEquals(Money.ZERO, second.getPenaltyOutstanding());
+        assertEquals("PAID", installment.getStatus());
+    }
+
+    private static LoanInstallmentEntity installment(long principal, long interest, long penalty) {
+        LoanInstallmentEntity installment = new LoanInstallmentEntity();
+        installment.setInstallmentNumber(1);
+        installment.setDueDate(LocalDate.now().minusDays(30));
+        installment.setPrincipalDue(Money.ofCents(principal));
+        installment.setInterestDue(Money.ofCents(interest));
+        installment.setAmountDue(Money.ofCents(principal + interest));
+        installment.setPenaltyDue(Money.ofCents(penalty));
+        return installment;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.loanmanagement.Loanapplication;
+
+import com.example.loanmanagement.Enum.LoanStatus;
+import com.example.loanmanagement.Money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoanStatusTest {
+
+    @Test
+    void transitionsFollowTheLoanLifecycle() {
+        assertAllowed(LoanStatus.PENDING, EnumSet.of(LoanStatus.APPROVED, LoanStatus.REJECTED));
+        assertAllowed(LoanStatus.APPROVED, EnumSet.of(LoanStatus.DISBURSED, LoanStatus.REPAID, LoanStatus.DEFAULTED));
+        assertAllowed(LoanStatus.DISBURSED, EnumSet.of(LoanStatus.REPAID, LoanStatus.DEFAULTED));
+        assertAllowed(LoanStatus.DEFAULTED, EnumSet.of(LoanStatus.REPAID));
+        assertAllowed(LoanStatus.REPAID, EnumSet.noneOf(LoanStatus.class));
+        assertAllowed(LoanStatus.REJECTED, EnumSet.noneOf(LoanStatus.class));
+    }
+
+    @Test
+    void approvalStampsTheApprovalDate() {
+        LoanApplicationEntity loan = new LoanApplicationEntity();
+
+        loan.transitionTo(LoanStatus.APPROVED);
+
+        assertEquals(LoanStatus.APPROVED, loan.getStatus());
+        assertEquals(LocalDate.now(), loan.getApprovalDate());
+    }
+
+    @Test
+    void illegalTransitionLeavesTheLoanUnchanged() {
+        LoanApplicationEntity loan = new LoanApplicationEntity();
+
+        assertThrows(RuntimeException.class, () -> loan.transitionTo(LoanStatus.REPAID));
+        assertEquals(LoanStatus.PENDING, loan.getStatus());
+        assertNull(loan.getApprovalDate());
+    }
+
+    @Test
+    void loanWithBalanceCannotBeRepaid() {
+        LoanApplicationEntity loan = new LoanApplicationEntity();
+        loan.transitionTo(LoanStatus.APPROVED);
+        loan.setOutstandingBalance(Money.ofCents(100));
+
+        assertThrows(RuntimeException.class, () -> loan.transitionTo(LoanStatus.REPAID));
+        assertEquals(LoanStatus.APPROVED, loan.getStatus());
+
+        loan.setOutstandingBalance(Money.ZERO);
+        loan.transitionTo(LoanStatus.REPAID);
+        assertEquals(LoanStatus.REPAID, loan.getStatus());
+    }
+
+    @Test
+    void legacyStatusesMapToLoanStatuses() {
+        assertEquals(LoanStatus.APPROVED, LoanStatusMigration.fromLegacy("approved"));
+        assertEquals(LoanStatus.DISBURSED, LoanStatusMigration.fromLegacy(" Disbursed "));
+        assertEquals(LoanStatus.REPAID, LoanStatusMigration.fromLegacy("PAID"));
+        assertEquals(LoanStatus.REPAID, LoanStatusMigration.fromLegacy("paid-off"));
+        assertEquals(LoanStatus.REJECTED, LoanStatusMigration.fromLegacy("DECLINED"));
+        assertNull(LoanStatusMigration.fromLegacy("WHATEVER"));
+        assertNull(LoanStatusMigration.fromLegacy(null));
+        assertNull(LoanStatusMigration.fromLegacy("  "));
+    }
+
+    private static void assertAllowed(LoanStatus from, Set<LoanStatus> allowed) {
+        for (LoanStatus next : LoanStatus.values()) {
+            assertEquals(allowed.contains(next), from.canTransitionTo(next), from + " -> " + next);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.loanmanagement.Loanapplication;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RepaymentWaterfallTest {
+
+    // Owed per component, in RepaymentComponent order: penalty, interest, principal
+    private static final long[] OWED = {500, 1000, 10000};
+
+    @Test
+    void defaultOrderPaysPenaltyThenInterestThenPrincipal() {
+        RepaymentWaterfall waterfall = RepaymentWaterfall.parse(RepaymentWaterfall.DEFAULT);
+
+        assertArrayEquals(new long[]{500, 700, 0}, waterfall.allocate(1200, OWED));
+        assertArrayEquals(new long[]{500, 1000, 10000}, waterfall.allocate(20000, OWED));
+    }
+
+    @Test
+    void configuredOrderIsFollowed() {
+        RepaymentWaterfall waterfall = RepaymentWaterfall.parse("interest, principal, penalty");
+
+        assertArrayEquals(new long[]{0, 1000, 200}, waterfall.allocate(1200, OWED));
+    }
+
+    @Test
+    void orderMustNameEveryComponentOnce() {
+        assertThrows(RuntimeException.class, () -> RepaymentWaterfall.parse("INTEREST,PRINCIPAL"));
+        assertThrows(RuntimeException.class, () -> RepaymentWaterfall.parse("INTEREST,INTEREST,PRINCIPAL"));
+    }
+}
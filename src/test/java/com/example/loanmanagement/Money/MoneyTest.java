@@ -0,0 +1,39 @@
+package com.example.loanmanagement.Money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    // 0.1 + 0.2 as doubles is 0.30000000000000004; in cents it is exactly 0.30
+    @Test
+    void sumsAreExact() {
+        Money total = Money.of(0.1).plus(Money.of(0.2));
+
+        assertEquals(Money.of(new BigDecimal("0.30")), total);
+        assertEquals(30, total.cents());
+        assertEquals("0.30", total.toString());
+    }
+
+    @Test
+    void roundsHalfUpToTheCent() {
+        assertEquals(101, Money.of(1.005).cents());
+        assertEquals(100, Money.of(new BigDecimal("1.004")).cents());
+        assertEquals(Money.of(33.33), Money.of(100).times(new BigDecimal("0.3333")));
+    }
+
+    @Test
+    void paymentThatClearsTheBalanceLeavesExactlyZero() {
+        Money balance = Money.of(1000);
+        for (int i = 0; i < 10; i++) {
+            balance = balance.minus(Money.of(100));
+        }
+
+        assertTrue(balance.isZero());
+        assertEquals(Money.ZERO, balance);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.loanmanagement.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTermsTest {
+
+    @Test
+    void phoneIsIndexedInEveryCommonForm() {
+        Set<String> terms = SearchTerms.ofPhone("+254 712-345678");
+
+        assertTrue(terms.containsAll(Set.of("254712345678", "0712345678", "712345678")));
+        assertEquals(List.of("0712"), SearchTerms.ofQuery("0712"));
+    }
+
+    @Test
+    void emailAndNameWordsAreTerms() {
+        Set<String> terms = SearchTerms.ofEmail("Jane.Doe@Mail.com");
+
+        assertTrue(terms.containsAll(Set.of("jane.doe@mail.com", "jane.doe", "jane", "doe")));
+        assertEquals("jane!_doe%", SearchTerms.likePrefix("jane_doe"));
+    }
+
+    @Test
+    void longestQueryTokenIsLookedUpAndTheRestFilter() {
+        List<String> tokens = SearchTerms.ofQuery("Jo Wanjiru");
+
+        assertEquals(List.of("wanjiru", "jo"), tokens);
+        assertTrue(SearchTerms.matchesAll(tokens.subList(1, 2), "Joan Wanjiru", "joan@mail.com"));
+        assertFalse(SearchTerms.matchesAll(tokens.subList(1, 2), "Mary Wanjiru", "mary@mail.com"));
+    }
+}